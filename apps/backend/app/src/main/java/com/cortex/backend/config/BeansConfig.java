@@ -28,6 +28,7 @@ public class BeansConfig {
   private static final Duration ROLES_CACHE_TTL = Duration.ofDays(1);
   private static final Duration COUNTRIES_CACHE_TTL = Duration.ofDays(7);
   private static final Duration ROADMAPS_CACHE_TTL = Duration.ofHours(24);
+  private static final Duration ENTITLEMENTS_CACHE_TTL = Duration.ofMinutes(15);
   private static final Duration DEFAULT_CACHE_TTL = Duration.ofMinutes(60);
 
   @Bean
@@ -91,6 +92,8 @@ public class BeansConfig {
         .withCacheConfiguration("roadmaps",
             cacheConfiguration
                 .entryTtl(ROADMAPS_CACHE_TTL)
-                .disableCachingNullValues());
+                .disableCachingNullValues())
+        .withCacheConfiguration("entitlements",
+            cacheConfiguration.entryTtl(ENTITLEMENTS_CACHE_TTL));
   }
 }
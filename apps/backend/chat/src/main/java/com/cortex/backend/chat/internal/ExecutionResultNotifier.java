@@ -0,0 +1,52 @@
+package com.cortex.backend.chat.internal;
+
+import com.cortex.backend.engine.api.dto.ExecutionCompletedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pushes finished code executions to their user over STOMP. Every node receives each completion
+ * from Redis and forwards it to the sessions it holds, so it doesn't matter which node ran the
+ * task.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ExecutionResultNotifier implements MessageListener {
+
+  private static final String EXECUTIONS_QUEUE = "/queue/executions";
+
+  private final RedisMessageListenerContainer listenerContainer;
+  private final SimpMessagingTemplate messagingTemplate;
+  private final ObjectMapper objectMapper;
+
+  @PostConstruct
+  void subscribe() {
+    listenerContainer.addMessageListener(this, new ChannelTopic(ExecutionCompletedEvent.CHANNEL));
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    try {
+      ExecutionCompletedEvent event = objectMapper.readValue(
+          new String(message.getBody(), StandardCharsets.UTF_8), ExecutionCompletedEvent.class);
+      if (event.userId() == null) {
+        return;
+      }
+      messagingTemplate.convertAndSendToUser(String.valueOf(event.userId()), EXECUTIONS_QUEUE,
+          event);
+    } catch (IOException e) {
+      log.warn("Failed to read execution completion: {}", e.getMessage());
+    }
+  }
+}
@@ -5,6 +5,8 @@ import static org.springframework.http.HttpStatus.FORBIDDEN;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.NOT_IMPLEMENTED;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
 import static org.springframework.http.HttpStatus.UNAUTHORIZED;
 
 import lombok.Getter;
@@ -54,6 +56,8 @@ public enum BusinessErrorCodes {
   FAILED_TO_ACTIVATE_LICENSE(332, INTERNAL_SERVER_ERROR, "Failed to activate license, please try again"),
   FAILED_TO_VALIDATE_LICENSE(332, INTERNAL_SERVER_ERROR, "Failed validate license, please try again"),
   FAILED_TO_DEACTIVATE_LICENSE(332, INTERNAL_SERVER_ERROR, "Failed deactivate license, please try again"),
+  SUBMISSION_RATE_LIMITED(333, TOO_MANY_REQUESTS, "Too many code submissions, please retry later"),
+  EXECUTION_OVERLOADED(334, SERVICE_UNAVAILABLE, "Code execution is at capacity, please retry later"),
   ;
   private final int code;
   private final String description;
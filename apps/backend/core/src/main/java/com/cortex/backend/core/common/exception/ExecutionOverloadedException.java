@@ -0,0 +1,14 @@
+package com.cortex.backend.core.common.exception;
+
+import lombok.Getter;
+
+@Getter
+public class ExecutionOverloadedException extends RuntimeException {
+
+  private final long retryAfterSeconds;
+
+  public ExecutionOverloadedException(String message, long retryAfterSeconds) {
+    super(message);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+}
@@ -11,6 +11,7 @@ import static com.cortex.backend.core.common.BusinessErrorCodes.CONTAINER_EXECUT
 import static com.cortex.backend.core.common.BusinessErrorCodes.CONTENT_CHANGED;
 import static com.cortex.backend.core.common.BusinessErrorCodes.EMAIL_SENDING_FAILED;
 import static com.cortex.backend.core.common.BusinessErrorCodes.EXERCISE_CREATE_FAILED;
+import static com.cortex.backend.core.common.BusinessErrorCodes.EXECUTION_OVERLOADED;
 import static com.cortex.backend.core.common.BusinessErrorCodes.EXERCISE_READ_FAILED;
 import static com.cortex.backend.core.common.BusinessErrorCodes.EXPIRED_TOKEN;
 import static com.cortex.backend.core.common.BusinessErrorCodes.FILE_SIZE_EXCEEDED;
@@ -27,6 +28,7 @@ import static com.cortex.backend.core.common.BusinessErrorCodes.NO_APPROVED_MENT
 import static com.cortex.backend.core.common.BusinessErrorCodes.PAYMENT_FAILED;
 import static com.cortex.backend.core.common.BusinessErrorCodes.RESOURCE_NOT_FOUND;
 import static com.cortex.backend.core.common.BusinessErrorCodes.RESULT_NOT_AVAILABLE;
+import static com.cortex.backend.core.common.BusinessErrorCodes.SUBMISSION_RATE_LIMITED;
 import static com.cortex.backend.core.common.BusinessErrorCodes.UNSUPPORTED_LANGUAGE;
 import static com.cortex.backend.core.common.BusinessErrorCodes.USER_ALREADY_EXISTS;
 import static com.cortex.backend.core.common.BusinessErrorCodes.USER_NOT_PART_OF_MENTORSHIP;
@@ -43,6 +45,7 @@ import com.cortex.backend.core.common.exception.ContainerExecutionException;
 import com.cortex.backend.core.common.exception.ContentChangedException;
 import com.cortex.backend.core.common.exception.EmailSendingException;
 import com.cortex.backend.core.common.exception.ExerciseCreationException;
+import com.cortex.backend.core.common.exception.ExecutionOverloadedException;
 import com.cortex.backend.core.common.exception.ExerciseReadException;
 import com.cortex.backend.core.common.exception.ExpiredTokenException;
 import com.cortex.backend.core.common.exception.FailedToActivateLicenseException;
@@ -62,6 +65,7 @@ import com.cortex.backend.core.common.exception.NewPasswordDoesNotMatchException
 import com.cortex.backend.core.common.exception.NoApprovedMentorshipRequestException;
 import com.cortex.backend.core.common.exception.OperationNotPermittedException;
 import com.cortex.backend.core.common.exception.PaymentServiceException;
+import com.cortex.backend.core.common.exception.RateLimitExceededException;
 import com.cortex.backend.core.common.exception.ResourceNotFoundException;
 import com.cortex.backend.core.common.exception.ResultNotAvailableException;
 import com.cortex.backend.core.common.exception.UnsupportedLanguageException;
@@ -71,6 +75,7 @@ import java.util.HashSet;
 import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -346,6 +351,32 @@ public class GlobalExceptionHandler {
                 .build());
   }
 
+  @ExceptionHandler(RateLimitExceededException.class)
+  public ResponseEntity<ExceptionResponse> handleRateLimitExceededException(
+      RateLimitExceededException exp) {
+    return ResponseEntity.status(SUBMISSION_RATE_LIMITED.getHttpStatus())
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(exp.getRetryAfterSeconds()))
+        .body(
+            ExceptionResponse.builder()
+                .code(SUBMISSION_RATE_LIMITED.getCode())
+                .description(SUBMISSION_RATE_LIMITED.getDescription())
+                .error(exp.getMessage())
+                .build());
+  }
+
+  @ExceptionHandler(ExecutionOverloadedException.class)
+  public ResponseEntity<ExceptionResponse> handleExecutionOverloadedException(
+      ExecutionOverloadedException exp) {
+    return ResponseEntity.status(EXECUTION_OVERLOADED.getHttpStatus())
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(exp.getRetryAfterSeconds()))
+        .body(
+            ExceptionResponse.builder()
+                .code(EXECUTION_OVERLOADED.getCode())
+                .description(EXECUTION_OVERLOADED.getDescription())
+                .error(exp.getMessage())
+                .build());
+  }
+
   @ExceptionHandler(ContentChangedException.class)
   public ResponseEntity<ExceptionResponse> handleContentChangedException(
       ContentChangedException exp) {
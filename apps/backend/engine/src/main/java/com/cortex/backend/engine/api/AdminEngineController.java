@@ -0,0 +1,47 @@
+package com.cortex.backend.engine.api;
+
+import com.cortex.backend.engine.api.dto.DependencyCacheStats;
+import com.cortex.backend.engine.api.dto.ExerciseTimeout;
+import com.cortex.backend.engine.api.dto.UserInFlight;
+import com.cortex.backend.engine.internal.cache.DependencyCacheManager;
+import com.cortex.backend.engine.internal.scheduling.ExecutionTimeoutAdvisor;
+import com.cortex.backend.engine.internal.scheduling.SubmissionRateLimiter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/engine")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+@Tag(name = "Admin Engine", description = "Administrative code execution engine APIs")
+public class AdminEngineController {
+
+  private final DependencyCacheManager dependencyCacheManager;
+  private final SubmissionRateLimiter submissionRateLimiter;
+  private final ExecutionTimeoutAdvisor timeoutAdvisor;
+
+  @GetMapping("/caches")
+  @Operation(summary = "Get dependency cache stats", description = "Retrieves size, hit rate and eviction stats of the shared dependency caches")
+  public ResponseEntity<List<DependencyCacheStats>> getDependencyCaches() {
+    return ResponseEntity.ok(dependencyCacheManager.getStats());
+  }
+
+  @GetMapping("/in-flight")
+  @Operation(summary = "Get in-flight executions per user", description = "Lists the users with queued or running executions and how many each has")
+  public ResponseEntity<List<UserInFlight>> getInFlightExecutions() {
+    return ResponseEntity.ok(submissionRateLimiter.getInFlight());
+  }
+
+  @GetMapping("/timeouts")
+  @Operation(summary = "Get derived execution timeouts", description = "Lists the timeout derived for each exercise from the runtimes of its passing runs")
+  public ResponseEntity<List<ExerciseTimeout>> getExecutionTimeouts() {
+    return ResponseEntity.ok(timeoutAdvisor.getTimeouts());
+  }
+}
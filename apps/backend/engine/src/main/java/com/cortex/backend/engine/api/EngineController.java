@@ -1,12 +1,14 @@
 package com.cortex.backend.engine.api;
 
-import com.cortex.backend.core.common.exception.ResultNotAvailableException;
 import com.cortex.backend.core.common.exception.UnsupportedLanguageException;
 import com.cortex.backend.core.domain.User;
 import com.cortex.backend.engine.api.dto.CodeExecutionRequest;
 import com.cortex.backend.engine.api.dto.CodeExecutionResult;
 import com.cortex.backend.engine.api.dto.CodeExecutionSubmissionResponse;
+import com.cortex.backend.engine.api.dto.ExecutionStatusResponse;
 import com.cortex.backend.engine.internal.services.CodeExecutionService;
+import com.cortex.backend.engine.internal.streaming.ExecutionResultWaiter;
+import com.cortex.backend.engine.internal.streaming.ExecutionStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,17 +16,21 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
-import java.time.LocalDateTime;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/engine")
@@ -34,25 +40,25 @@ import org.springframework.web.bind.annotation.RestController;
 public class EngineController {
 
   private final CodeExecutionService codeExecutionService;
+  private final ExecutionStreamService executionStreamService;
+  private final ExecutionResultWaiter executionResultWaiter;
 
   @PostMapping("/execute")
   @Operation(summary = "Submit code for execution",
-      description = "Submits code for execution and returns execution details")
+      description = "Submits code for execution and returns its queue position and estimated wait")
   @ApiResponse(responseCode = "202", description = "Code submitted successfully")
   @ApiResponse(responseCode = "400", description = "Invalid request or exercise state")
+  @ApiResponse(responseCode = "429", description = "Too many submissions, retry after the "
+      + "number of seconds in the Retry-After header")
+  @ApiResponse(responseCode = "503", description = "Execution backlog too long, retry after "
+      + "the number of seconds in the Retry-After header")
   @ApiResponse(responseCode = "500", description = "Internal server error")
   public ResponseEntity<CodeExecutionSubmissionResponse> submitCodeExecution(
       @Valid @RequestBody CodeExecutionRequest request,
       Authentication authentication) {
     User user = (User) authentication.getPrincipal();
-    String taskId = codeExecutionService.submitCodeExecution(request, user.getId());
-
-    return ResponseEntity.accepted().body(new CodeExecutionSubmissionResponse(
-        taskId,
-        "SUBMITTED",
-        "Code execution task submitted successfully",
-        LocalDateTime.now()
-    ));
+    return ResponseEntity.accepted()
+        .body(codeExecutionService.submitCodeExecution(request, user.getId()));
   }
 
   @GetMapping("/result/{taskId}")
@@ -60,16 +66,88 @@ public class EngineController {
       description = "Retrieves the result of a code execution task")
   @ApiResponse(responseCode = "200", description = "Result retrieved successfully",
       content = @Content(schema = @Schema(implementation = CodeExecutionResult.class)))
+  @ApiResponse(responseCode = "400", description = "The task belongs to another user")
   @ApiResponse(responseCode = "404", description = "Result not found")
   @ApiResponse(responseCode = "500", description = "Internal server error")
   public ResponseEntity<CodeExecutionResult> getExecutionResult(
       @Parameter(description = "Task ID", required = true)
-      @PathVariable String taskId) {
-    try {
-      CodeExecutionResult result = codeExecutionService.getExecutionResult(taskId);
-      return ResponseEntity.ok(result);
-    } catch (ResultNotAvailableException e) {
-      return ResponseEntity.notFound().build();
-    }
+      @PathVariable String taskId,
+      Authentication authentication) {
+    User user = (User) authentication.getPrincipal();
+    codeExecutionService.verifyOwnership(taskId, user.getId());
+    return codeExecutionService.findExecutionResult(taskId)
+        .map(ResponseEntity::ok)
+        .orElseGet(() -> ResponseEntity.notFound().build());
+  }
+
+  @GetMapping("/status/{taskId}")
+  @Operation(summary = "Get execution status",
+      description = "Retrieves the current status of a code execution task, its queue position "
+          + "at submission and when it entered each status")
+  @ApiResponse(responseCode = "200", description = "Status retrieved successfully",
+      content = @Content(schema = @Schema(implementation = ExecutionStatusResponse.class)))
+  @ApiResponse(responseCode = "400", description = "The task belongs to another user")
+  @ApiResponse(responseCode = "404", description = "Unknown or expired task")
+  public ResponseEntity<ExecutionStatusResponse> getExecutionStatus(
+      @Parameter(description = "Task ID", required = true)
+      @PathVariable String taskId,
+      Authentication authentication) {
+    User user = (User) authentication.getPrincipal();
+    codeExecutionService.verifyOwnership(taskId, user.getId());
+    return codeExecutionService.findExecutionStatus(taskId)
+        .map(ResponseEntity::ok)
+        .orElseGet(() -> ResponseEntity.notFound().build());
+  }
+
+  @GetMapping("/result/{taskId}/wait")
+  @Operation(summary = "Wait for execution result",
+      description = "Holds the request until the result of a code execution task is available. "
+          + "Completion is also pushed to /user/queue/executions over the WebSocket")
+  @ApiResponse(responseCode = "200", description = "Result retrieved successfully",
+      content = @Content(schema = @Schema(implementation = CodeExecutionResult.class)))
+  @ApiResponse(responseCode = "204", description = "Result not available before the timeout")
+  @ApiResponse(responseCode = "400", description = "The task belongs to another user")
+  @ApiResponse(responseCode = "404", description = "Unknown or expired task")
+  public DeferredResult<ResponseEntity<CodeExecutionResult>> awaitExecutionResult(
+      @Parameter(description = "Task ID", required = true)
+      @PathVariable String taskId,
+      @Parameter(description = "Maximum time to wait, in milliseconds")
+      @RequestParam(name = "timeout_ms", defaultValue = "30000") long timeoutMs,
+      Authentication authentication) {
+    User user = (User) authentication.getPrincipal();
+    codeExecutionService.verifyOwnership(taskId, user.getId());
+    return executionResultWaiter.await(taskId, timeoutMs);
+  }
+
+  @DeleteMapping("/execution/{taskId}")
+  @Operation(summary = "Cancel execution",
+      description = "Cancels a queued or running code execution task. A queued task is dropped "
+          + "and a running one has its container killed")
+  @ApiResponse(responseCode = "202", description = "Cancellation requested")
+  @ApiResponse(responseCode = "400", description = "The task belongs to another user")
+  @ApiResponse(responseCode = "404", description = "Unknown or expired task")
+  public ResponseEntity<Void> cancelExecution(
+      @Parameter(description = "Task ID", required = true)
+      @PathVariable String taskId,
+      Authentication authentication) {
+    User user = (User) authentication.getPrincipal();
+    codeExecutionService.cancelExecution(taskId, user.getId());
+    return ResponseEntity.accepted().build();
+  }
+
+  @GetMapping(value = "/stream/{taskId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  @Operation(summary = "Stream execution output",
+      description = "Streams stdout and stderr of a code execution task as Server-Sent Events "
+          + "and completes with a result event")
+  @ApiResponse(responseCode = "200", description = "Event stream opened")
+  @ApiResponse(responseCode = "400", description = "The task belongs to another user")
+  @ApiResponse(responseCode = "404", description = "Unknown or expired task")
+  public SseEmitter streamExecution(
+      @Parameter(description = "Task ID", required = true)
+      @PathVariable String taskId,
+      Authentication authentication) {
+    User user = (User) authentication.getPrincipal();
+    codeExecutionService.verifyOwnership(taskId, user.getId());
+    return executionStreamService.subscribe(taskId);
   }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.cortex.backend.engine.api.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.List;
+import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -29,9 +30,37 @@ public class CodeExecutionResult  {
   @JsonProperty("exercise_id")
   private Long exerciseId;
 
+  @JsonProperty("exercise_revision")
+  private String exerciseRevision;
+
   @JsonProperty("memory_used")
   private int memoryUsed; // in kilobytes
 
+  @JsonProperty("compile_time")
+  private long compileTime; // in milliseconds
+
+  @JsonProperty("test_time")
+  private long testTime; // in milliseconds
+
+  @JsonProperty("cpu_time")
+  private long cpuTime; // in milliseconds
+
+  @JsonProperty("cpu_throttled_time")
+  private long cpuThrottledTime; // in milliseconds
+
+  @JsonProperty("cpu_throttled_periods")
+  private long cpuThrottledPeriods;
+
+  private boolean cached;
+
+  @JsonProperty("compile_cache_hit")
+  private Boolean compileCacheHit; // null when the language has no compile cache
+
+  private boolean cancelled;
+
+  @JsonProperty("phase_timings")
+  private Map<String, Long> phaseTimings; // in milliseconds
+
   @JsonProperty("test_case_results")
   private List<TestCaseResult> testCaseResults;
 }
\ No newline at end of file
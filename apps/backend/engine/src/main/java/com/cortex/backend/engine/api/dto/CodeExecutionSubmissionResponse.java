@@ -12,7 +12,13 @@ public record CodeExecutionSubmissionResponse(
     String message,
 
     @JsonProperty("submission_time")
-    LocalDateTime submissionTime
+    LocalDateTime submissionTime,
+
+    @JsonProperty("queue_position")
+    long queuePosition,
+
+    @JsonProperty("eta_seconds")
+    long etaSeconds
 ) {
 
 }
\ No newline at end of file
@@ -10,7 +10,10 @@ public record CodeExecutionTask(
     @JsonProperty("submission_id")
     Long submissionId,
     @JsonProperty("user_id")
-    Long userId
+    Long userId,
+    @JsonProperty("exercise_revision")
+    String exerciseRevision,
+    boolean priority
 ) {
 
 }
@@ -1,5 +0,0 @@
-package com.cortex.backend.engine.api.dto;
-
-public record ContainerStats(long memoryUsageBytes, long cpuUsagePercentage) {
-
-}
\ No newline at end of file
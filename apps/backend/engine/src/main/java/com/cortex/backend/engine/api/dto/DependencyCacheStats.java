@@ -0,0 +1,34 @@
+package com.cortex.backend.engine.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.time.LocalDateTime;
+
+public record DependencyCacheStats(
+    String language,
+
+    @JsonProperty("volume_name")
+    String volumeName,
+
+    @JsonProperty("mount_path")
+    String mountPath,
+
+    @JsonProperty("read_only")
+    boolean readOnly,
+
+    @JsonProperty("size_bytes")
+    long sizeBytes,
+
+    @JsonProperty("evicted_files")
+    long evictedFiles,
+
+    long hits,
+    long misses,
+
+    @JsonProperty("hit_rate")
+    double hitRate,
+
+    @JsonProperty("last_seeded_at")
+    LocalDateTime lastSeededAt
+) {
+
+}
@@ -0,0 +1,19 @@
+package com.cortex.backend.engine.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Published on {@link #CHANNEL} by the engine node that finished a task.
+ */
+public record ExecutionCompletedEvent(
+    @JsonProperty("task_id")
+    String taskId,
+
+    @JsonProperty("user_id")
+    Long userId,
+
+    CodeExecutionResult result
+) {
+
+  public static final String CHANNEL = "execution:completed";
+}
@@ -0,0 +1,15 @@
+package com.cortex.backend.engine.api.dto;
+
+/**
+ * A chunk of live execution output, or the final result, streamed to clients.
+ *
+ * @param type {@code stdout}, {@code stderr} or {@code result}
+ * @param data the output text, or the serialized {@link CodeExecutionResult} for results
+ */
+public record ExecutionOutputEvent(String type, String data) {
+
+  public static final String STDOUT = "stdout";
+  public static final String STDERR = "stderr";
+  public static final String RESULT = "result";
+
+}
@@ -0,0 +1,15 @@
+package com.cortex.backend.engine.api.dto;
+
+/**
+ * Where a code execution task is, from submission to its result.
+ */
+public enum ExecutionStatus {
+  QUEUED,
+  PROVISIONING,
+  COMPILING,
+  TESTING,
+  PARSING,
+  DONE,
+  FAILED,
+  CANCELLED
+}
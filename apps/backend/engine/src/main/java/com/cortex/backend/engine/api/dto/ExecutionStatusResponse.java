@@ -0,0 +1,20 @@
+package com.cortex.backend.engine.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Map;
+
+public record ExecutionStatusResponse(
+    @JsonProperty("task_id")
+    String taskId,
+
+    ExecutionStatus status,
+    String language,
+
+    @JsonProperty("queue_position")
+    Long queuePosition,
+
+    // Epoch milliseconds at which each status was entered, keyed by lower case status
+    Map<String, Long> timestamps
+) {
+
+}
@@ -0,0 +1,25 @@
+package com.cortex.backend.engine.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record ExerciseTimeout(
+    @JsonProperty("github_path")
+    String githubPath,
+
+    String language,
+
+    long samples,
+
+    @JsonProperty("percentile_ms")
+    long percentileMs,
+
+    @JsonProperty("timeout_ms")
+    long timeoutMs,
+
+    @JsonProperty("default_timeout_ms")
+    long defaultTimeoutMs,
+
+    boolean adaptive
+) {
+
+}
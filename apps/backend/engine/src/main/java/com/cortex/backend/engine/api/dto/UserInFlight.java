@@ -0,0 +1,13 @@
+package com.cortex.backend.engine.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record UserInFlight(
+    @JsonProperty("user_id")
+    Long userId,
+
+    @JsonProperty("in_flight")
+    long inFlight
+) {
+
+}
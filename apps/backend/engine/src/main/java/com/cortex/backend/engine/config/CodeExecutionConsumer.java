@@ -1,7 +1,7 @@
 package com.cortex.backend.engine.config;
 
 import com.cortex.backend.engine.api.dto.CodeExecutionTask;
-import com.cortex.backend.engine.internal.services.CodeExecutionService;
+import com.cortex.backend.engine.internal.scheduling.ExecutionQueues;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
@@ -10,27 +10,25 @@ import org.springframework.stereotype.Service;
 import static com.cortex.backend.engine.internal.utils.Constants.CODE_EXECUTION_QUEUE;
 
 /**
- * Service class for consuming code execution tasks from a RabbitMQ queue.
+ * Drains the legacy shared execution queue into the per-language queues, where the
+ * {@link com.cortex.backend.engine.internal.scheduling.ExecutionScheduler} runs them.
  */
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class CodeExecutionConsumer {
 
-  private final CodeExecutionService codeExecutionService;
+  private final ExecutionQueues executionQueues;
 
   /**
-   * Consumes a code execution task from the specified RabbitMQ queue.
+   * Moves a task published to the shared queue to the queue of its language.
    *
-   * @param task the code execution task to process
+   * @param task the code execution task to route
    */
   @RabbitListener(queues = CODE_EXECUTION_QUEUE)
   public void consumeCodeExecutionTask(CodeExecutionTask task) {
-    log.info("Received code execution task: {}", task.taskId());
-    try {
-      codeExecutionService.processCodeExecution(task);
-    } catch (Exception e) {
-      log.error("Error processing code execution task: {}", task.taskId(), e);
-    }
+    log.info("Routing code execution task {} to the {} queue", task.taskId(),
+        task.request().language());
+    executionQueues.dispatch(task);
   }
 }
\ No newline at end of file
@@ -13,8 +13,12 @@ import org.springframework.context.annotation.Configuration;
 public class DockerConfig {
 
   @Bean
-  public DockerClient dockerClient() {
-    DockerClientConfig config = DefaultDockerClientConfig.createDefaultConfigBuilder().build();
+  public DockerClientConfig dockerClientConfig() {
+    return DefaultDockerClientConfig.createDefaultConfigBuilder().build();
+  }
+
+  @Bean
+  public DockerClient dockerClient(DockerClientConfig config) {
     DockerHttpClient httpClient =
         new ApacheDockerHttpClient.Builder()
             .dockerHost(config.getDockerHost())
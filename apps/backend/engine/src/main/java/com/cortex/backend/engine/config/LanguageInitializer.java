@@ -4,6 +4,7 @@ import static com.cortex.backend.engine.internal.utils.Constants.GO_EXTENSION;
 import static com.cortex.backend.engine.internal.utils.Constants.JAVA_EXTENSION;
 import static com.cortex.backend.engine.internal.utils.Constants.PYTHON_EXTENSION;
 import static com.cortex.backend.engine.internal.utils.Constants.RUST_EXTENSION;
+import static com.cortex.backend.engine.internal.utils.Constants.TEST_REPORT_DIR;
 import static com.cortex.backend.engine.internal.utils.Constants.TYPESCRIPT_EXTENSION;
 
 import com.cortex.backend.core.domain.Language;
@@ -25,18 +26,62 @@ public class LanguageInitializer {
   private static final long MB = 1024 * 1024L;
   private static final long DEFAULT_CPU_LIMIT = 1L;
   private static final long DEFAULT_TIMEOUT = 30000L;
+  private static final String MAVEN_COMPILE_CMD = String.join(" ",
+      "mvn",
+      "test-compile",  // Compile main and test sources only
+      "-B",
+      "-q",
+      "-ntp",
+      "-Dmaven.repo.local=/tmp/maven-repo",
+      "-Dmaven.repo.local.tail=/cache/maven",
+      "-Dmaven.compiler.useIncrementalCompilation=false"  // Only recompile stale sources
+  );
   private static final String MAVEN_CMD = String.join(" ",
       "mvn",
-      "test",  // Maven goal
+      "surefire:test",  // Only run the tests, the compile step built them
       "-B",    // Batch mode
       "-V",    // Show Maven version
       "-ntp",  // No transfer progress
       "--fail-at-end",  // Run all tests even if some fail
       "-Djansi.force=true",  // Force colored output
       "-Dmaven.repo.local=/tmp/maven-repo",  // Use temporary local repository
+      "-Dmaven.repo.local.tail=/cache/maven",  // Read-only shared dependency cache
       "-Dorg.slf4j.simpleLogger.log.org.apache.maven.cli.transfer.Slf4jMavenTransferListener=warn"
   );
 
+  private static final String TYPESCRIPT_CMD = String.join(" ",
+      "ln -sfn /app/node_modules node_modules &&",  // Dependencies baked into the image
+      "mkdir -p " + TEST_REPORT_DIR + " &&",
+      "vitest run",
+      "--reporter=verbose",  // Readable output for the user
+      "--reporter=json",
+      "--outputFile.json=" + TEST_REPORT_DIR + "/vitest.json"  // Report read by the engine
+  );
+  private static final String PYTHON_CMD = String.join(" ",
+      "mkdir -p " + TEST_REPORT_DIR + " &&",
+      "python /opt/cortex/python/unittest_report.py",  // unittest discover -v plus a JSON report
+      TEST_REPORT_DIR + "/unittest.json"
+  );
+  // The JSON output of the Rust test harness is unstable. The harness only checks that
+  // RUSTC_BOOTSTRAP is set, while -1 keeps rustc on stable so submissions can't enable features.
+  private static final String RUST_COMPILE_CMD =
+      "RUSTC_BOOTSTRAP=-1 CARGO_TARGET_DIR=/tmp/target cargo test --no-run";
+  private static final String RUST_CMD = String.join(" ",
+      "mkdir -p " + TEST_REPORT_DIR + " &&",
+      "{ RUSTC_BOOTSTRAP=-1 CARGO_TARGET_DIR=/tmp/target cargo test --",
+      "-Z unstable-options --format json --report-time;",
+      "echo $? > /tmp/cargo-test.status; }",
+      "| tee " + TEST_REPORT_DIR + "/libtest.json;",  // Failed tests carry their stdout
+      "exit $(cat /tmp/cargo-test.status)"
+  );
+  private static final String GO_CMD = String.join(" ",
+      "mkdir -p " + TEST_REPORT_DIR + " &&",
+      "{ GOPATH=/tmp/go go test -v ./...; echo $? > /tmp/go-test.status; }",
+      "| tee /tmp/go-test.log;",  // Readable output for the user
+      "go tool test2json < /tmp/go-test.log > " + TEST_REPORT_DIR + "/go-test.json;",
+      "exit $(cat /tmp/go-test.status)"
+  );
+
   @PostConstruct
   @Transactional
   public void initializeLanguages() {
@@ -44,7 +89,7 @@ public class LanguageInitializer {
         LanguageConfig.builder()
             .name("python")
             .dockerImage("python:3.12-slim")
-            .executeCommand("python -m unittest discover -v")
+            .executeCommand(PYTHON_CMD)
             .fileExtension(PYTHON_EXTENSION)
             .memoryLimit(128 * MB)
             .cpuLimit(DEFAULT_CPU_LIMIT)
@@ -53,6 +98,7 @@ public class LanguageInitializer {
         LanguageConfig.builder()
             .name("java")
             .dockerImage("maven:3.9.9-eclipse-temurin-21")
+            .compileCommand(MAVEN_COMPILE_CMD)
             .executeCommand(MAVEN_CMD)
             .fileExtension(JAVA_EXTENSION)
             .memoryLimit(512 * MB)
@@ -62,7 +108,7 @@ public class LanguageInitializer {
         LanguageConfig.builder()
             .name("typescript")
             .dockerImage("cortex-typescript-exercises:latest")
-            .executeCommand("pnpm install && pnpm test")
+            .executeCommand(TYPESCRIPT_CMD)
             .fileExtension(TYPESCRIPT_EXTENSION)
             .memoryLimit(1024 * MB)
             .cpuLimit(DEFAULT_CPU_LIMIT)
@@ -71,7 +117,8 @@ public class LanguageInitializer {
         LanguageConfig.builder()
             .name("rust")
             .dockerImage("rust:1.80-slim")
-            .executeCommand("CARGO_TARGET_DIR=/tmp/target cargo test")
+            .compileCommand(RUST_COMPILE_CMD)
+            .executeCommand(RUST_CMD)
             .fileExtension(RUST_EXTENSION)
             .memoryLimit(256 * MB)
             .cpuLimit(DEFAULT_CPU_LIMIT)
@@ -80,7 +127,8 @@ public class LanguageInitializer {
         LanguageConfig.builder()
             .name("go")
             .dockerImage("golang:1.23-bookworm")
-            .executeCommand("GOPATH=/tmp/go go test ./...")
+            .compileCommand("GOPATH=/tmp/go go test -run '^$' ./...")
+            .executeCommand(GO_CMD)
             .fileExtension(GO_EXTENSION)
             .memoryLimit(512 * MB)
             .cpuLimit(2L)
@@ -1,8 +1,10 @@
 package com.cortex.backend.engine.config;
 
 
+import static com.cortex.backend.engine.internal.utils.Constants.CODE_EXECUTION_EXCHANGE;
 import static com.cortex.backend.engine.internal.utils.Constants.CODE_EXECUTION_QUEUE;
 
+import org.springframework.amqp.core.DirectExchange;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
@@ -18,6 +20,11 @@ public class RabbitMQConfig {
     return new Queue(CODE_EXECUTION_QUEUE, true);
   }
 
+  @Bean
+  public DirectExchange codeExecutionExchange() {
+    return new DirectExchange(CODE_EXECUTION_EXCHANGE, true, false);
+  }
+
   @Bean
   public RabbitTemplate rabbitTemplate(final ConnectionFactory connectionFactory) {
     final RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
@@ -7,8 +7,10 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @Configuration
 public class RedisConfig {
@@ -27,4 +29,20 @@ public class RedisConfig {
     template.setValueSerializer(serializer);
     return template;
   }
+
+  @Bean
+  public RedisMessageListenerContainer redisMessageListenerContainer(
+      RedisConnectionFactory connectionFactory) {
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(connectionFactory);
+    // One dispatch thread, so the messages of a channel reach their listener in publish order
+    ThreadPoolTaskExecutor dispatcher = new ThreadPoolTaskExecutor();
+    dispatcher.setCorePoolSize(1);
+    dispatcher.setMaxPoolSize(1);
+    dispatcher.setDaemon(true);
+    dispatcher.setThreadNamePrefix("redis-listener-");
+    dispatcher.initialize();
+    container.setTaskExecutor(dispatcher);
+    return container;
+  }
 }
\ No newline at end of file
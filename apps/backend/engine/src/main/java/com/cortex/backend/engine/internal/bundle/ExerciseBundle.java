@@ -0,0 +1,39 @@
+package com.cortex.backend.engine.internal.bundle;
+
+import com.cortex.backend.engine.internal.environment.WorkspaceTemplate;
+import java.nio.file.Path;
+
+/**
+ * An immutable, versioned snapshot of an exercise as published by {@link ExerciseBundleStore}.
+ *
+ * @param manifest  the bundle manifest
+ * @param directory the bundle directory holding the tree, the archive and the manifest
+ * @param template  the tree as a workspace template
+ */
+public record ExerciseBundle(ExerciseBundleManifest manifest, Path directory,
+                             WorkspaceTemplate template) {
+
+  public static final String TREE_DIR = "tree";
+  public static final String ARCHIVE_FILE = "bundle.tar";
+  public static final String MANIFEST_FILE = "manifest.json";
+
+  public String revision() {
+    return manifest.revision();
+  }
+
+  public Path tree() {
+    return directory.resolve(TREE_DIR);
+  }
+
+  public Path archive() {
+    return directory.resolve(ARCHIVE_FILE);
+  }
+
+  public Path mainFile() {
+    return tree().resolve(manifest.mainFile());
+  }
+
+  public Path testFile() {
+    return manifest.testFile() != null ? tree().resolve(manifest.testFile()) : null;
+  }
+}
@@ -0,0 +1,36 @@
+package com.cortex.backend.engine.internal.bundle;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Describes an exercise bundle. Every path is relative to the bundle tree and uses {@code /} as
+ * separator.
+ *
+ * @param githubPath  the exercise path in the exercises repository
+ * @param language    the exercise language
+ * @param revision    content hash of the bundle tree
+ * @param commitId    the repository commit the bundle was built from
+ * @param mainFile    the file replaced by the submitted code
+ * @param testFile    the exercise test file, {@code null} if none was found
+ * @param projectRoot the directory the toolchain runs in
+ * @param configFiles the toolchain configuration files
+ * @param directories every directory, parents first
+ * @param files       every regular file except the main file
+ * @param createdAt   when the bundle was built
+ */
+public record ExerciseBundleManifest(
+    String githubPath,
+    String language,
+    String revision,
+    String commitId,
+    String mainFile,
+    String testFile,
+    String projectRoot,
+    List<String> configFiles,
+    List<String> directories,
+    List<String> files,
+    Instant createdAt
+) {
+
+}
@@ -0,0 +1,13 @@
+package com.cortex.backend.engine.internal.bundle;
+
+/**
+ * Published when a new revision of an exercise bundle becomes current.
+ *
+ * @param githubPath       the exercise path in the exercises repository
+ * @param revision         the new revision
+ * @param previousRevision the revision it replaces, {@code null} for the first bundle
+ */
+public record ExerciseBundlePublishedEvent(String githubPath, String revision,
+                                           String previousRevision) {
+
+}
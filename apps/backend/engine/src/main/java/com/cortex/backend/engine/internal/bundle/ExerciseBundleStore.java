@@ -0,0 +1,312 @@
+package com.cortex.backend.engine.internal.bundle;
+
+import static com.cortex.backend.engine.internal.utils.Constants.BIOME_JSON;
+import static com.cortex.backend.engine.internal.utils.Constants.CARGO_TOML;
+import static com.cortex.backend.engine.internal.utils.Constants.GO_MOD;
+import static com.cortex.backend.engine.internal.utils.Constants.PACKAGE_JSON;
+import static com.cortex.backend.engine.internal.utils.Constants.PNPM_LOCK;
+import static com.cortex.backend.engine.internal.utils.Constants.POM_XML;
+import static com.cortex.backend.engine.internal.utils.Constants.TSCONFIG_JSON;
+import static com.cortex.backend.engine.internal.utils.Constants.VITEST_CONFIG;
+
+import com.cortex.backend.core.common.exception.ExerciseReadException;
+import com.cortex.backend.core.domain.Language;
+import com.cortex.backend.engine.api.LanguageRepository;
+import com.cortex.backend.engine.internal.environment.LanguageEnvironmentSetup;
+import com.cortex.backend.engine.internal.environment.WorkspaceTemplate;
+import com.cortex.backend.engine.internal.utils.HashUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes immutable, versioned exercise bundles. A bundle is built from the synced repository
+ * once per exercise revision and holds the prepared tree, a tar archive of it and a manifest
+ * describing the main file, test file, project root and configuration files, so requests never
+ * have to rediscover them.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ExerciseBundleStore {
+
+  private static final Set<String> CONFIG_FILES = Set.of(POM_XML, GO_MOD, CARGO_TOML,
+      PACKAGE_JSON, TSCONFIG_JSON, PNPM_LOCK, VITEST_CONFIG, BIOME_JSON);
+  private static final Set<String> TEST_DIRS = Set.of("test", "tests");
+  private static final int REVISION_LENGTH = 16;
+  private static final int EXECUTABLE_MODE = 0755;
+  private static final String UNKNOWN_COMMIT = "unknown";
+
+  private final LanguageRepository languageRepository;
+  private final LanguageEnvironmentSetup environmentSetup;
+  private final ObjectMapper objectMapper;
+  private final ApplicationEventPublisher eventPublisher;
+
+  private final Map<String, ExerciseBundle> current = new ConcurrentHashMap<>();
+
+  @Value("${github.exercises.local-path}")
+  private String localRepoPath;
+
+  @Value("${engine.bundle.dir:${java.io.tmpdir}/cortex-bundles}")
+  private Path bundleRoot;
+
+  @Value("${engine.bundle.retained-revisions:3}")
+  private int retainedRevisions;
+
+  /**
+   * Builds the bundle for an exercise from the synced repository and makes it current. Building
+   * an unchanged exercise again reuses the existing bundle.
+   *
+   * @param githubPath the exercise path in the exercises repository
+   * @param commitId   the repository commit being published
+   * @return the current bundle
+   */
+  public synchronized ExerciseBundle publish(String githubPath, String commitId) {
+    Path exerciseDir = Paths.get(localRepoPath, githubPath);
+    Language language = languageRepository.findByName(languageOf(githubPath))
+        .orElseThrow(() -> new ExerciseReadException("Unsupported language for " + githubPath));
+    Path exerciseBundles = bundleRoot.resolve(
+        HashUtil.generateSHA256Hash(githubPath).substring(0, REVISION_LENGTH));
+    Path staging = exerciseBundles.resolve(".staging-" + UUID.randomUUID());
+
+    try {
+      Path tree = Files.createDirectories(staging.resolve(ExerciseBundle.TREE_DIR));
+      WorkspaceTemplate template = environmentSetup.prepareTemplate(exerciseDir, tree, language);
+      String revision = revisionOf(template);
+      Path target = exerciseBundles.resolve(revision);
+
+      ExerciseBundle bundle;
+      if (Files.exists(target.resolve(ExerciseBundle.MANIFEST_FILE))) {
+        bundle = load(target);
+      } else {
+        ExerciseBundleManifest manifest = new ExerciseBundleManifest(
+            githubPath,
+            language.getName(),
+            revision,
+            commitId,
+            separatorsToSlash(template.mainFile()),
+            findTestFile(template),
+            separatorsToSlash(template.projectRoot()),
+            template.files().stream()
+                .filter(file -> CONFIG_FILES.contains(file.getFileName().toString()))
+                .map(this::separatorsToSlash)
+                .toList(),
+            template.directories().stream().map(this::separatorsToSlash).toList(),
+            template.files().stream().map(this::separatorsToSlash).toList(),
+            Instant.now()
+        );
+        writeArchive(template, staging.resolve(ExerciseBundle.ARCHIVE_FILE));
+        objectMapper.writeValue(staging.resolve(ExerciseBundle.MANIFEST_FILE).toFile(), manifest);
+        bundle = moveIntoPlace(staging, target);
+      }
+
+      ExerciseBundle previous = current.put(githubPath, bundle);
+      if (previous == null || !previous.revision().equals(bundle.revision())) {
+        eventPublisher.publishEvent(new ExerciseBundlePublishedEvent(githubPath,
+            bundle.revision(), previous != null ? previous.revision() : null));
+      }
+      pruneRevisions(exerciseBundles, bundle.revision());
+      log.info("Published bundle {} for {} at commit {}", bundle.revision(), githubPath, commitId);
+      return bundle;
+    } catch (IOException e) {
+      throw new ExerciseReadException("Failed to build bundle for " + githubPath, e);
+    } finally {
+      deleteTree(staging);
+    }
+  }
+
+  /**
+   * Returns the current bundle of an exercise, building it on first use.
+   *
+   * @param githubPath the exercise path in the exercises repository
+   * @return the current bundle
+   */
+  public ExerciseBundle current(String githubPath) {
+    ExerciseBundle bundle = current.get(githubPath);
+    return bundle != null ? bundle : publish(githubPath, UNKNOWN_COMMIT);
+  }
+
+  /**
+   * Returns a specific revision of an exercise, falling back to the current bundle when the
+   * revision is unknown or has been pruned.
+   *
+   * @param githubPath the exercise path in the exercises repository
+   * @param revision   the wanted revision, may be {@code null}
+   * @return the bundle
+   */
+  public ExerciseBundle resolve(String githubPath, String revision) {
+    ExerciseBundle bundle = current(githubPath);
+    if (revision == null || revision.equals(bundle.revision())) {
+      return bundle;
+    }
+    Path directory = bundle.directory().resolveSibling(revision);
+    if (Files.exists(directory.resolve(ExerciseBundle.MANIFEST_FILE))) {
+      try {
+        return load(directory);
+      } catch (IOException e) {
+        log.warn("Failed to load bundle {} of {}: {}", revision, githubPath, e.getMessage());
+      }
+    }
+    log.warn("Bundle {} of {} no longer available, using {}", revision, githubPath,
+        bundle.revision());
+    return bundle;
+  }
+
+  private ExerciseBundle load(Path directory) throws IOException {
+    ExerciseBundleManifest manifest = objectMapper.readValue(
+        directory.resolve(ExerciseBundle.MANIFEST_FILE).toFile(), ExerciseBundleManifest.class);
+    WorkspaceTemplate template = new WorkspaceTemplate(
+        directory.resolve(ExerciseBundle.TREE_DIR),
+        Path.of(manifest.projectRoot()),
+        Path.of(manifest.mainFile()),
+        manifest.directories().stream().map(Path::of).toList(),
+        manifest.files().stream().map(Path::of).toList()
+    );
+    return new ExerciseBundle(manifest, directory, template);
+  }
+
+  private ExerciseBundle moveIntoPlace(Path staging, Path target) throws IOException {
+    try {
+      Files.move(staging, target, StandardCopyOption.ATOMIC_MOVE);
+    } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+      log.debug("Bundle {} was published concurrently", target);
+    }
+    return load(target);
+  }
+
+  private String revisionOf(WorkspaceTemplate template) throws IOException {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      List<Path> files = Stream.concat(template.files().stream(), Stream.of(template.mainFile()))
+          .sorted()
+          .toList();
+      for (Path file : files) {
+        digest.update(separatorsToSlash(file).getBytes());
+        digest.update((byte) 0);
+        digest.update(Files.readAllBytes(template.root().resolve(file)));
+      }
+      return HexFormat.of().formatHex(digest.digest()).substring(0, REVISION_LENGTH);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  private String findTestFile(WorkspaceTemplate template) {
+    String mainExtension = extensionOf(template.mainFile());
+    return template.files().stream()
+        .filter(file -> extensionOf(file).equals(mainExtension))
+        .filter(file -> file.getFileName().toString().toLowerCase().contains("test")
+            || isInTestDirectory(file))
+        .sorted()
+        .findFirst()
+        .map(this::separatorsToSlash)
+        .orElse(null);
+  }
+
+  private boolean isInTestDirectory(Path file) {
+    for (Path segment : file) {
+      if (TEST_DIRS.contains(segment.toString())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void writeArchive(WorkspaceTemplate template, Path archive) throws IOException {
+    try (OutputStream output = Files.newOutputStream(archive);
+        TarArchiveOutputStream tar = new TarArchiveOutputStream(output)) {
+      tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+      for (Path directory : template.directories()) {
+        tar.putArchiveEntry(new TarArchiveEntry(
+            template.root().resolve(directory).toFile(), separatorsToSlash(directory) + "/"));
+        tar.closeArchiveEntry();
+      }
+      for (Path file : Stream.concat(template.files().stream(), Stream.of(template.mainFile()))
+          .toList()) {
+        Path source = template.root().resolve(file);
+        TarArchiveEntry entry = new TarArchiveEntry(source.toFile(), separatorsToSlash(file));
+        if (Files.isExecutable(source)) {
+          entry.setMode(EXECUTABLE_MODE);
+        }
+        tar.putArchiveEntry(entry);
+        Files.copy(source, tar);
+        tar.closeArchiveEntry();
+      }
+    }
+  }
+
+  private void pruneRevisions(Path exerciseBundles, String keep) throws IOException {
+    try (Stream<Path> revisions = Files.list(exerciseBundles)) {
+      revisions
+          .filter(path -> !path.getFileName().toString().startsWith("."))
+          .filter(path -> !path.getFileName().toString().equals(keep))
+          .sorted(Comparator.comparing(this::lastModified).reversed())
+          .skip(Math.max(0, retainedRevisions - 1L))
+          .forEach(this::deleteTree);
+    }
+  }
+
+  private long lastModified(Path path) {
+    try {
+      return Files.getLastModifiedTime(path).toMillis();
+    } catch (IOException e) {
+      return 0L;
+    }
+  }
+
+  private String languageOf(String githubPath) {
+    Path path = Path.of(githubPath);
+    return path.getNameCount() > 1 ? path.getName(1).toString() : "unknown";
+  }
+
+  private String extensionOf(Path file) {
+    String name = file.getFileName().toString();
+    int dot = name.lastIndexOf('.');
+    return dot >= 0 ? name.substring(dot) : "";
+  }
+
+  private String separatorsToSlash(Path path) {
+    return path.toString().replace('\\', '/');
+  }
+
+  private void deleteTree(Path directory) {
+    if (!Files.exists(directory)) {
+      return;
+    }
+    try (Stream<Path> paths = Files.walk(directory)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+        try {
+          Files.deleteIfExists(path);
+        } catch (IOException e) {
+          log.warn("Failed to delete {}: {}", path, e.getMessage());
+        }
+      });
+    } catch (IOException e) {
+      log.warn("Failed to delete {}: {}", directory, e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,175 @@
+package com.cortex.backend.engine.internal.cache;
+
+import static com.cortex.backend.engine.internal.utils.Constants.BIN_SH;
+import static com.cortex.backend.engine.internal.utils.Constants.TMP_PREFIX;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.command.CreateContainerResponse;
+import com.github.dockerjava.api.command.WaitContainerResultCallback;
+import com.github.dockerjava.api.model.Bind;
+import com.github.dockerjava.api.model.Frame;
+import com.github.dockerjava.api.model.HostConfig;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs cache maintenance commands in short-lived helper containers. Helpers run trusted commands
+ * only, never submitted code, so they are the only containers allowed to write caches that
+ * execution containers mount read-only. Files a helper works from are copied into it through the
+ * Docker archive API rather than mounted, so the daemon doesn't need to share the backend's
+ * filesystem.
+ */
+@Component
+@RequiredArgsConstructor
+class CacheHelperRunner {
+
+  /**
+   * Where the seed files of {@link #run(String, String, List, List, String, Path)} are placed.
+   */
+  static final String SEED_DIR = "/seed";
+
+  private static final String SEED_ENTRY = SEED_DIR.substring(1);
+  private static final long HELPER_TIMEOUT_MINUTES = 15;
+  private static final long LOG_TIMEOUT_SECONDS = 5;
+
+  private final DockerClient dockerClient;
+
+  /**
+   * Runs a shell command in a new container and removes it afterwards.
+   *
+   * @param image       the image to run
+   * @param namePrefix  prefix of the container name
+   * @param binds       the volumes and directories to mount
+   * @param environment the environment entries in {@code KEY=value} form
+   * @param command     the shell command
+   * @return the standard output of the command
+   * @throws InterruptedException if interrupted while waiting for the container
+   * @throws IOException          never, declared for the seeded variant
+   */
+  String run(String image, String namePrefix, List<Bind> binds, List<String> environment,
+      String command) throws InterruptedException, IOException {
+    return run(image, namePrefix, binds, environment, command, null);
+  }
+
+  /**
+   * Runs a shell command in a new container, with files copied to {@value #SEED_DIR} before it
+   * starts, and removes the container afterwards.
+   *
+   * @param image       the image to run
+   * @param namePrefix  prefix of the container name
+   * @param binds       the volumes to mount
+   * @param environment the environment entries in {@code KEY=value} form
+   * @param command     the shell command
+   * @param seed        a directory, or a tar archive, whose content the command finds under
+   *                    {@value #SEED_DIR}; {@code null} for none
+   * @return the standard output of the command
+   * @throws InterruptedException if interrupted while waiting for the container
+   * @throws IOException          if the seed cannot be read
+   */
+  String run(String image, String namePrefix, List<Bind> binds, List<String> environment,
+      String command, Path seed) throws InterruptedException, IOException {
+    CreateContainerResponse container = dockerClient.createContainerCmd(image)
+        .withHostConfig(HostConfig.newHostConfig().withBinds(binds))
+        .withName(namePrefix + "-" + UUID.randomUUID())
+        .withEnv(environment)
+        .withCmd(BIN_SH, "-c", command)
+        .exec();
+    try {
+      if (seed != null) {
+        copySeed(container.getId(), seed);
+      }
+      dockerClient.startContainerCmd(container.getId()).exec();
+      dockerClient.waitContainerCmd(container.getId())
+          .exec(new WaitContainerResultCallback())
+          .awaitStatusCode(HELPER_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+
+      StringBuilder output = new StringBuilder();
+      dockerClient.logContainerCmd(container.getId())
+          .withStdOut(true)
+          .exec(new ResultCallback.Adapter<Frame>() {
+            @Override
+            public void onNext(Frame frame) {
+              output.append(new String(frame.getPayload()));
+            }
+          })
+          .awaitCompletion(LOG_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+      return output.toString();
+    } finally {
+      dockerClient.removeContainerCmd(container.getId()).withForce(true).exec();
+    }
+  }
+
+  private void copySeed(String containerId, Path seed) throws IOException {
+    Path archive = Files.createTempFile(TMP_PREFIX + "seed-", ".tar");
+    try {
+      try (OutputStream output = Files.newOutputStream(archive);
+          TarArchiveOutputStream tar = new TarArchiveOutputStream(output)) {
+        tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+        tar.putArchiveEntry(new TarArchiveEntry(SEED_ENTRY + "/"));
+        tar.closeArchiveEntry();
+        if (Files.isDirectory(seed)) {
+          addDirectory(tar, seed);
+        } else {
+          addArchive(tar, seed);
+        }
+      }
+      try (InputStream input = Files.newInputStream(archive)) {
+        dockerClient.copyArchiveToContainerCmd(containerId)
+            .withTarInputStream(input)
+            .withRemotePath("/")
+            .exec();
+      }
+    } finally {
+      Files.deleteIfExists(archive);
+    }
+  }
+
+  private void addDirectory(TarArchiveOutputStream tar, Path directory) throws IOException {
+    try (Stream<Path> paths = Files.walk(directory)) {
+      for (Path path : (Iterable<Path>) paths::iterator) {
+        if (path.equals(directory)) {
+          continue;
+        }
+        boolean isDirectory = Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS);
+        if (!isDirectory && !Files.isRegularFile(path, LinkOption.NOFOLLOW_LINKS)) {
+          continue;
+        }
+        String name = SEED_ENTRY + "/"
+            + directory.relativize(path).toString().replace(File.separatorChar, '/');
+        tar.putArchiveEntry(new TarArchiveEntry(path.toFile(), isDirectory ? name + "/" : name));
+        if (!isDirectory) {
+          Files.copy(path, tar);
+        }
+        tar.closeArchiveEntry();
+      }
+    }
+  }
+
+  private void addArchive(TarArchiveOutputStream tar, Path archive) throws IOException {
+    try (InputStream input = Files.newInputStream(archive);
+        TarArchiveInputStream entries = new TarArchiveInputStream(input)) {
+      TarArchiveEntry entry;
+      while ((entry = entries.getNextTarEntry()) != null) {
+        entry.setName(SEED_ENTRY + "/" + entry.getName());
+        tar.putArchiveEntry(entry);
+        entries.transferTo(tar);
+        tar.closeArchiveEntry();
+      }
+    }
+  }
+}
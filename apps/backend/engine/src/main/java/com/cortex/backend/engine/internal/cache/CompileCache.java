@@ -0,0 +1,66 @@
+package com.cortex.backend.engine.internal.cache;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Build output kept per exercise revision and toolchain, so a run only recompiles the submitted
+ * file. The output is built once from the exercise template and copied into each execution
+ * container before the compile step.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum CompileCache {
+
+  /**
+   * Compiled main and test classes; stale sources are recompiled by the compiler plugin. Test
+   * sources are touched on every run so the tests are recompiled against the submitted classes.
+   * The test class path, JUnit Platform Launcher included, is copied to
+   * {@code target/cortex-lib} for the resident Java runner.
+   */
+  JAVA("java", "target", List.of(), String.join(" && ",
+      "mvn -B -q -ntp -Dmaven.repo.local=/tmp/maven-repo -Dmaven.repo.local.tail=/cache/maven"
+          + " dependency:copy-dependencies -DincludeScope=test"
+          + " -DoutputDirectory=target/cortex-lib",
+      "version=$(ls target/cortex-lib"
+          + " | sed -n 's/^junit-platform-engine-\\(.*\\)\\.jar$/\\1/p')",
+      "[ -n \"$version\" ]",
+      "mvn -B -q -ntp -Dmaven.repo.local=/tmp/maven-repo -Dmaven.repo.local.tail=/cache/maven"
+          + " dependency:copy -DoutputDirectory=target/cortex-lib"
+          + " -Dartifact=org.junit.platform:junit-platform-launcher:$version"),
+      "find src/test -name '*.java' -exec touch {} +"),
+  /**
+   * The cargo target directory with the compiled dependency graph.
+   */
+  RUST("rust", "/tmp/target", List.of(), null, null),
+  /**
+   * The Go build cache, content addressed, so unchanged packages are never rebuilt.
+   */
+  GO("go", "/tmp/gocache", List.of("GOCACHE=/tmp/gocache"), null, null);
+
+  private final String language;
+  /**
+   * Where the toolchain writes its build output, relative to the project root unless absolute.
+   */
+  private final String buildPath;
+  private final List<String> environment;
+  /**
+   * Command run from the project root after the template is compiled, before the snapshot is
+   * taken. Its failure doesn't prevent the snapshot.
+   */
+  private final String prepareCommand;
+  /**
+   * Command run from the project root before each run, marking sources whose build output must
+   * not be reused.
+   */
+  private final String refreshCommand;
+
+  public static Optional<CompileCache> forLanguage(String language) {
+    return Arrays.stream(values())
+        .filter(cache -> cache.language.equals(language))
+        .findFirst();
+  }
+}
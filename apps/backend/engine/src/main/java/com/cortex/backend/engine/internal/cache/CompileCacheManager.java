@@ -0,0 +1,236 @@
+package com.cortex.backend.engine.internal.cache;
+
+import com.cortex.backend.core.domain.Language;
+import com.cortex.backend.engine.internal.bundle.ExerciseBundle;
+import com.cortex.backend.engine.internal.utils.HashUtil;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.exception.NotFoundException;
+import com.github.dockerjava.api.model.AccessMode;
+import com.github.dockerjava.api.model.Bind;
+import com.github.dockerjava.api.model.Volume;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Manages the per-exercise {@link CompileCache compile caches}. Snapshots live in one volume,
+ * keyed by exercise, revision, toolchain image and compile command, and are mounted read-only
+ * into execution containers so submitted code can't tamper with them. A run that finds no
+ * snapshot compiles from scratch and triggers a helper container that builds the snapshot from
+ * the exercise template, replacing the snapshots of older revisions of the exercise.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CompileCacheManager {
+
+  private static final String VOLUME_NAME = "cortex-cache-build";
+  private static final String MOUNT_PATH = "/cache/build";
+  private static final String CACHE_LABEL = "cortex.cache.language";
+  private static final String HIT = "hit";
+  private static final int KEY_LENGTH = 16;
+
+  private final DockerClient dockerClient;
+  private final CacheHelperRunner helperRunner;
+  private final DependencyCacheManager dependencyCacheManager;
+  private final MeterRegistry meterRegistry;
+
+  private final Set<String> priming = ConcurrentHashMap.newKeySet();
+  private final ExecutorService primeExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+  @Value("${engine.compile-cache.enabled:true}")
+  private boolean enabled;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void ensureVolume() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      dockerClient.inspectVolumeCmd(VOLUME_NAME).exec();
+    } catch (NotFoundException e) {
+      log.info("Creating compile cache volume {}", VOLUME_NAME);
+      dockerClient.createVolumeCmd()
+          .withName(VOLUME_NAME)
+          .withLabels(Map.of(CACHE_LABEL, "build"))
+          .exec();
+    } catch (Exception e) {
+      log.warn("Could not check compile cache volume {}: {}", VOLUME_NAME, e.getMessage());
+    }
+  }
+
+  /**
+   * Returns the read-only compile cache mount for an execution container.
+   *
+   * @param language the language name
+   * @return the binds to add to the container host config
+   */
+  public List<Bind> bindsFor(String language) {
+    if (!enabled || CompileCache.forLanguage(language).isEmpty()) {
+      return List.of();
+    }
+    return List.of(new Bind(VOLUME_NAME, new Volume(MOUNT_PATH), AccessMode.ro));
+  }
+
+  /**
+   * Returns the environment variables pointing the toolchain at its build output.
+   *
+   * @param language the language name
+   * @return the environment entries in {@code KEY=value} form
+   */
+  public List<String> environmentFor(String language) {
+    if (!enabled) {
+      return List.of();
+    }
+    return CompileCache.forLanguage(language)
+        .map(CompileCache::getEnvironment)
+        .orElse(List.of());
+  }
+
+  /**
+   * Builds the command that copies the snapshot of an exercise into an execution container. The
+   * command prints {@value #HIT} when build output is in place afterwards, either restored or
+   * left by a previous run in the same container.
+   *
+   * @param bundle   the exercise bundle about to run
+   * @param language the language to run
+   * @return the command to run from the project root, empty if the language has no compile cache
+   */
+  public Optional<String> restoreCommand(ExerciseBundle bundle, Language language) {
+    if (!enabled || language.getCompileCommand() == null) {
+      return Optional.empty();
+    }
+    return CompileCache.forLanguage(language.getName()).map(cache -> {
+      String build = quote(cache.getBuildPath());
+      String snapshot = quote(snapshotDir(bundle, language) + "/snapshot");
+      String refresh = cache.getRefreshCommand() != null
+          ? "{ " + cache.getRefreshCommand() + "; } > /dev/null 2>&1; "
+          : "";
+      return refresh + "if [ -e " + build + " ]; then echo " + HIT + "; "
+          + "elif [ -d " + snapshot + " ] && mkdir -p \"$(dirname " + build + ")\" "
+          + "&& cp -a " + snapshot + " " + build + "; then echo " + HIT + "; "
+          + "else echo miss; fi";
+    });
+  }
+
+  /**
+   * Records the outcome of a restore and builds the missing snapshot in the background.
+   *
+   * @param bundle   the exercise bundle that ran
+   * @param language the language that ran
+   * @param output   the standard output of the restore command
+   * @return whether the run found build output in place
+   */
+  public boolean recordRestore(ExerciseBundle bundle, Language language, String output) {
+    boolean hit = HIT.equals(output.trim());
+    Counter.builder("engine.compile.cache.runs")
+        .tag("language", language.getName())
+        .tag("result", hit ? "hit" : "miss")
+        .description("Runs that started from cached build output (hit) or compiled from scratch")
+        .register(meterRegistry)
+        .increment();
+    if (!hit) {
+      primeAsync(bundle, language);
+    }
+    return hit;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    primeExecutor.shutdownNow();
+  }
+
+  private void primeAsync(ExerciseBundle bundle, Language language) {
+    String dir = snapshotDir(bundle, language);
+    if (!priming.add(dir)) {
+      return;
+    }
+    primeExecutor.execute(() -> {
+      try {
+        prime(bundle, language, dir);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (Exception e) {
+        log.warn("Failed to build compile cache for {} ({}): {}",
+            bundle.manifest().githubPath(), bundle.revision(), e.getMessage());
+      } finally {
+        priming.remove(dir);
+      }
+    });
+  }
+
+  private void prime(ExerciseBundle bundle, Language language, String dir)
+      throws InterruptedException, IOException {
+    CompileCache cache = CompileCache.forLanguage(language.getName()).orElseThrow();
+    String exerciseDir = dir.substring(0, dir.lastIndexOf('/'));
+    String key = dir.substring(dir.lastIndexOf('/') + 1);
+    String projectRoot = bundle.manifest().projectRoot().isEmpty()
+        ? "/workspace"
+        : "/workspace/" + bundle.manifest().projectRoot();
+    String build = quote(cache.getBuildPath());
+
+    String command = String.join(" && ",
+        "find " + quote(exerciseDir) + " -mindepth 1 -maxdepth 1 ! -name " + key
+            + " -exec rm -rf {} + 2>/dev/null; true",
+        "{ [ ! -d " + quote(dir + "/snapshot") + " ] && [ ! -e " + quote(dir + "/.failed")
+            + " ] || exit 0; }",
+        "mkdir -p " + quote(dir) + " /workspace",
+        "cp -a " + CacheHelperRunner.SEED_DIR + "/. /workspace/",
+        "cd " + quote(projectRoot),
+        // A template that leaves no build output is not retried until its next revision
+        "{ " + dependencyCacheManager.withPrivateLayer(language.getName(),
+            language.getCompileCommand()) + "; } > /dev/null 2>&1; [ -e " + build + " ] "
+            + "|| { touch " + quote(dir + "/.failed") + "; exit 0; }",
+        cache.getPrepareCommand() != null
+            ? "{ { " + cache.getPrepareCommand() + "; } > /dev/null 2>&1 || true; }"
+            : "true",
+        "rm -rf " + quote(dir + "/.snapshot.tmp"),
+        "cp -a " + build + " " + quote(dir + "/.snapshot.tmp"),
+        "mv " + quote(dir + "/.snapshot.tmp") + " " + quote(dir + "/snapshot"),
+        "du -sk " + quote(dir + "/snapshot"));
+
+    List<Bind> binds = new ArrayList<>(dependencyCacheManager.bindsFor(language.getName()));
+    binds.add(new Bind(VOLUME_NAME, new Volume(MOUNT_PATH), AccessMode.rw));
+    List<String> environment = new ArrayList<>(
+        dependencyCacheManager.environmentFor(language.getName()));
+    environment.addAll(cache.getEnvironment());
+
+    // The archive is copied in, not mounted: the daemon may be remote, and a newer revision
+    // can prune the tree while the helper still runs
+    String output = helperRunner.run(language.getDockerImage(),
+        "cortex-compile-" + language.getName(), binds, environment, command, bundle.archive());
+    log.info("Built compile cache for {} ({}): {}", bundle.manifest().githubPath(),
+        bundle.revision(), output.isBlank() ? "no build output" : output.trim());
+  }
+
+  private String snapshotDir(ExerciseBundle bundle, Language language) {
+    String exercise = HashUtil.generateSHA256Hash(bundle.manifest().githubPath())
+        .substring(0, KEY_LENGTH);
+    String prepareCommand = CompileCache.forLanguage(language.getName())
+        .map(CompileCache::getPrepareCommand)
+        .orElse("");
+    String key = HashUtil.generateSHA256Hash(String.join("|", bundle.revision(),
+        language.getDockerImage(), language.getCompileCommand(), String.valueOf(prepareCommand)))
+        .substring(0, KEY_LENGTH);
+    return MOUNT_PATH + "/" + language.getName() + "/" + exercise + "/" + key;
+  }
+
+  private static String quote(String value) {
+    return "'" + value.replace("'", "'\\''") + "'";
+  }
+}
@@ -0,0 +1,103 @@
+package com.cortex.backend.engine.internal.cache;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Shared dependency caches mounted into execution containers, one per language toolchain. The
+ * caches are mounted read-only and only written by the seeding helper container; a run resolves
+ * from the cache offline and keeps anything it writes in a private layer under {@code /tmp}.
+ * TypeScript has none, its dependencies are baked into the exercise-set image.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum DependencyCache {
+
+  MAVEN(
+      "java",
+      "cortex-cache-maven",
+      "/cache/maven",
+      true,
+      List.of(),
+      "for pom in $(find /seed -name pom.xml -not -path '*/target/*'); do "
+          + "(cd \"$(dirname \"$pom\")\" && mvn -B -q -ntp -Dmaven.repo.local=/cache/maven "
+          + "-Dmaven.test.failure.ignore=true dependency:go-offline test); "
+          + "done",
+      null,
+      Pattern.compile("Could not resolve dependencies|Could not transfer artifact"
+          + "|Non-resolvable (?:parent|import) POM"),
+      "find /tmp/maven-repo -name '*.jar' 2>/dev/null | head -n 1"
+  ),
+  /**
+   * Crates vendored into a directory source, which cargo reads without writing. The cargo home,
+   * with the source replacement config, is private to the container.
+   */
+  CARGO(
+      "rust",
+      "cortex-cache-cargo",
+      "/cache/cargo",
+      true,
+      List.of("CARGO_HOME=/tmp/cargo", "CARGO_NET_OFFLINE=true"),
+      "set -- $(find /seed -name Cargo.toml); [ $# -gt 0 ] || exit 0; "
+          + "manifest=$1; shift; sync=''; "
+          + "for other in \"$@\"; do sync=\"$sync --sync $other\"; done; "
+          + "cargo vendor --manifest-path \"$manifest\" $sync /cache/cargo/vendor "
+          + "> /cache/cargo/config.toml.tmp "
+          + "&& mv /cache/cargo/config.toml.tmp /cache/cargo/config.toml",
+      "mkdir -p /tmp/cargo && { cp /cache/cargo/config.toml /tmp/cargo/ 2>/dev/null || true; }",
+      Pattern.compile("no matching package named|--offline was specified"),
+      null
+  ),
+  /**
+   * The module download cache, served as a file proxy. Modules are extracted into a private
+   * module cache.
+   */
+  GO(
+      "go",
+      "cortex-cache-go",
+      "/cache/go",
+      true,
+      List.of("GOMODCACHE=/tmp/gomod", "GOPROXY=file:///cache/go/cache/download",
+          "GOFLAGS=-mod=mod", "GOSUMDB=off"),
+      "for mod in $(find /seed -name go.mod); do "
+          + "(cd \"$(dirname \"$mod\")\" && GOMODCACHE=/cache/go go mod download); "
+          + "done",
+      null,
+      Pattern.compile("file:///cache/go/\\S+: no such file"),
+      null
+  );
+
+  private final String language;
+  private final String volumeName;
+  private final String mountPath;
+  private final boolean readOnly;
+  /**
+   * Environment of execution containers; the seeding helper doesn't get it.
+   */
+  private final List<String> environment;
+  private final String seedCommand;
+  /**
+   * Command run before each step to set up the private layer over the cache.
+   */
+  private final String setupCommand;
+  /**
+   * Pattern matched against the run output when the toolchain reports a dependency missing from
+   * the cache.
+   */
+  private final Pattern missPattern;
+  /**
+   * Command run inside the container after a build when the output doesn't already show a miss;
+   * any output means the cache missed.
+   */
+  private final String missProbe;
+
+  public static Optional<DependencyCache> forLanguage(String language) {
+    return Arrays.stream(values())
+        .filter(cache -> cache.language.equals(language))
+        .findFirst();
+  }
+}
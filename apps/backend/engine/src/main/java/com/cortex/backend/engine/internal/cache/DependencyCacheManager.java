@@ -0,0 +1,364 @@
+package com.cortex.backend.engine.internal.cache;
+
+import static com.cortex.backend.engine.internal.utils.Constants.BIN_SH;
+
+import com.cortex.backend.core.domain.Language;
+import com.cortex.backend.engine.api.LanguageRepository;
+import com.cortex.backend.engine.api.dto.DependencyCacheStats;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.command.ExecCreateCmdResponse;
+import com.github.dockerjava.api.exception.NotFoundException;
+import com.github.dockerjava.api.model.AccessMode;
+import com.github.dockerjava.api.model.Bind;
+import com.github.dockerjava.api.model.Frame;
+import com.github.dockerjava.api.model.StreamType;
+import com.github.dockerjava.api.model.Volume;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Manages the shared dependency cache volumes: mounts them into execution containers, seeds them
+ * from the exercise repository and evicts entries that have not been read for a while.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class DependencyCacheManager {
+
+  private static final String CACHE_LABEL = "cortex.cache.language";
+  private static final long PROBE_TIMEOUT_SECONDS = 5;
+
+  private final DockerClient dockerClient;
+  private final LanguageRepository languageRepository;
+  private final CacheHelperRunner helperRunner;
+  private final MeterRegistry meterRegistry;
+
+  private final Map<DependencyCache, CacheState> states = new EnumMap<>(DependencyCache.class);
+  private final ExecutorService seedExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+  @Value("${engine.cache.enabled:true}")
+  private boolean enabled;
+
+  @Value("${engine.cache.max-age-days:30}")
+  private int maxAgeDays;
+
+  @PostConstruct
+  public void registerMetrics() {
+    for (DependencyCache cache : DependencyCache.values()) {
+      CacheState state = new CacheState(cache, meterRegistry);
+      Gauge.builder("engine.dependency.cache.size", state.sizeBytes, AtomicLong::get)
+          .tag("language", cache.getLanguage())
+          .baseUnit("bytes")
+          .description("Size of the shared dependency cache volume")
+          .register(meterRegistry);
+      states.put(cache, state);
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void ensureVolumes() {
+    if (!enabled) {
+      return;
+    }
+    for (DependencyCache cache : DependencyCache.values()) {
+      try {
+        dockerClient.inspectVolumeCmd(cache.getVolumeName()).exec();
+      } catch (NotFoundException e) {
+        log.info("Creating dependency cache volume {}", cache.getVolumeName());
+        dockerClient.createVolumeCmd()
+            .withName(cache.getVolumeName())
+            .withLabels(Map.of(CACHE_LABEL, cache.getLanguage()))
+            .exec();
+      } catch (Exception e) {
+        log.warn("Could not check dependency cache volume {}: {}", cache.getVolumeName(),
+            e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Returns the cache volume mounts for an execution container of the given language.
+   *
+   * @param language the language name
+   * @return the binds to add to the container host config
+   */
+  public List<Bind> bindsFor(String language) {
+    if (!enabled) {
+      return List.of();
+    }
+    return DependencyCache.forLanguage(language)
+        .map(cache -> List.of(new Bind(cache.getVolumeName(), new Volume(cache.getMountPath()),
+            cache.isReadOnly() ? AccessMode.ro : AccessMode.rw)))
+        .orElse(List.of());
+  }
+
+  /**
+   * Returns the environment variables pointing the toolchain at its cache.
+   *
+   * @param language the language name
+   * @return the environment entries in {@code KEY=value} form
+   */
+  public List<String> environmentFor(String language) {
+    if (!enabled) {
+      return List.of();
+    }
+    return DependencyCache.forLanguage(language)
+        .map(DependencyCache::getEnvironment)
+        .orElse(List.of());
+  }
+
+  /**
+   * Prefixes a command with the setup of the private layer over the language's cache.
+   *
+   * @param language the language name
+   * @param command  the command to run in an execution container
+   * @return the command, set up to run against the read-only cache
+   */
+  public String withPrivateLayer(String language, String command) {
+    if (!enabled || command == null) {
+      return command;
+    }
+    return DependencyCache.forLanguage(language)
+        .map(DependencyCache::getSetupCommand)
+        .map(setup -> setup + " && " + command)
+        .orElse(command);
+  }
+
+  /**
+   * Records whether a finished run was fully served by the cache.
+   *
+   * @param language    the language name
+   * @param containerId the container the run happened in, still alive
+   * @param stdout      the run standard output
+   * @param stderr      the run standard error
+   * @return {@code false} if the cache missed or the probe failed, so the dependencies the run
+   * saw may differ from the next run's
+   */
+  public boolean recordRun(String language, String containerId, String stdout, String stderr) {
+    if (!enabled) {
+      return true;
+    }
+    return DependencyCache.forLanguage(language).map(cache -> {
+      Boolean miss = cache.getMissPattern() != null
+          && cache.getMissPattern().matcher(stdout + "\n" + stderr).find();
+      if (!miss && cache.getMissProbe() != null) {
+        miss = probe(containerId, cache.getMissProbe());
+      }
+      if (miss == null) {
+        return false;
+      }
+      states.get(cache).record(!miss);
+      return !miss;
+    }).orElse(true);
+  }
+
+  /**
+   * Pre-fills every cache from the exercises found in the local repository, in the background.
+   *
+   * @param exercisesDir the {@code exercises} directory of the local repository
+   */
+  public void seedAsync(Path exercisesDir) {
+    if (!enabled) {
+      return;
+    }
+    for (DependencyCache cache : DependencyCache.values()) {
+      Path languageDir = exercisesDir.resolve(cache.getLanguage());
+      CacheState state = states.get(cache);
+      if (Files.isDirectory(languageDir) && state.seeding.compareAndSet(false, true)) {
+        seedExecutor.execute(() -> {
+          try {
+            seed(cache, languageDir);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          } catch (Exception e) {
+            log.warn("Failed to seed dependency cache {}: {}", cache.getVolumeName(),
+                e.getMessage());
+          } finally {
+            state.seeding.set(false);
+          }
+        });
+      }
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${engine.cache.maintenance-interval-ms:86400000}",
+      initialDelayString = "${engine.cache.maintenance-interval-ms:86400000}")
+  public void evictStaleEntries() {
+    if (!enabled) {
+      return;
+    }
+    for (DependencyCache cache : DependencyCache.values()) {
+      if (cache == DependencyCache.CARGO) {
+        // Vendored crates are checksummed as a whole, each seed prunes the unused ones
+        continue;
+      }
+      try {
+        String command = String.format(
+            "find %1$s -type f -atime +%2$d -print -delete | wc -l; du -sk %1$s",
+            cache.getMountPath(), maxAgeDays);
+        List<String> lines = runHelper(cache, List.of(writableBind(cache)), command, null).lines()
+            .toList();
+        if (lines.size() >= 2) {
+          long evicted = Long.parseLong(lines.get(lines.size() - 2).trim());
+          states.get(cache).evictions.increment(evicted);
+          states.get(cache).updateSize(lines.getLast());
+          log.info("Evicted {} stale files from {}", evicted, cache.getVolumeName());
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (Exception e) {
+        log.warn("Failed to maintain dependency cache {}: {}", cache.getVolumeName(),
+            e.getMessage());
+      }
+    }
+  }
+
+  public List<DependencyCacheStats> getStats() {
+    return Arrays.stream(DependencyCache.values())
+        .map(cache -> states.get(cache).toStats())
+        .toList();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    seedExecutor.shutdownNow();
+  }
+
+  private void seed(DependencyCache cache, Path languageDir) throws Exception {
+    log.info("Seeding dependency cache {} from {}", cache.getVolumeName(), languageDir);
+    String command = "{ " + cache.getSeedCommand() + "; } > /dev/null; du -sk "
+        + cache.getMountPath();
+    // Copied rather than mounted: the daemon may not share the backend's filesystem
+    String output = runHelper(cache, List.of(writableBind(cache)), command, languageDir);
+    CacheState state = states.get(cache);
+    output.lines().reduce((first, second) -> second).ifPresent(state::updateSize);
+    state.lastSeededAt = LocalDateTime.now();
+    log.info("Seeded dependency cache {} ({} bytes)", cache.getVolumeName(),
+        state.sizeBytes.get());
+  }
+
+  private Bind writableBind(DependencyCache cache) {
+    return new Bind(cache.getVolumeName(), new Volume(cache.getMountPath()), AccessMode.rw);
+  }
+
+  private String runHelper(DependencyCache cache, List<Bind> binds, String command, Path seed)
+      throws InterruptedException, IOException {
+    Language language = languageRepository.findByName(cache.getLanguage())
+        .orElseThrow(() -> new IllegalStateException("Language not found: " + cache.getLanguage()));
+    return helperRunner.run(language.getDockerImage(), "cortex-cache-" + cache.getLanguage(),
+        binds, List.of(), command, seed);
+  }
+
+  private Boolean probe(String containerId, String command) {
+    try {
+      ExecCreateCmdResponse exec = dockerClient.execCreateCmd(containerId)
+          .withAttachStdout(true)
+          .withCmd(BIN_SH, "-c", command)
+          .exec();
+      StringBuilder output = new StringBuilder();
+      boolean completed = dockerClient.execStartCmd(exec.getId())
+          .exec(new ResultCallback.Adapter<Frame>() {
+            @Override
+            public void onNext(Frame frame) {
+              if (frame.getStreamType() == StreamType.STDOUT) {
+                output.append(new String(frame.getPayload()));
+              }
+            }
+          })
+          .awaitCompletion(PROBE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+      return completed ? !output.toString().isBlank() : null;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    } catch (Exception e) {
+      log.debug("Cache probe failed in container {}: {}", containerId, e.getMessage());
+      return null;
+    }
+  }
+
+  private static final class CacheState {
+
+    private final DependencyCache cache;
+    private final AtomicLong sizeBytes = new AtomicLong();
+    private final AtomicBoolean seeding = new AtomicBoolean();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private volatile LocalDateTime lastSeededAt;
+
+    CacheState(DependencyCache cache, MeterRegistry meterRegistry) {
+      this.cache = cache;
+      this.hits = lookups(cache, meterRegistry, "hit");
+      this.misses = lookups(cache, meterRegistry, "miss");
+      this.evictions = Counter.builder("engine.dependency.cache.evictions")
+          .tag("language", cache.getLanguage())
+          .description("Files evicted from the shared dependency cache")
+          .register(meterRegistry);
+    }
+
+    private static Counter lookups(DependencyCache cache, MeterRegistry meterRegistry,
+        String result) {
+      return Counter.builder("engine.dependency.cache.runs")
+          .tag("language", cache.getLanguage())
+          .tag("result", result)
+          .description("Runs fully served by the dependency cache (hit) or fetching (miss)")
+          .register(meterRegistry);
+    }
+
+    void record(boolean hit) {
+      (hit ? hits : misses).increment();
+    }
+
+    void updateSize(String duLine) {
+      String kilobytes = duLine.trim().split("\\s+")[0];
+      try {
+        sizeBytes.set(Long.parseLong(kilobytes) * 1024);
+      } catch (NumberFormatException e) {
+        log.debug("Unexpected du output for {}: {}", cache.getVolumeName(), duLine);
+      }
+    }
+
+    DependencyCacheStats toStats() {
+      long hitCount = (long) hits.count();
+      long missCount = (long) misses.count();
+      long total = hitCount + missCount;
+      return new DependencyCacheStats(
+          cache.getLanguage(),
+          cache.getVolumeName(),
+          cache.getMountPath(),
+          cache.isReadOnly(),
+          sizeBytes.get(),
+          (long) evictions.count(),
+          hitCount,
+          missCount,
+          total > 0 ? (double) hitCount / total : 0.0,
+          lastSeededAt
+      );
+    }
+  }
+}
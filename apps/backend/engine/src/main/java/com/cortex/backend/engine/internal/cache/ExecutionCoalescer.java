@@ -0,0 +1,229 @@
+package com.cortex.backend.engine.internal.cache;
+
+import com.cortex.backend.engine.api.dto.CodeExecutionResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Makes concurrent identical executions share one container run, across every engine consumer.
+ * The first consumer to claim the flight key in Redis runs the execution and publishes the
+ * result; the others wait for it and return a copy under their own task.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ExecutionCoalescer {
+
+  private static final String FLIGHT_PREFIX = "exec-flight:";
+  private static final String RESULT_PREFIX = FLIGHT_PREFIX + "result:";
+  private static final String DONE_CHANNEL_PREFIX = FLIGHT_PREFIX + "done:";
+  private static final long POLL_INTERVAL_MS = 1000;
+  private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+      "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) "
+          + "else return 0 end", Long.class);
+
+  private final StringRedisTemplate stringRedisTemplate;
+  private final RedisMessageListenerContainer listenerContainer;
+  private final ObjectMapper objectMapper;
+  private final MeterRegistry meterRegistry;
+
+  @Value("${engine.coalescing.enabled:true}")
+  private boolean enabled;
+
+  @Value("${engine.coalescing.wait-ms:240000}")
+  private long waitMs;
+
+  @Value("${engine.coalescing.result-ttl-ms:60000}")
+  private long resultTtlMs;
+
+  /**
+   * Joins the flight of an execution: the first task with the key leads it and runs the
+   * execution, the others follow and wait for its result. Joining happens before the task
+   * acquires execution capacity, so followers wait without holding any.
+   *
+   * @param key the content key of the execution, as built by the result cache
+   * @return the flight, to be closed once the task is processed
+   */
+  public Flight join(String key) {
+    if (!enabled) {
+      return solo();
+    }
+    String token = UUID.randomUUID().toString();
+    Boolean leader = stringRedisTemplate.opsForValue()
+        .setIfAbsent(FLIGHT_PREFIX + key, token, Duration.ofMillis(waitMs));
+    return new Flight(key, Boolean.TRUE.equals(leader) ? token : null);
+  }
+
+  /**
+   * A flight for a task that doesn't coalesce with any other.
+   *
+   * @return the flight
+   */
+  public Flight solo() {
+    return new Flight(null, null);
+  }
+
+  /**
+   * A flight for a task whose result is already known, such as a cached one.
+   *
+   * @param result the result, owned by the task
+   * @return the flight, which hands out the result instead of executing
+   */
+  public Flight resolved(CodeExecutionResult result) {
+    Flight flight = solo();
+    flight.shared = result;
+    return flight;
+  }
+
+  private CodeExecutionResult lead(String key, Supplier<CodeExecutionResult> execution)
+      throws JsonProcessingException {
+    flights("leader").increment();
+    CodeExecutionResult result = execution.get();
+    if (result.isCancelled()) {
+      // Followers find neither a result nor a flight and run the execution themselves
+      return result;
+    }
+    String payload = objectMapper.writeValueAsString(result);
+    stringRedisTemplate.opsForValue()
+        .set(RESULT_PREFIX + key, payload, Duration.ofMillis(resultTtlMs));
+    stringRedisTemplate.convertAndSend(DONE_CHANNEL_PREFIX + key, payload);
+    return result;
+  }
+
+  private CodeExecutionResult follow(String key) {
+    CompletableFuture<String> done = new CompletableFuture<>();
+    ChannelTopic topic = new ChannelTopic(DONE_CHANNEL_PREFIX + key);
+    MessageListener listener = (message, _) ->
+        done.complete(new String(message.getBody(), StandardCharsets.UTF_8));
+    listenerContainer.addMessageListener(listener, topic);
+
+    try {
+      long deadline = System.currentTimeMillis() + waitMs;
+      while (System.currentTimeMillis() < deadline) {
+        // The subscription is asynchronous, so also look for a result the leader already stored
+        String payload = stringRedisTemplate.opsForValue().get(RESULT_PREFIX + key);
+        if (payload == null) {
+          try {
+            payload = done.get(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+          } catch (TimeoutException e) {
+            if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(FLIGHT_PREFIX + key))
+                && !Boolean.TRUE.equals(stringRedisTemplate.hasKey(RESULT_PREFIX + key))) {
+              return null;
+            }
+            continue;
+          }
+        }
+        return objectMapper.readValue(payload, CodeExecutionResult.class);
+      }
+      return null;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    } catch (ExecutionException | JsonProcessingException e) {
+      log.warn("Failed to read coalesced result for {}: {}", key, e.getMessage());
+      return null;
+    } finally {
+      listenerContainer.removeMessageListener(listener, topic);
+    }
+  }
+
+  private Counter flights(String role) {
+    return Counter.builder("engine.execution.coalesced")
+        .tag("role", role)
+        .description("Executions that ran (leader), reused an in-flight run (follower) "
+            + "or ran after waiting in vain (fallback)")
+        .register(meterRegistry);
+  }
+
+  /**
+   * A task's part in a flight. Leaders hold the flight key until they close the flight.
+   */
+  public final class Flight implements AutoCloseable {
+
+    private final String key;
+    private final String token;
+    private CodeExecutionResult shared;
+    private boolean landed;
+
+    private Flight(String key, String token) {
+      this.key = key;
+      this.token = token;
+    }
+
+    /**
+     * Waits for the leader's result if this task follows a flight. A resolved flight already
+     * holds its result and returns at once.
+     *
+     * @return whether a result is available without executing
+     */
+    public boolean awaitLeader() {
+      if (shared != null) {
+        return true;
+      }
+      if (key == null || token != null) {
+        return false;
+      }
+      shared = follow(key);
+      if (shared != null) {
+        flights("follower").increment();
+      }
+      return shared != null;
+    }
+
+    /**
+     * Returns the leader's result if one arrived, otherwise runs the execution, publishing its
+     * result to the followers when leading.
+     *
+     * @param execution runs the execution
+     * @return the result, owned by the caller
+     */
+    public CodeExecutionResult execute(Supplier<CodeExecutionResult> execution) {
+      if (shared != null) {
+        return shared;
+      }
+      if (token == null) {
+        if (key != null) {
+          log.info("No coalesced result for {}, executing", key);
+          flights("fallback").increment();
+        }
+        return execution.get();
+      }
+      try {
+        return lead(key, execution);
+      } catch (JsonProcessingException e) {
+        throw new IllegalStateException("Failed to serialize execution result", e);
+      } finally {
+        close();
+      }
+    }
+
+    @Override
+    public void close() {
+      if (token != null && !landed) {
+        landed = true;
+        stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(FLIGHT_PREFIX + key), token);
+      }
+    }
+  }
+}
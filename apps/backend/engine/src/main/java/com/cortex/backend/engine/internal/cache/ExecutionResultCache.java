@@ -0,0 +1,144 @@
+package com.cortex.backend.engine.internal.cache;
+
+import com.cortex.backend.engine.api.dto.CodeExecutionResult;
+import com.cortex.backend.engine.internal.bundle.ExerciseBundlePublishedEvent;
+import com.cortex.backend.engine.internal.utils.HashUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.stereotype.Component;
+
+/**
+ * Content-addressed cache of execution results, keyed by exercise revision, language and the
+ * hash of the normalized submitted code. Size is bounded with LRU eviction tracked in a sorted
+ * set, and entries of an exercise are dropped as soon as a new revision of it is published.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ExecutionResultCache {
+
+  private static final String KEY_PREFIX = "exec-cache:";
+  private static final String LRU_KEY = KEY_PREFIX + "lru";
+  private static final String EXERCISE_INDEX_PREFIX = KEY_PREFIX + "exercise:";
+
+  private final RedisTemplate<String, CodeExecutionResult> redisTemplate;
+  private final StringRedisTemplate stringRedisTemplate;
+  private final MeterRegistry meterRegistry;
+
+  @Value("${engine.result-cache.enabled:true}")
+  private boolean enabled;
+
+  @Value("${engine.result-cache.max-entries:10000}")
+  private long maxEntries;
+
+  @Value("${engine.result-cache.ttl-hours:24}")
+  private long ttlHours;
+
+  /**
+   * Builds the cache key of a submission.
+   *
+   * @param revision    the exercise bundle revision
+   * @param language    the language name
+   * @param decodedCode the submitted code
+   * @return the cache key
+   */
+  public String keyFor(String revision, String language, String decodedCode) {
+    return KEY_PREFIX + revision + ":" + language + ":"
+        + HashUtil.generateSHA256Hash(normalize(decodedCode));
+  }
+
+  public Optional<CodeExecutionResult> get(String key) {
+    if (!enabled) {
+      return Optional.empty();
+    }
+    CodeExecutionResult result = redisTemplate.opsForValue().get(key);
+    lookups(result != null).increment();
+    if (result != null) {
+      stringRedisTemplate.opsForZSet().add(LRU_KEY, key, System.currentTimeMillis());
+    }
+    return Optional.ofNullable(result);
+  }
+
+  /**
+   * Stores the result of a completed execution.
+   *
+   * @param githubPath the exercise path, used to invalidate the entry with the exercise
+   * @param key        the cache key from {@link #keyFor}
+   * @param result     the result to store
+   */
+  public void put(String githubPath, String key, CodeExecutionResult result) {
+    if (!enabled) {
+      return;
+    }
+    redisTemplate.opsForValue().set(key, result, ttlHours, TimeUnit.HOURS);
+    stringRedisTemplate.opsForZSet().add(LRU_KEY, key, System.currentTimeMillis());
+    stringRedisTemplate.opsForSet().add(EXERCISE_INDEX_PREFIX + githubPath, key);
+    stringRedisTemplate.expire(EXERCISE_INDEX_PREFIX + githubPath, ttlHours, TimeUnit.HOURS);
+    evictOverflow();
+  }
+
+  @EventListener
+  public void onBundlePublished(ExerciseBundlePublishedEvent event) {
+    if (enabled && event.previousRevision() != null) {
+      invalidate(event.githubPath());
+    }
+  }
+
+  /**
+   * Drops every cached result of an exercise.
+   *
+   * @param githubPath the exercise path
+   */
+  public void invalidate(String githubPath) {
+    String indexKey = EXERCISE_INDEX_PREFIX + githubPath;
+    Set<String> keys = stringRedisTemplate.opsForSet().members(indexKey);
+    if (keys != null && !keys.isEmpty()) {
+      redisTemplate.delete(keys);
+      stringRedisTemplate.opsForZSet().remove(LRU_KEY, keys.toArray());
+      log.info("Invalidated {} cached results of {}", keys.size(), githubPath);
+    }
+    stringRedisTemplate.delete(indexKey);
+  }
+
+  private void evictOverflow() {
+    Long size = stringRedisTemplate.opsForZSet().zCard(LRU_KEY);
+    if (size == null || size <= maxEntries) {
+      return;
+    }
+    Set<TypedTuple<String>> evicted = stringRedisTemplate.opsForZSet()
+        .popMin(LRU_KEY, size - maxEntries);
+    if (evicted != null && !evicted.isEmpty()) {
+      redisTemplate.delete(evicted.stream().map(TypedTuple::getValue).collect(Collectors.toSet()));
+      Counter.builder("engine.result.cache.evictions")
+          .description("Execution results evicted from the result cache")
+          .register(meterRegistry)
+          .increment(evicted.size());
+    }
+  }
+
+  /**
+   * Normalizes line endings and trailing blank lines, so resubmissions that only differ in how
+   * the editor saved them share an entry. Whitespace inside the code is kept as is.
+   */
+  private String normalize(String code) {
+    return code.replace("\r\n", "\n").stripTrailing();
+  }
+
+  private Counter lookups(boolean hit) {
+    return Counter.builder("engine.result.cache.lookups")
+        .tag("result", hit ? "hit" : "miss")
+        .description("Execution result cache lookups")
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,332 @@
+package com.cortex.backend.engine.internal.docker;
+
+import static com.cortex.backend.engine.internal.utils.Constants.BIN_SH;
+import static com.cortex.backend.engine.internal.utils.Constants.CONTAINER_NAME_PREFIX;
+import static com.cortex.backend.engine.internal.utils.Constants.CONTAINER_WORKING_DIR;
+import static com.cortex.backend.engine.internal.utils.Constants.TMP_PREFIX;
+import static com.cortex.backend.engine.internal.utils.Constants.WORKSPACE_DIR;
+
+import com.cortex.backend.core.domain.Language;
+import com.cortex.backend.engine.api.LanguageRepository;
+import com.cortex.backend.engine.internal.cache.CompileCacheManager;
+import com.cortex.backend.engine.internal.cache.DependencyCacheManager;
+import com.cortex.backend.engine.internal.environment.LanguageEnvironmentSetup;
+import com.cortex.backend.engine.internal.runner.LanguageRunners;
+import com.cortex.backend.engine.internal.scheduling.AdaptiveConcurrencyLimit;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.command.CreateContainerResponse;
+import com.github.dockerjava.api.model.Bind;
+import com.github.dockerjava.api.model.HostConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps a per-language pool of started, idle containers so executions don't pay the container
+ * create and start cost. Containers are single use: a checked out container is destroyed on
+ * release and the pool is refilled in the background.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ContainerPool {
+
+  private static final String POOL_LABEL = "cortex.pool.language";
+  private static final String MODE_ARCHIVE = "archive";
+  private static final String[] IDLE_CMD = {"tail", "-f", "/dev/null"};
+
+  private final DockerClient dockerClient;
+  private final LanguageRepository languageRepository;
+  private final DependencyCacheManager dependencyCacheManager;
+  private final CompileCacheManager compileCacheManager;
+  private final LanguageRunners languageRunners;
+  private final ExerciseImageManager exerciseImageManager;
+  private final LanguageEnvironmentSetup environmentSetup;
+  private final AdaptiveConcurrencyLimit concurrencyLimit;
+  private final MeterRegistry meterRegistry;
+  private final Environment environment;
+
+  private final Map<String, Language> languages = new ConcurrentHashMap<>();
+  private final Map<String, BlockingDeque<PooledContainer>> idle = new ConcurrentHashMap<>();
+  private final Map<String, AtomicInteger> pending = new ConcurrentHashMap<>();
+  private final Map<String, Queue<Long>> depletedAt = new ConcurrentHashMap<>();
+  private final ExecutorService refillExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+  @Value("${engine.pool.enabled:true}")
+  private boolean enabled;
+
+  @Value("${engine.pool.default-size:1}")
+  private int defaultSize;
+
+  @Value("${engine.workspace.mode:bind}")
+  private String workspaceMode;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUp() {
+    if (!enabled) {
+      log.info("Container pool disabled, containers will be created on demand");
+      return;
+    }
+    languageRepository.findAll().forEach(language -> {
+      languages.put(language.getName(), language);
+      refill(language);
+    });
+  }
+
+  @Scheduled(fixedDelayString = "${engine.pool.refill-interval-ms:5000}")
+  public void topUp() {
+    if (enabled) {
+      languages.values().forEach(this::refill);
+    }
+  }
+
+  /**
+   * Checks out a started container for the given language. Falls back to creating one on the
+   * calling thread when the pool is empty.
+   *
+   * @param language the language to run
+   * @return a started container with an empty workspace
+   * @throws IOException if the workspace directory cannot be created
+   */
+  public PooledContainer acquire(Language language) throws IOException {
+    if (!enabled) {
+      return createContainer(language);
+    }
+
+    String name = language.getName();
+    languages.putIfAbsent(name, language);
+    PooledContainer container = idleContainers(name).pollFirst();
+    boolean hit = container != null;
+    checkouts(name, hit).increment();
+    depletedAt.computeIfAbsent(name, _ -> new ConcurrentLinkedQueue<>()).add(System.nanoTime());
+    refill(language);
+
+    if (hit) {
+      log.debug("Container pool hit for {}: {}", name, container.id());
+      return container;
+    }
+    log.info("Container pool miss for {}, creating container on demand", name);
+    return createContainer(language);
+  }
+
+  /**
+   * Destroys a container that was checked out from the pool, along with its host directory.
+   * Removal happens in the background so it doesn't delay the execution result, or on the
+   * calling thread once the pool is shutting down.
+   *
+   * @param container the container to destroy
+   */
+  public void release(PooledContainer container) {
+    try {
+      refillExecutor.execute(() -> remove(container));
+    } catch (RejectedExecutionException e) {
+      remove(container);
+    }
+  }
+
+  private void remove(PooledContainer container) {
+    try {
+      dockerClient.removeContainerCmd(container.id()).withForce(true).exec();
+    } catch (Exception e) {
+      log.warn("Failed to remove container {}: {}", container.id(), e.getMessage());
+    }
+    if (container.hostDir() != null) {
+      environmentSetup.cleanupDirectory(container.hostDir());
+    }
+  }
+
+  /**
+   * Resolves the in-container path of a directory inside the container workspace.
+   *
+   * @param container the container owning the workspace
+   * @param hostPath  a host path inside {@link PooledContainer#workspaceDir()}
+   * @return the matching absolute path inside the container
+   */
+  public String containerPath(PooledContainer container, Path hostPath) {
+    Path relative = container.workspaceDir().relativize(hostPath);
+    return relative.toString().isEmpty()
+        ? CONTAINER_WORKING_DIR
+        : CONTAINER_WORKING_DIR + "/" + relative.toString().replace('\\', '/');
+  }
+
+  /**
+   * Drops the idle containers of a language whose exercise-set image was replaced, so new
+   * executions start from the new image.
+   *
+   * @param event the image change
+   */
+  @EventListener
+  public void onExerciseImageChanged(ExerciseImageChangedEvent event) {
+    BlockingDeque<PooledContainer> containers = idle.get(event.language());
+    if (containers == null) {
+      return;
+    }
+    PooledContainer container;
+    while ((container = containers.pollFirst()) != null) {
+      release(container);
+    }
+    Language language = languages.get(event.language());
+    if (enabled && language != null) {
+      refill(language);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    refillExecutor.shutdownNow();
+    idle.values().forEach(containers -> {
+      PooledContainer container;
+      while ((container = containers.pollFirst()) != null) {
+        remove(container);
+      }
+    });
+  }
+
+  private void refill(Language language) {
+    String name = language.getName();
+    AtomicInteger inFlight = pending.computeIfAbsent(name, _ -> new AtomicInteger());
+    int deficit = targetSize(name) - idleContainers(name).size() - inFlight.get();
+
+    for (int i = 0; i < deficit; i++) {
+      inFlight.incrementAndGet();
+      try {
+        refillExecutor.execute(() -> {
+          try {
+            idleContainers(name).offerLast(createContainer(language));
+            recordRefillLag(name);
+          } catch (Exception e) {
+            log.warn("Failed to pre-create container for {}: {}", name, e.getMessage());
+          } finally {
+            inFlight.decrementAndGet();
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        // Shutting down, nothing to refill for
+        inFlight.decrementAndGet();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Whether workspaces are streamed into containers instead of bind-mounted from the host.
+   *
+   * @return {@code true} in archive mode
+   */
+  public boolean usesArchiveWorkspaces() {
+    return MODE_ARCHIVE.equals(workspaceMode);
+  }
+
+  private PooledContainer createContainer(Language language) throws IOException {
+    String suffix = UUID.randomUUID().toString();
+    Path hostDir = null;
+    Path workspaceDir = null;
+
+    List<Bind> binds = new ArrayList<>();
+    if (!usesArchiveWorkspaces()) {
+      hostDir = Files.createTempDirectory(TMP_PREFIX + suffix);
+      workspaceDir = Files.createDirectories(hostDir.resolve(WORKSPACE_DIR));
+      binds.add(Bind.parse(workspaceDir.toAbsolutePath() + ":" + CONTAINER_WORKING_DIR + ":rw"));
+    }
+    binds.addAll(dependencyCacheManager.bindsFor(language.getName()));
+    binds.addAll(compileCacheManager.bindsFor(language.getName()));
+    List<String> env = new ArrayList<>(dependencyCacheManager.environmentFor(language.getName()));
+    env.addAll(compileCacheManager.environmentFor(language.getName()));
+
+    HostConfig hostConfig = HostConfig.newHostConfig()
+        .withBinds(binds)
+        .withMemory(language.getDefaultMemoryLimit())
+        .withCpuCount(language.getDefaultCpuLimit());
+
+    long start = System.nanoTime();
+    CreateContainerResponse response = dockerClient.createContainerCmd(
+        exerciseImageManager.imageFor(language))
+        .withHostConfig(hostConfig)
+        .withName(CONTAINER_NAME_PREFIX + suffix)
+        .withLabels(Map.of(POOL_LABEL, language.getName()))
+        .withWorkingDir(CONTAINER_WORKING_DIR)
+        .withEnv(env)
+        .withCmd(languageRunners.startCommand(language.getName())
+            .map(command -> new String[]{BIN_SH, "-c", command})
+            .orElse(IDLE_CMD))
+        .exec();
+
+    try {
+      languageRunners.install(response.getId(), language.getName());
+      dockerClient.startContainerCmd(response.getId()).exec();
+    } catch (IOException | RuntimeException e) {
+      dockerClient.removeContainerCmd(response.getId()).withForce(true).exec();
+      if (hostDir != null) {
+        environmentSetup.cleanupDirectory(hostDir);
+      }
+      throw e;
+    }
+    concurrencyLimit.recordContainerStart(Duration.ofNanos(System.nanoTime() - start));
+
+    return new PooledContainer(response.getId(), language.getName(), hostDir, workspaceDir,
+        Instant.now());
+  }
+
+  private BlockingDeque<PooledContainer> idleContainers(String language) {
+    return idle.computeIfAbsent(language, name -> {
+      BlockingDeque<PooledContainer> containers = new LinkedBlockingDeque<>();
+      Gauge.builder("engine.pool.idle", containers, BlockingDeque::size)
+          .tag("language", name)
+          .description("Idle pre-started containers")
+          .register(meterRegistry);
+      return containers;
+    });
+  }
+
+  private int targetSize(String language) {
+    return environment.getProperty("engine.pool.size." + language, Integer.class, defaultSize);
+  }
+
+  private Counter checkouts(String language, boolean hit) {
+    return Counter.builder("engine.pool.checkouts")
+        .tag("language", language)
+        .tag("result", hit ? "hit" : "miss")
+        .description("Container checkouts served from the pool or created on demand")
+        .register(meterRegistry);
+  }
+
+  private void recordRefillLag(String language) {
+    Long since = depletedAt.getOrDefault(language, new ConcurrentLinkedQueue<>()).poll();
+    if (since == null) {
+      return;
+    }
+    Timer.builder("engine.pool.refill.lag")
+        .tag("language", language)
+        .description("Time from a checkout until its replacement container is ready")
+        .register(meterRegistry)
+        .record(Duration.ofNanos(System.nanoTime() - since));
+  }
+}
@@ -4,32 +4,37 @@ import static com.cortex.backend.engine.internal.utils.Constants.*;
 
 import com.cortex.backend.core.domain.Language;
 import com.cortex.backend.engine.api.LanguageRepository;
-import com.cortex.backend.engine.api.dto.ContainerStats;
-import com.cortex.backend.engine.config.AutoCloseableContainer;
+import com.cortex.backend.engine.api.dto.TestCaseResult;
+import com.cortex.backend.engine.internal.bundle.ExerciseBundle;
+import com.cortex.backend.engine.internal.docker.WarmSessionManager.WarmSession;
+import com.cortex.backend.engine.internal.cache.CompileCacheManager;
+import com.cortex.backend.engine.internal.cache.DependencyCacheManager;
 import com.cortex.backend.engine.internal.environment.LanguageEnvironmentSetup;
 import com.cortex.backend.engine.internal.environment.LanguageEnvironmentSetup.WorkspaceSetup;
+import com.cortex.backend.engine.internal.environment.WorkspaceMaterializer;
+import com.cortex.backend.engine.internal.runner.LanguageRunners;
+import com.cortex.backend.engine.internal.scheduling.ExecutionCanceller;
+import com.cortex.backend.engine.internal.scheduling.ExecutionTimeoutAdvisor;
 import com.github.dockerjava.api.DockerClient;
 import com.github.dockerjava.api.async.ResultCallback;
-import com.github.dockerjava.api.command.CreateContainerResponse;
-import com.github.dockerjava.api.command.LogContainerCmd;
+import com.github.dockerjava.api.command.ExecCreateCmdResponse;
 import com.github.dockerjava.api.command.StatsCmd;
-import com.github.dockerjava.api.command.WaitContainerResultCallback;
-import com.github.dockerjava.api.model.Bind;
 import com.github.dockerjava.api.model.Frame;
-import com.github.dockerjava.api.model.HostConfig;
-import com.github.dockerjava.api.model.MemoryStatsConfig;
-import com.github.dockerjava.api.model.Statistics;
 import com.github.dockerjava.api.model.StreamType;
-import java.io.ByteArrayOutputStream;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.Closeable;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.UUID;
-import java.util.concurrent.CountDownLatch;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -37,218 +42,375 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class DockerExecutionService {
 
+  // 125 to 127 are failures to run the command, from 128 on it was killed by a signal
+  private static final int FIRST_ENVIRONMENT_EXIT_CODE = 125;
+
   private final DockerClient dockerClient;
   private final LanguageRepository languageRepository;
   private final LanguageEnvironmentSetup environmentSetup;
-
-  public ExecutionResult executeCode(String decodedCode, Path exercisePath, String languageName)
-      throws IOException {
+  private final WorkspaceMaterializer workspaceMaterializer;
+  private final WorkspaceArchiver workspaceArchiver;
+  private final ContainerPool containerPool;
+  private final WarmSessionManager sessionManager;
+  private final DependencyCacheManager dependencyCacheManager;
+  private final CompileCacheManager compileCacheManager;
+  private final LanguageRunners languageRunners;
+  private final TestReportCollector testReportCollector;
+  private final ExecutionCanceller executionCanceller;
+  private final ExecutionTimeoutAdvisor timeoutAdvisor;
+  private final MeterRegistry meterRegistry;
+
+  @Value("${engine.execution.stats-grace-ms:1000}")
+  private long statsGraceMs;
+
+  @Value("${engine.execution.max-output-bytes:4194304}")
+  private int maxOutputBytes;
+
+  /**
+   * Runs the submitted code against an exercise bundle in a pooled container, or in the user's
+   * warm session for the exercise when there is one. The container is killed if the task is
+   * cancelled while it runs. The compile step gets the language timeout, the test step the
+   * timeout derived for the exercise.
+   *
+   * @param taskId         the task the execution runs for
+   * @param userId         the submitting user, {@code null} for legacy tasks
+   * @param decodedCode    the submitted code
+   * @param bundle         the exercise bundle to run against
+   * @param languageName   the language to run
+   * @param outputListener receives output frames as they arrive
+   * @param lifecycle      the execution lifecycle, advanced through the container phases
+   * @return the execution result
+   * @throws IOException if the workspace cannot be prepared
+   */
+  public ExecutionResult executeCode(String taskId, Long userId, String decodedCode,
+      ExerciseBundle bundle, String languageName, ExecutionOutputListener outputListener,
+      ExecutionLifecycle lifecycle) throws IOException {
     Language language = languageRepository.findByName(languageName)
         .orElseThrow(() -> new IllegalArgumentException("Unsupported language: " + languageName));
 
-    String containerId = UUID.randomUUID().toString();
-    Path tempDir = Files.createTempDirectory(TMP_PREFIX + containerId);
     long startTime = System.currentTimeMillis();
+    lifecycle.enter(ExecutionPhase.ACQUIRING);
+    WarmSession session = sessionManager.checkout(userId, bundle, languageName).orElse(null);
+    PooledContainer container = session != null ? session.container()
+        : containerPool.acquire(language);
+    executionCanceller.attach(taskId, container.id());
+    boolean reusable = false;
+    String workingDir = null;
     try {
-      WorkspaceSetup workspace = environmentSetup.setupWorkspace(
-          tempDir,
-          exercisePath,
-          decodedCode,
-          language
-      );
+      lifecycle.enter(ExecutionPhase.PROVISIONING);
+      workingDir = session != null
+          ? refreshWorkspace(session, bundle, decodedCode)
+          : prepareWorkspace(container, bundle, decodedCode);
 
       log.info("Running container for language: {}", languageName);
-      log.info("Workspace directory: {}", workspace.workspaceDir());
-      log.info("Project root directory: {}", workspace.projectRoot());
-
-      return runContainer(language, workspace, containerId, startTime);
+      log.info("Project root directory: {}", workingDir);
+
+      ExecutionResult result = runInContainer(language, bundle, workingDir, container,
+          startTime, outputListener, lifecycle, session != null);
+      reusable = result.exitCode() >= 0 && !executionCanceller.isCancelled(taskId);
+      if (session == null && result.exitCode() == 0) {
+        // Only the tests: compile time swings with the compile and dependency caches
+        timeoutAdvisor.recordPassingRun(bundle.manifest().githubPath(), languageName,
+            result.testTime());
+      }
+      return result;
     } catch (Exception e) {
       log.error("Error during code execution setup", e);
       throw e;
     } finally {
-      environmentSetup.cleanupDirectory(tempDir);
+      executionCanceller.detach(taskId);
+      if (session != null) {
+        sessionManager.checkin(session, reusable);
+      } else if (!reusable
+          || !sessionManager.retain(userId, bundle, language, container, workingDir)) {
+        containerPool.release(container);
+      }
     }
   }
 
-  private ExecutionResult runContainer(Language language, WorkspaceSetup workspace,
-      String containerId, long startTime) {
-    String workingDir = "/workspace";
-    String projectRoot = workspace.projectRoot().toAbsolutePath().toString();
-
-    HostConfig hostConfig = HostConfig.newHostConfig()
-        .withBinds(Bind.parse(projectRoot + ":" + workingDir + ":rw"))
-        .withMemory(language.getDefaultMemoryLimit())
-        .withCpuCount(language.getDefaultCpuLimit());
-
-    try {
-      CreateContainerResponse container = dockerClient.createContainerCmd(language.getDockerImage())
-          .withHostConfig(hostConfig)
-          .withName("code-execution-" + containerId)
-          .withWorkingDir(workingDir)
-          .withCmd("/bin/sh", "-c", language.getExecuteCommand())
-          .exec();
-
-      try (AutoCloseableContainer _ = new AutoCloseableContainer(container, dockerClient)) {
-        dockerClient.startContainerCmd(container.getId()).exec();
-        
-        Thread.sleep(100);
-        
-        ContainerStats stats = getContainerStats(container.getId());
-        
-        int exitCode = waitForContainer(container.getId(), language.getDefaultTimeout());
-        ContainerLogs logs = collectLogs(container.getId(), language.getDefaultTimeout());
-
-        long executionTime = System.currentTimeMillis() - startTime;
-        
-        if (stats.memoryUsageBytes() == 0) {
-          stats = getContainerStats(container.getId());
-          log.info("Second attempt stats: {}", stats);
-        }
-
-        return new ExecutionResult(
-            exitCode,
-            logs.stdout(),
-            logs.stderr(),
-            executionTime,
-            stats.memoryUsageBytes() / 1024  
-        );
-      }
-    } catch (Exception e) {
-      log.error("Error executing container", e);
-      return new ExecutionResult(-1, "", e.getMessage(), 0L, 0L);
+  private String refreshWorkspace(WarmSession session, ExerciseBundle bundle, String decodedCode)
+      throws IOException {
+    PooledContainer container = session.container();
+    // The previous run may have rewritten the tests or support files, put the template back
+    if (containerPool.usesArchiveWorkspaces()) {
+      workspaceArchiver.restoreWorkspace(container.id(), bundle, decodedCode);
+    } else {
+      bundle.template().restoreInto(container.workspaceDir());
+      Path mainFile = container.workspaceDir().resolve(bundle.template().mainFile());
+      // Never write through whatever the previous run left in its place
+      Files.deleteIfExists(mainFile);
+      environmentSetup.writeMainFile(mainFile, decodedCode);
     }
+    return session.workingDir();
   }
 
+  private String prepareWorkspace(PooledContainer container, ExerciseBundle bundle,
+      String decodedCode) throws IOException {
+    if (containerPool.usesArchiveWorkspaces()) {
+      return workspaceArchiver.copyWorkspace(container.id(), bundle, decodedCode);
+    }
+    WorkspaceSetup workspace = workspaceMaterializer.materialize(
+        container.workspaceDir(),
+        bundle.template(),
+        decodedCode
+    );
+    return containerPool.containerPath(container, workspace.projectRoot());
+  }
 
-  private ContainerStats getContainerStats(String containerId) {
-    final CountDownLatch latch = new CountDownLatch(1);
-    final AtomicReference<Statistics> statsRef = new AtomicReference<>();
-
-    try (StatsCmd statsCmd = dockerClient.statsCmd(containerId)) {
-      statsCmd.withNoStream(false);
-
-      statsCmd.exec(new ResultCallback.Adapter<Statistics>() {
-        @Override
-        public void onNext(Statistics stats) {
-          if (stats != null && stats.getMemoryStats() != null &&
-              stats.getMemoryStats().getUsage() != null) {
-            statsRef.set(stats);
-            latch.countDown();
-          }
-        }
-
-        @Override
-        public void onError(Throwable throwable) {
-          log.error("Error getting container stats", throwable);
-          latch.countDown();
-        }
-      });
-
-      if (!latch.await(5, TimeUnit.SECONDS)) {
-        log.warn("Timeout waiting for container stats");
-        return new ContainerStats(0L, 0L);
+  private ExecutionResult runInContainer(Language language, ExerciseBundle bundle,
+      String workingDir, PooledContainer container, long startTime, ExecutionOutputListener outputListener,
+      ExecutionLifecycle lifecycle, boolean warmSession) {
+    ResourceAccountant accountant = new ResourceAccountant();
+    OutputBuffer stdout = new OutputBuffer(maxOutputBytes);
+    OutputBuffer stderr = new OutputBuffer(maxOutputBytes);
+    try (StatsCmd statsCmd = dockerClient.statsCmd(container.id()).withNoStream(false)) {
+      statsCmd.exec(accountant);
+      long compileTimeoutMs = language.getDefaultTimeout();
+      long deadline = System.currentTimeMillis() + compileTimeoutMs;
+
+      String compileCommand = languageRunners.compileCommand(language);
+      StepResult compile = StepResult.SKIPPED;
+      Boolean compileCacheHit = null;
+      if (compileCommand != null) {
+        lifecycle.enter(ExecutionPhase.COMPILING);
+        compileCacheHit = restoreBuildOutput(container.id(), workingDir, bundle, language,
+            deadline);
+        compile = runStep(container.id(), workingDir,
+            dependencyCacheManager.withPrivateLayer(language.getName(), compileCommand), deadline,
+            new OutputCollector(outputListener, stdout, stderr));
       }
 
-      Statistics stats = statsRef.get();
-      if (stats != null && stats.getMemoryStats() != null) {
-        Long usage = stats.getMemoryStats().getUsage();
-        MemoryStatsConfig memStats = stats.getMemoryStats();
-        Long cache = memStats.getStats() != null ?
-            memStats.getStats().getCache() : Long.valueOf(0L);
-
-        long realMemory = (usage != null ? usage : 0L) - (cache != null ? cache : 0L);
-        log.info("Memory usage: {}, Cache: {}, Real memory: {}", usage, cache, realMemory);
-        return new ContainerStats(realMemory, calculateCpuUsage(stats));
+      StepResult test = StepResult.SKIPPED;
+      long testTimeoutMs = timeoutAdvisor.timeoutFor(bundle.manifest().githubPath(), language);
+      if (compile.succeeded()) {
+        lifecycle.enter(ExecutionPhase.TESTING);
+        test = runStep(container.id(), workingDir,
+            dependencyCacheManager.withPrivateLayer(language.getName(),
+                testReportCollector.withCleanReport(language.getName(),
+                    languageRunners.executeCommand(language))),
+            System.currentTimeMillis() + testTimeoutMs,
+            new OutputCollector(outputListener, stdout, stderr));
+      }
+      long executionTime = System.currentTimeMillis() - startTime;
+      if (compile.timedOut() || test.timedOut()) {
+        stderr.appendNotice(String.format("%nExecution timed out after %d ms%n",
+            compile.timedOut() ? compileTimeoutMs : testTimeoutMs));
+      } else if (stdout.truncated() || stderr.truncated()) {
+        stderr.appendNotice(String.format(
+            "%nExecution stopped after exceeding the output limit of %d bytes%n",
+            maxOutputBytes));
       }
+
+      lifecycle.enter(ExecutionPhase.COLLECTING);
+      List<TestCaseResult> testResults = compile.succeeded() && !test.timedOut()
+          ? testReportCollector.collect(container.id(), workingDir, language.getName())
+              .orElse(null)
+          : null;
+      ResourceUsage usage = accountant.snapshot(statsGraceMs);
+      recordUsage(language.getName(), usage);
+      boolean dependenciesCached = dependencyCacheManager.recordRun(language.getName(),
+          container.id(), stdout.toString(), stderr.toString());
+
+      return new ExecutionResult(
+          compile.succeeded() ? test.exitCode() : compile.exitCode(),
+          stdout.toString(),
+          stderr.toString(),
+          executionTime,
+          compile.durationMs(),
+          test.durationMs(),
+          usage,
+          lifecycle.timings(),
+          compileCacheHit,
+          testResults,
+          warmSession,
+          dependenciesCached && isVerdict(compile, test, testResults)
+      );
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
-      log.error("Thread interrupted while getting container stats", e);
+      log.error("Interrupted while executing container", e);
+      return ExecutionResult.failed(e.getMessage(), lifecycle.timings());
     } catch (Exception e) {
-      log.error("Error getting container stats", e);
+      log.error("Error executing container", e);
+      return ExecutionResult.failed(e.getMessage(), lifecycle.timings());
+    } finally {
+      closeQuietly(accountant);
     }
+  }
 
-    return new ContainerStats(0L, 0L);
+  /**
+   * Whether the outcome depends on the submitted code alone: the tests ran to a report, or the
+   * compiler rejected the code. Timeouts, signals and failures to start the command (exit codes
+   * from {@value #FIRST_ENVIRONMENT_EXIT_CODE}) may not repeat.
+   */
+  private static boolean isVerdict(StepResult compile, StepResult test,
+      List<TestCaseResult> testResults) {
+    if (!compile.succeeded()) {
+      return !compile.timedOut() && compile.exitCode() > 0
+          && compile.exitCode() < FIRST_ENVIRONMENT_EXIT_CODE;
+    }
+    return testResults != null && !test.timedOut() && test.exitCode() >= 0
+        && test.exitCode() < FIRST_ENVIRONMENT_EXIT_CODE;
   }
 
-  private long calculateCpuUsage(Statistics stats) {
-    try {
-      if (stats.getCpuStats() == null ||
-          stats.getCpuStats().getCpuUsage() == null ||
-          stats.getCpuStats().getCpuUsage().getTotalUsage() == null ||
-          stats.getCpuStats().getSystemCpuUsage() == null) {
-        return 0L;
-      }
+  private Boolean restoreBuildOutput(String containerId, String workingDir,
+      ExerciseBundle bundle, Language language, long deadline) throws InterruptedException {
+    Optional<String> restore = compileCacheManager.restoreCommand(bundle, language);
+    if (restore.isEmpty()) {
+      return null;
+    }
+    OutputBuffer output = new OutputBuffer(maxOutputBytes);
+    StepResult restored = runStep(containerId, workingDir, restore.get(), deadline,
+        new OutputCollector(ExecutionOutputListener.NONE, output,
+            new OutputBuffer(maxOutputBytes)));
+    return compileCacheManager.recordRestore(bundle, language,
+        restored.succeeded() ? output.toString() : "");
+  }
 
-      Long totalUsage = stats.getCpuStats().getCpuUsage().getTotalUsage();
-      Long systemUsage = stats.getCpuStats().getSystemCpuUsage();
-      Long preTotalUsage = stats.getPreCpuStats() != null &&
-          stats.getPreCpuStats().getCpuUsage() != null &&
-          stats.getPreCpuStats().getCpuUsage().getTotalUsage() != null
-          ? stats.getPreCpuStats().getCpuUsage().getTotalUsage()
-          : 0L;
-      Long preSystemUsage = stats.getPreCpuStats() != null &&
-          stats.getPreCpuStats().getSystemCpuUsage() != null
-          ? stats.getPreCpuStats().getSystemCpuUsage()
-          : 0L;
-
-      long cpuDelta = totalUsage - preTotalUsage;
-      long systemDelta = systemUsage - preSystemUsage;
-
-      if (systemDelta > 0 && cpuDelta > 0) {
-        return (cpuDelta * 100) / systemDelta;
-      }
-    } catch (Exception e) {
-      log.error("Error calculating CPU usage", e);
+  private StepResult runStep(String containerId, String workingDir, String command, long deadline,
+      OutputCollector output) throws InterruptedException {
+    long start = System.currentTimeMillis();
+    ExecCreateCmdResponse exec = dockerClient.execCreateCmd(containerId)
+        .withAttachStdout(true)
+        .withAttachStderr(true)
+        .withWorkingDir(workingDir)
+        .withCmd(BIN_SH, "-c", command)
+        .exec();
+
+    dockerClient.execStartCmd(exec.getId()).exec(output);
+
+    long remaining = Math.max(0L, deadline - start);
+    if (!output.awaitCompletion(remaining, TimeUnit.MILLISECONDS)) {
+      log.warn("Execution {} timed out after {} ms", exec.getId(), remaining);
+      closeQuietly(output);
+      return new StepResult(-1, System.currentTimeMillis() - start, true);
+    }
+    if (output.limitExceeded()) {
+      // The command may still be producing output, stop it along with the container
+      log.warn("Execution {} exceeded the output limit, killing container {}", exec.getId(),
+          containerId);
+      killQuietly(containerId);
+      return new StepResult(-1, System.currentTimeMillis() - start, false);
     }
-    return 0L;
+    Long exitCode = dockerClient.inspectExecCmd(exec.getId()).exec().getExitCodeLong();
+    return new StepResult(exitCode != null ? exitCode.intValue() : -1,
+        System.currentTimeMillis() - start, false);
   }
 
+  private void recordUsage(String language, ResourceUsage usage) {
+    DistributionSummary.builder("engine.execution.memory.peak")
+        .tag("language", language)
+        .baseUnit("bytes")
+        .description("Peak resident memory of an execution")
+        .register(meterRegistry)
+        .record(usage.peakMemoryBytes());
+    Timer.builder("engine.execution.cpu")
+        .tag("language", language)
+        .description("CPU time used by an execution")
+        .register(meterRegistry)
+        .record(usage.cpuTimeNanos(), TimeUnit.NANOSECONDS);
+    Timer.builder("engine.execution.cpu.throttled")
+        .tag("language", language)
+        .description("Time an execution was throttled by its CPU limit")
+        .register(meterRegistry)
+        .record(usage.throttledTimeNanos(), TimeUnit.NANOSECONDS);
+  }
 
-  private int waitForContainer(String containerId, long timeout) {
+  private void killQuietly(String containerId) {
     try {
-      return dockerClient.waitContainerCmd(containerId)
-          .exec(new WaitContainerResultCallback())
-          .awaitStatusCode(timeout, TimeUnit.MILLISECONDS);
+      dockerClient.killContainerCmd(containerId).exec();
     } catch (Exception e) {
-      log.error("Error waiting for container", e);
-      return -1;
+      log.debug("Failed to kill container {}: {}", containerId, e.getMessage());
     }
   }
 
-  private ContainerLogs collectLogs(String containerId, long timeout) {
-    ByteArrayOutputStream stdout = new ByteArrayOutputStream();
-    ByteArrayOutputStream stderr = new ByteArrayOutputStream();
-
+  private void closeQuietly(Closeable closeable) {
     try {
-      LogContainerCmd logCmd = dockerClient.logContainerCmd(containerId)
-          .withStdOut(true)
-          .withStdErr(true)
-          .withTail(1000);
-
-      logCmd.exec(new ResultCallback.Adapter<Frame>() {
-        @Override
-        public void onNext(Frame item) {
-          if (item.getStreamType() == StreamType.STDOUT) {
-            stdout.writeBytes(item.getPayload());
-          } else if (item.getStreamType() == StreamType.STDERR) {
-            stderr.writeBytes(item.getPayload());
-          }
-        }
-      }).awaitCompletion(timeout, TimeUnit.MILLISECONDS);
-
-      return new ContainerLogs(stdout.toString(), stderr.toString());
-    } catch (Exception e) {
-      log.error("Error collecting logs", e);
-      return new ContainerLogs("", "Error collecting logs: " + e.getMessage());
+      closeable.close();
+    } catch (IOException e) {
+      log.debug("Failed to close stream: {}", e.getMessage());
     }
   }
 
-  private record ContainerLogs(String stdout, String stderr) {
+  private record StepResult(int exitCode, long durationMs, boolean timedOut) {
+
+    static final StepResult SKIPPED = new StepResult(0, 0L, false);
 
+    boolean succeeded() {
+      return exitCode == 0;
+    }
   }
 
+  private static class OutputCollector extends ResultCallback.Adapter<Frame> {
+
+    private final ExecutionOutputListener listener;
+    private final OutputBuffer stdout;
+    private final OutputBuffer stderr;
+    private volatile boolean limitExceeded;
+
+    OutputCollector(ExecutionOutputListener listener, OutputBuffer stdout, OutputBuffer stderr) {
+      this.listener = listener;
+      this.stdout = stdout;
+      this.stderr = stderr;
+    }
+
+    @Override
+    public void onNext(Frame item) {
+      OutputBuffer buffer;
+      if (item.getStreamType() == StreamType.STDOUT) {
+        buffer = stdout;
+      } else if (item.getStreamType() == StreamType.STDERR) {
+        buffer = stderr;
+      } else {
+        return;
+      }
+      byte[] kept = buffer.append(item.getPayload());
+      if (kept.length > 0) {
+        listener.onOutput(item.getStreamType(), kept);
+      }
+      if (buffer.truncated() && !limitExceeded) {
+        limitExceeded = true;
+        // Ends the wait in runStep, which then stops the command
+        onComplete();
+      }
+    }
+
+    boolean limitExceeded() {
+      return limitExceeded;
+    }
+  }
+
+  /**
+   * Outcome of an execution.
+   *
+   * @param exitCode      exit code of the failed compile step, otherwise of the test step
+   * @param stdout        standard output of both steps
+   * @param stderr        standard error of both steps
+   * @param executionTime wall clock time from checkout to the end of the tests, in milliseconds
+   * @param compileTime   time spent compiling, in milliseconds
+   * @param testTime      time spent running the tests, in milliseconds
+   * @param resources     the accounted resource usage
+   * @param phaseTimings    time spent in each lifecycle phase, in milliseconds
+   * @param compileCacheHit whether the compile step started from cached build output,
+   *                        {@code null} when the language has no compile cache
+   * @param testResults     the results read from the run's test report, {@code null} when
+   *                        there was none and the output has to be parsed
+   * @param warmSession     whether the run reused the container of an earlier run of the user
+   * @param cacheable       whether the outcome depends on the submitted code alone, with every
+   *                        dependency served from the cache
+   */
   public record ExecutionResult(int exitCode, String stdout, String stderr,
-                                long executionTime, long memoryUsed) {
+                                long executionTime, long compileTime, long testTime,
+                                ResourceUsage resources, Map<String, Long> phaseTimings,
+                                Boolean compileCacheHit, List<TestCaseResult> testResults,
+                                boolean warmSession, boolean cacheable) {
+
+    static ExecutionResult failed(String message, Map<String, Long> phaseTimings) {
+      return new ExecutionResult(-1, "", message, 0L, 0L, 0L,
+          new ResourceUsage(0L, 0L, 0L, 0L), phaseTimings, null, null, false, false);
+    }
 
+    public long memoryUsed() {
+      return resources.peakMemoryBytes() / 1024;
+    }
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,101 @@
+package com.cortex.backend.engine.internal.docker;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Tracks the phases of a single execution. Phases only move forward; leaving a phase records its
+ * duration both on the execution and as an {@code engine.execution.phase} timer.
+ */
+public class ExecutionLifecycle {
+
+  private final String language;
+  private final MeterRegistry meterRegistry;
+  private final Consumer<ExecutionPhase> phaseListener;
+  private final Map<ExecutionPhase, Long> timings = new EnumMap<>(ExecutionPhase.class);
+
+  private ExecutionPhase phase;
+  private long phaseStartedAt;
+  private boolean finished;
+
+  public ExecutionLifecycle(String language, MeterRegistry meterRegistry) {
+    this(language, meterRegistry, _ -> {
+    });
+  }
+
+  /**
+   * Creates a lifecycle that reports every phase it enters.
+   *
+   * @param language      the language of the execution
+   * @param meterRegistry the registry recording phase timers
+   * @param phaseListener called with each phase as it is entered
+   */
+  public ExecutionLifecycle(String language, MeterRegistry meterRegistry,
+      Consumer<ExecutionPhase> phaseListener) {
+    this.language = language;
+    this.meterRegistry = meterRegistry;
+    this.phaseListener = phaseListener;
+  }
+
+  /**
+   * Leaves the current phase and enters the next one.
+   *
+   * @param next the phase to enter, after the current one
+   * @throws IllegalStateException if the transition goes backwards or the execution finished
+   */
+  public synchronized void enter(ExecutionPhase next) {
+    if (finished || (phase != null && next.ordinal() <= phase.ordinal())) {
+      throw new IllegalStateException("Invalid execution phase transition: " + phase + " -> " + next);
+    }
+    leaveCurrent();
+    phase = next;
+    phaseStartedAt = System.nanoTime();
+    phaseListener.accept(next);
+  }
+
+  /**
+   * Leaves the current phase and ends the execution. Calling it again has no effect.
+   */
+  public synchronized void finish() {
+    if (!finished) {
+      leaveCurrent();
+      phase = null;
+      finished = true;
+    }
+  }
+
+  public synchronized ExecutionPhase phase() {
+    return phase;
+  }
+
+  /**
+   * Returns the time spent in each completed phase, in milliseconds.
+   *
+   * @return the timings keyed by lower case phase name, in phase order
+   */
+  public synchronized Map<String, Long> timings() {
+    Map<String, Long> result = new LinkedHashMap<>();
+    timings.forEach((key, nanos) ->
+        result.put(key.name().toLowerCase(), TimeUnit.NANOSECONDS.toMillis(nanos)));
+    return result;
+  }
+
+  private void leaveCurrent() {
+    if (phase == null) {
+      return;
+    }
+    long elapsed = System.nanoTime() - phaseStartedAt;
+    timings.put(phase, elapsed);
+    Timer.builder("engine.execution.phase")
+        .tag("phase", phase.name().toLowerCase())
+        .tag("language", language)
+        .description("Time spent in each phase of a code execution")
+        .register(meterRegistry)
+        .record(elapsed, TimeUnit.NANOSECONDS);
+  }
+}
@@ -0,0 +1,15 @@
+package com.cortex.backend.engine.internal.docker;
+
+import com.github.dockerjava.api.model.StreamType;
+
+/**
+ * Receives output frames of a running execution as they arrive.
+ */
+@FunctionalInterface
+public interface ExecutionOutputListener {
+
+  ExecutionOutputListener NONE = (_, _) -> {
+  };
+
+  void onOutput(StreamType streamType, byte[] payload);
+}
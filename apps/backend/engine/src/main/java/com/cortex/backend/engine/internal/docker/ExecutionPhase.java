@@ -0,0 +1,13 @@
+package com.cortex.backend.engine.internal.docker;
+
+/**
+ * Phases of a code execution, in the order they are entered.
+ */
+public enum ExecutionPhase {
+  ACQUIRING,
+  PROVISIONING,
+  COMPILING,
+  TESTING,
+  COLLECTING,
+  PARSING
+}
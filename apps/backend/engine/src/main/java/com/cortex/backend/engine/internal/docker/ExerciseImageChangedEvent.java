@@ -0,0 +1,11 @@
+package com.cortex.backend.engine.internal.docker;
+
+/**
+ * Published when executions of a language switch to a newly built exercise-set image.
+ *
+ * @param language the language name
+ * @param image    the image new containers are started from
+ */
+public record ExerciseImageChangedEvent(String language, String image) {
+
+}
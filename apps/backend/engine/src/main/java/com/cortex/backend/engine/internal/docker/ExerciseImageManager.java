@@ -0,0 +1,247 @@
+package com.cortex.backend.engine.internal.docker;
+
+import static com.cortex.backend.engine.internal.utils.Constants.BIOME_JSON;
+import static com.cortex.backend.engine.internal.utils.Constants.PACKAGE_JSON;
+import static com.cortex.backend.engine.internal.utils.Constants.PNPM_LOCK;
+import static com.cortex.backend.engine.internal.utils.Constants.TMP_PREFIX;
+import static com.cortex.backend.engine.internal.utils.Constants.TSCONFIG_JSON;
+import static com.cortex.backend.engine.internal.utils.Constants.VITEST_CONFIG;
+
+import com.cortex.backend.core.domain.Language;
+import com.cortex.backend.engine.internal.environment.LanguageEnvironmentSetup;
+import com.cortex.backend.engine.internal.utils.HashUtil;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.command.BuildImageResultCallback;
+import com.github.dockerjava.api.exception.NotFoundException;
+import com.github.dockerjava.api.model.Image;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the TypeScript exercise-set image: the toolchain plus the dependencies of the exercise
+ * set, installed from its lockfile. Images are tagged with a hash of the lockfile, so a sync that
+ * changes the lockfile builds a new image while runs keep using the previous one until it is
+ * ready. Until the first image is built the language's configured image is used.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ExerciseImageManager {
+
+  private static final String LANGUAGE = "typescript";
+  private static final String IMAGE_LABEL = "cortex.exercise-set";
+  private static final String LOCK_LABEL = "cortex.exercise-set.lock";
+  // The existing exercise image installs into the same directory, runs work on either
+  private static final String APP_DIR = "/app";
+  private static final List<String> CONFIG_FILES = List.of(PACKAGE_JSON, PNPM_LOCK, TSCONFIG_JSON,
+      VITEST_CONFIG, BIOME_JSON);
+
+  private final DockerClient dockerClient;
+  private final LanguageEnvironmentSetup environmentSetup;
+  private final ApplicationEventPublisher eventPublisher;
+  private final MeterRegistry meterRegistry;
+
+  private final AtomicBoolean building = new AtomicBoolean();
+  private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+  private final ExecutorService buildExecutor = Executors.newVirtualThreadPerTaskExecutor();
+  private volatile String currentImage;
+
+  @Value("${engine.images.typescript.enabled:true}")
+  private boolean enabled;
+
+  @Value("${engine.images.typescript.repository:cortex-typescript-exercises}")
+  private String repository;
+
+  @Value("${engine.images.typescript.base-image:node:20-alpine}")
+  private String baseImage;
+
+  @Value("${engine.images.typescript.build-timeout-minutes:15}")
+  private long buildTimeoutMinutes;
+
+  @Value("${github.exercises.local-path}")
+  private String exercisesRepoPath;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void resolveOnStartup() {
+    rebuildIfChanged(Path.of(exercisesRepoPath).resolve("exercises"));
+  }
+
+  /**
+   * Resolves the image to start containers of a language from.
+   *
+   * @param language the language to run
+   * @return the exercise-set image once built, the configured image otherwise
+   */
+  public String imageFor(Language language) {
+    String image = currentImage;
+    return LANGUAGE.equals(language.getName()) && image != null
+        ? image
+        : language.getDockerImage();
+  }
+
+  /**
+   * Builds the exercise-set image in the background if there is none yet for the current
+   * lockfile. An existing image for the lockfile becomes current right away. A call during a
+   * build is repeated once the build is over, so a lockfile changed meanwhile isn't missed.
+   *
+   * @param exercisesDir the {@code exercises} directory of the local repository
+   */
+  public void rebuildIfChanged(Path exercisesDir) {
+    if (!enabled) {
+      return;
+    }
+    Path setDir = exercisesDir.resolve(LANGUAGE);
+    if (!Files.isRegularFile(setDir.resolve(PNPM_LOCK))) {
+      log.debug("No {} in {}, keeping the configured TypeScript image", PNPM_LOCK, setDir);
+      return;
+    }
+
+    String hash;
+    try {
+      hash = lockHash(setDir);
+    } catch (IOException e) {
+      log.warn("Could not hash the TypeScript lockfile: {}", e.getMessage());
+      return;
+    }
+    String image = repository + ":" + hash;
+    if (image.equals(currentImage)) {
+      return;
+    }
+    if (imageExists(image)) {
+      activate(image);
+      return;
+    }
+    if (!building.compareAndSet(false, true)) {
+      rebuildRequested.set(true);
+      return;
+    }
+    buildExecutor.execute(() -> {
+      try {
+        build(setDir, image, hash);
+        activate(image);
+        removeStaleImages(image);
+      } catch (Exception e) {
+        log.error("Failed to build TypeScript exercise image {}: {}", image, e.getMessage());
+      } finally {
+        building.set(false);
+      }
+      if (rebuildRequested.getAndSet(false)) {
+        rebuildIfChanged(exercisesDir);
+      }
+    });
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    buildExecutor.shutdownNow();
+  }
+
+  private void build(Path setDir, String image, String hash) throws IOException {
+    log.info("Building TypeScript exercise image {}", image);
+    Path context = Files.createTempDirectory(TMP_PREFIX + "image-" + LANGUAGE);
+    try {
+      List<String> files = new ArrayList<>();
+      for (String file : CONFIG_FILES) {
+        if (Files.isRegularFile(setDir.resolve(file))) {
+          Files.copy(setDir.resolve(file), context.resolve(file));
+          files.add(file);
+        }
+      }
+      Files.writeString(context.resolve("Dockerfile"), dockerfile(files));
+
+      long start = System.nanoTime();
+      dockerClient.buildImageCmd(context.toFile())
+          .withTags(Set.of(image))
+          .withLabels(Map.of(IMAGE_LABEL, LANGUAGE, LOCK_LABEL, hash))
+          .withPull(true)
+          .exec(new BuildImageResultCallback())
+          .awaitImageId(buildTimeoutMinutes, TimeUnit.MINUTES);
+      Timer.builder("engine.images.build")
+          .tag("language", LANGUAGE)
+          .description("Time to build an exercise-set image")
+          .register(meterRegistry)
+          .record(Duration.ofNanos(System.nanoTime() - start));
+    } finally {
+      environmentSetup.cleanupDirectory(context);
+    }
+  }
+
+  private String dockerfile(List<String> files) {
+    return String.join("\n",
+        "FROM " + baseImage,
+        "RUN npm install -g pnpm",
+        "WORKDIR " + APP_DIR,
+        "COPY " + String.join(" ", files) + " ./",
+        "RUN pnpm install --frozen-lockfile && pnpm store prune",
+        "ENV PATH=\"" + APP_DIR + "/node_modules/.bin:${PATH}\"",
+        "");
+  }
+
+  private String lockHash(Path setDir) throws IOException {
+    StringBuilder content = new StringBuilder(baseImage);
+    for (String file : List.of(PACKAGE_JSON, PNPM_LOCK)) {
+      Path path = setDir.resolve(file);
+      if (Files.isRegularFile(path)) {
+        content.append('\0').append(file).append('\0').append(Files.readString(path));
+      }
+    }
+    return HashUtil.generateSHA256Hash(content.toString()).substring(0, 16);
+  }
+
+  private boolean imageExists(String image) {
+    try {
+      dockerClient.inspectImageCmd(image).exec();
+      return true;
+    } catch (NotFoundException e) {
+      return false;
+    } catch (Exception e) {
+      log.warn("Could not inspect image {}: {}", image, e.getMessage());
+      return false;
+    }
+  }
+
+  private void activate(String image) {
+    currentImage = image;
+    log.info("TypeScript exercises now run on {}", image);
+    eventPublisher.publishEvent(new ExerciseImageChangedEvent(LANGUAGE, image));
+  }
+
+  private void removeStaleImages(String current) {
+    List<Image> images = dockerClient.listImagesCmd()
+        .withLabelFilter(Map.of(IMAGE_LABEL, LANGUAGE))
+        .exec();
+    for (Image stale : images) {
+      String[] tags = stale.getRepoTags();
+      if (tags != null && List.of(tags).contains(current)) {
+        continue;
+      }
+      try {
+        dockerClient.removeImageCmd(stale.getId()).exec();
+        log.info("Removed stale TypeScript exercise image {}", stale.getId());
+      } catch (Exception e) {
+        // Still used by a running container, the next rebuild retries
+        log.debug("Could not remove image {}: {}", stale.getId(), e.getMessage());
+      }
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package com.cortex.backend.engine.internal.docker;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Collects one output stream of an execution up to a size limit. Output past the limit is
+ * dropped and replaced with a single truncation notice.
+ */
+final class OutputBuffer {
+
+  private static final byte[] NOTHING = new byte[0];
+
+  private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+  private final int limit;
+  private boolean truncated;
+
+  OutputBuffer(int limit) {
+    this.limit = limit;
+  }
+
+  /**
+   * Appends output while there is room for it.
+   *
+   * @param payload the output
+   * @return the part of the output that was kept, empty once the limit was reached
+   */
+  synchronized byte[] append(byte[] payload) {
+    if (truncated) {
+      return NOTHING;
+    }
+    int room = limit - bytes.size();
+    if (payload.length <= room) {
+      bytes.writeBytes(payload);
+      return payload;
+    }
+    byte[] kept = Arrays.copyOf(payload, Math.max(room, 0));
+    bytes.writeBytes(kept);
+    bytes.writeBytes(String.format("%n... output truncated at %d bytes%n", limit)
+        .getBytes(StandardCharsets.UTF_8));
+    truncated = true;
+    return kept;
+  }
+
+  /**
+   * Appends an engine message regardless of the limit.
+   */
+  synchronized void appendNotice(String notice) {
+    bytes.writeBytes(notice.getBytes(StandardCharsets.UTF_8));
+  }
+
+  synchronized boolean truncated() {
+    return truncated;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return bytes.toString(StandardCharsets.UTF_8);
+  }
+}
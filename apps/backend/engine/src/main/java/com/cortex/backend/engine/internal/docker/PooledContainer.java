@@ -0,0 +1,20 @@
+package com.cortex.backend.engine.internal.docker;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * An idle, already started container handed out by the {@link ContainerPool}.
+ *
+ * @param id           the Docker container id
+ * @param language     the language the container was created for
+ * @param hostDir      the host directory owned by this container, {@code null} when workspaces
+ *                     are streamed into the container
+ * @param workspaceDir the host directory bind-mounted as the container workspace, {@code null}
+ *                     when workspaces are streamed into the container
+ * @param createdAt    when the container was created
+ */
+public record PooledContainer(String id, String language, Path hostDir, Path workspaceDir,
+                              Instant createdAt) {
+
+}
@@ -0,0 +1,110 @@
+package com.cortex.backend.engine.internal.docker;
+
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.model.CpuStatsConfig;
+import com.github.dockerjava.api.model.MemoryStatsConfig;
+import com.github.dockerjava.api.model.Statistics;
+import com.github.dockerjava.api.model.ThrottlingDataConfig;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Follows the stats stream of a container for as long as it is checked out and accounts the
+ * resources used since the first sample: peak resident memory, CPU time and CFS throttling.
+ * Counters are cumulative in the kernel, so values are reported as the difference between the
+ * latest sample and the first one.
+ */
+@Slf4j
+class ResourceAccountant extends ResultCallback.Adapter<Statistics> {
+
+  private final CountDownLatch firstSample = new CountDownLatch(1);
+
+  private long peakMemoryBytes;
+  private Long baselineCpuNanos;
+  private long latestCpuNanos;
+  private long baselineThrottledPeriods;
+  private long latestThrottledPeriods;
+  private long baselineThrottledNanos;
+  private long latestThrottledNanos;
+
+  @Override
+  public void onNext(Statistics stats) {
+    if (stats == null) {
+      return;
+    }
+    synchronized (this) {
+      recordMemory(stats.getMemoryStats());
+      recordCpu(stats.getCpuStats());
+    }
+    firstSample.countDown();
+  }
+
+  @Override
+  public void onError(Throwable throwable) {
+    log.debug("Container stats stream failed: {}", throwable.getMessage());
+    firstSample.countDown();
+    super.onError(throwable);
+  }
+
+  /**
+   * Returns the resources used so far. Executions shorter than the stats interval may end before
+   * the first sample; in that case waits up to {@code graceMillis} for it to arrive.
+   *
+   * @param graceMillis the longest time to wait for a first sample
+   * @return the accounted usage
+   */
+  ResourceUsage snapshot(long graceMillis) {
+    try {
+      if (!firstSample.await(graceMillis, TimeUnit.MILLISECONDS)) {
+        log.debug("No container stats sample within {} ms", graceMillis);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    synchronized (this) {
+      return new ResourceUsage(
+          peakMemoryBytes,
+          baselineCpuNanos != null ? latestCpuNanos - baselineCpuNanos : 0L,
+          latestThrottledPeriods - baselineThrottledPeriods,
+          latestThrottledNanos - baselineThrottledNanos
+      );
+    }
+  }
+
+  private void recordMemory(MemoryStatsConfig memoryStats) {
+    if (memoryStats == null || memoryStats.getUsage() == null) {
+      return;
+    }
+    // Same as `docker stats`: page cache is reclaimable and not part of the working set
+    Long reclaimable = null;
+    if (memoryStats.getStats() != null) {
+      reclaimable = memoryStats.getStats().getInactiveFile() != null
+          ? memoryStats.getStats().getInactiveFile()
+          : memoryStats.getStats().getCache();
+    }
+    long resident = memoryStats.getUsage() - (reclaimable != null ? reclaimable : 0L);
+    peakMemoryBytes = Math.max(peakMemoryBytes, resident);
+  }
+
+  private void recordCpu(CpuStatsConfig cpuStats) {
+    if (cpuStats == null || cpuStats.getCpuUsage() == null
+        || cpuStats.getCpuUsage().getTotalUsage() == null) {
+      return;
+    }
+    ThrottlingDataConfig throttling = cpuStats.getThrottlingData();
+    long throttledPeriods = throttling != null && throttling.getThrottledPeriods() != null
+        ? throttling.getThrottledPeriods() : 0L;
+    long throttledNanos = throttling != null && throttling.getThrottledTime() != null
+        ? throttling.getThrottledTime() : 0L;
+
+    if (baselineCpuNanos == null) {
+      baselineCpuNanos = cpuStats.getCpuUsage().getTotalUsage();
+      baselineThrottledPeriods = throttledPeriods;
+      baselineThrottledNanos = throttledNanos;
+    }
+    latestCpuNanos = cpuStats.getCpuUsage().getTotalUsage();
+    latestThrottledPeriods = throttledPeriods;
+    latestThrottledNanos = throttledNanos;
+  }
+}
@@ -0,0 +1,14 @@
+package com.cortex.backend.engine.internal.docker;
+
+/**
+ * Resources used by an execution, as accounted by {@link ResourceAccountant}.
+ *
+ * @param peakMemoryBytes      peak resident memory
+ * @param cpuTimeNanos         CPU time used by all processes of the container
+ * @param throttledPeriods     CFS periods in which the container was throttled
+ * @param throttledTimeNanos   total time the container was throttled
+ */
+public record ResourceUsage(long peakMemoryBytes, long cpuTimeNanos, long throttledPeriods,
+                            long throttledTimeNanos) {
+
+}
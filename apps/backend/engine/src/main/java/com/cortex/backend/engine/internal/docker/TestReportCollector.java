@@ -0,0 +1,98 @@
+package com.cortex.backend.engine.internal.docker;
+
+import com.cortex.backend.engine.api.dto.TestCaseResult;
+import com.cortex.backend.engine.internal.parser.TestReport;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.exception.NotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads the structured test report a run left in its container, streaming it out of the
+ * container and through the report parser without buffering the file. Runs without a readable
+ * report fall back to parsing their output.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TestReportCollector {
+
+  private final DockerClient dockerClient;
+  private final MeterRegistry meterRegistry;
+
+  @Value("${engine.reports.enabled:true}")
+  private boolean enabled;
+
+  @Value("${engine.reports.max-file-bytes:16777216}")
+  private long maxFileBytes;
+
+  /**
+   * Prefixes a test command with the removal of the report of an earlier run in the same
+   * container, so a run that writes no report is never credited with an old one.
+   *
+   * @param language the language name
+   * @param command  the test command
+   * @return the command to run
+   */
+  public String withCleanReport(String language, String command) {
+    if (!enabled) {
+      return command;
+    }
+    return TestReport.forLanguage(language)
+        .map(report -> "rm -rf '" + report.locationIn(".") + "'; " + command)
+        .orElse(command);
+  }
+
+  /**
+   * Reads the test results from the report of the last run in a container.
+   *
+   * @param containerId the container, still alive
+   * @param workingDir  the project root inside the container
+   * @param language    the language name
+   * @return the results, empty when there is no readable report
+   */
+  public Optional<List<TestCaseResult>> collect(String containerId, String workingDir,
+      String language) {
+    Optional<TestReport> report = TestReport.forLanguage(language);
+    if (!enabled || report.isEmpty()) {
+      return Optional.empty();
+    }
+
+    String location = report.get().locationIn(workingDir);
+    long start = System.nanoTime();
+    String outcome = "read";
+    try (InputStream archive = dockerClient.copyArchiveFromContainerCmd(containerId, location)
+        .exec()) {
+      List<TestCaseResult> results = report.get().read(archive, maxFileBytes);
+      if (results.isEmpty()) {
+        outcome = "empty";
+        return Optional.empty();
+      }
+      return Optional.of(results);
+    } catch (NotFoundException e) {
+      outcome = "missing";
+      return Optional.empty();
+    } catch (IOException | RuntimeException e) {
+      outcome = "invalid";
+      log.debug("Could not read test report {} of container {}: {}", location, containerId,
+          e.getMessage());
+      return Optional.empty();
+    } finally {
+      Timer.builder("engine.reports.read")
+          .tag("language", language)
+          .tag("outcome", outcome)
+          .description("Time to read a test report out of the container, by outcome")
+          .register(meterRegistry)
+          .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+}
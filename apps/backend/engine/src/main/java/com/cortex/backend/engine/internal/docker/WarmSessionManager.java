@@ -0,0 +1,297 @@
+package com.cortex.backend.engine.internal.docker;
+
+import com.cortex.backend.core.domain.Language;
+import com.cortex.backend.engine.internal.bundle.ExerciseBundle;
+import com.cortex.backend.engine.internal.bundle.ExerciseBundlePublishedEvent;
+import com.cortex.backend.engine.internal.scheduling.ResourceBudget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the container of a user's last run of an exercise alive for a short idle window, with
+ * its workspace, build output and caches intact. A later submission of the same user for the same
+ * exercise revision puts the template files back, swaps the main file and runs again. Results of
+ * such runs are never shared with other users. Sessions are capped by count, per
+ * user and by the memory limits of their containers, and the least recently used idle session is
+ * evicted when a new one doesn't fit. Idle sessions hold their memory in the {@link ResourceBudget}
+ * and are closed when an execution needs it.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class WarmSessionManager {
+
+  private final ContainerPool containerPool;
+  private final ResourceBudget resourceBudget;
+  private final MeterRegistry meterRegistry;
+
+  // Access ordered, so iteration starts at the least recently used session
+  private final Map<SessionKey, WarmSession> sessions = new LinkedHashMap<>(16, 0.75f, true);
+  private long reservedMemoryBytes;
+
+  @Value("${engine.sessions.enabled:false}")
+  private boolean enabled;
+
+  @Value("${engine.sessions.idle-ms:300000}")
+  private long idleMs;
+
+  @Value("${engine.sessions.max-sessions:16}")
+  private int maxSessions;
+
+  @Value("${engine.sessions.max-per-user:2}")
+  private int maxPerUser;
+
+  @Value("${engine.sessions.max-memory-mb:4096}")
+  private long maxMemoryMb;
+
+  @PostConstruct
+  void init() {
+    resourceBudget.registerReclaimer(this::reclaimIdle);
+    Gauge.builder("engine.sessions.active", this, manager -> manager.size())
+        .description("Warm session containers kept alive")
+        .register(meterRegistry);
+    Gauge.builder("engine.sessions.memory", this, manager -> manager.reservedMemory())
+        .baseUnit("bytes")
+        .description("Memory limits of the warm session containers")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Checks out the warm session of a user for an exercise, if there is an idle one for the
+   * bundle revision. A session of an older revision is closed.
+   *
+   * @param userId   the submitting user, {@code null} for legacy tasks
+   * @param bundle   the exercise bundle to run against
+   * @param language the language name
+   * @return the session, to be handed back with {@link #checkin}
+   */
+  public synchronized Optional<WarmSession> checkout(Long userId, ExerciseBundle bundle,
+      String language) {
+    if (!enabled || userId == null) {
+      return Optional.empty();
+    }
+    SessionKey key = new SessionKey(userId, bundle.manifest().githubPath(), language);
+    WarmSession session = sessions.get(key);
+    if (session == null || session.busy) {
+      checkouts("miss").increment();
+      return Optional.empty();
+    }
+    if (!session.revision.equals(bundle.revision())) {
+      checkouts("stale").increment();
+      close(key, "revision");
+      return Optional.empty();
+    }
+    checkouts("hit").increment();
+    session.busy = true;
+    // The run reserves the container limits itself
+    session.releaseReservation();
+    return Optional.of(session);
+  }
+
+  /**
+   * Hands back a session after a run.
+   *
+   * @param session  the session from {@link #checkout}
+   * @param reusable whether the container is still fit for another run; closes it otherwise
+   */
+  public synchronized void checkin(WarmSession session, boolean reusable) {
+    session.busy = false;
+    session.lastUsedAt = System.currentTimeMillis();
+    if (sessions.get(session.key) != session) {
+      return;
+    }
+    if (!reusable) {
+      close(session.key, "failed");
+      return;
+    }
+    session.reservation = resourceBudget.tryRetain(session.memoryBytes).orElse(null);
+    if (session.reservation == null) {
+      close(session.key, "budget");
+    }
+  }
+
+  /**
+   * Keeps the container of a finished run alive as the warm session of the user for the
+   * exercise, evicting idle sessions to make room.
+   *
+   * @param userId     the submitting user, {@code null} for legacy tasks
+   * @param bundle     the exercise bundle the container ran
+   * @param language   the language of the container
+   * @param container  the container to keep
+   * @param workingDir the project root inside the container
+   * @return {@code true} if the session now owns the container, {@code false} if the caller must
+   * release it
+   */
+  public synchronized boolean retain(Long userId, ExerciseBundle bundle, Language language,
+      PooledContainer container, String workingDir) {
+    if (!enabled || userId == null) {
+      return false;
+    }
+    SessionKey key = new SessionKey(userId, bundle.manifest().githubPath(), language.getName());
+    long memory = language.getDefaultMemoryLimit();
+    if (sessions.containsKey(key) || memory > maxMemoryMb * 1024 * 1024) {
+      return false;
+    }
+    if (!makeRoom(userId, memory)) {
+      log.debug("No room for a warm session of user {} on {}", userId, key.githubPath());
+      return false;
+    }
+    Optional<ResourceBudget.Reservation> reservation = resourceBudget.tryRetain(memory);
+    if (reservation.isEmpty()) {
+      log.debug("No execution budget left for a warm session of user {}", userId);
+      return false;
+    }
+    WarmSession session = new WarmSession(key, container, bundle.revision(), workingDir, memory);
+    session.reservation = reservation.get();
+    sessions.put(key, session);
+    reservedMemoryBytes += memory;
+    log.debug("Keeping container {} warm for user {} on {}", container.id(), userId,
+        key.githubPath());
+    return true;
+  }
+
+  @Scheduled(fixedDelayString = "${engine.sessions.reap-interval-ms:30000}")
+  public synchronized void reapIdle() {
+    long cutoff = System.currentTimeMillis() - idleMs;
+    idleSessions(session -> session.lastUsedAt < cutoff).forEach(key -> close(key, "idle"));
+  }
+
+  @EventListener
+  public synchronized void onBundlePublished(ExerciseBundlePublishedEvent event) {
+    idleSessions(session -> session.key.githubPath().equals(event.githubPath()))
+        .forEach(key -> close(key, "revision"));
+  }
+
+  private synchronized void reclaimIdle() {
+    List<SessionKey> idle = idleSessions(_ -> true);
+    if (!idle.isEmpty()) {
+      close(idle.getFirst(), "budget");
+    }
+  }
+
+  @PreDestroy
+  public synchronized void shutdown() {
+    new ArrayList<>(sessions.keySet()).forEach(key -> close(key, "shutdown"));
+  }
+
+  private boolean makeRoom(Long userId, long memory) {
+    long maxMemoryBytes = maxMemoryMb * 1024 * 1024;
+    while (countFor(userId) >= maxPerUser) {
+      List<SessionKey> own = idleSessions(session -> session.key.userId().equals(userId));
+      if (own.isEmpty()) {
+        return false;
+      }
+      close(own.getFirst(), "capacity");
+    }
+    while (sessions.size() >= maxSessions || reservedMemoryBytes + memory > maxMemoryBytes) {
+      List<SessionKey> idle = idleSessions(_ -> true);
+      if (idle.isEmpty()) {
+        return false;
+      }
+      close(idle.getFirst(), "capacity");
+    }
+    return true;
+  }
+
+  private long countFor(Long userId) {
+    return sessions.keySet().stream().filter(key -> key.userId().equals(userId)).count();
+  }
+
+  private List<SessionKey> idleSessions(Predicate<WarmSession> filter) {
+    List<SessionKey> keys = new ArrayList<>();
+    sessions.values().forEach(session -> {
+      if (!session.busy && filter.test(session)) {
+        keys.add(session.key);
+      }
+    });
+    return keys;
+  }
+
+  private void close(SessionKey key, String reason) {
+    WarmSession session = sessions.remove(key);
+    if (session == null) {
+      return;
+    }
+    reservedMemoryBytes -= session.memoryBytes;
+    session.releaseReservation();
+    Counter.builder("engine.sessions.closed")
+        .tag("reason", reason)
+        .description("Warm sessions closed, by reason")
+        .register(meterRegistry)
+        .increment();
+    containerPool.release(session.container);
+  }
+
+  private synchronized int size() {
+    return sessions.size();
+  }
+
+  private synchronized long reservedMemory() {
+    return reservedMemoryBytes;
+  }
+
+  private Counter checkouts(String result) {
+    return Counter.builder("engine.sessions.checkouts")
+        .tag("result", result)
+        .description("Submissions that found a warm session, or none")
+        .register(meterRegistry);
+  }
+
+  private record SessionKey(Long userId, String githubPath, String language) {
+
+  }
+
+  /**
+   * A container kept alive between runs of one user on one exercise revision.
+   */
+  public static final class WarmSession {
+
+    private final SessionKey key;
+    private final PooledContainer container;
+    private final String revision;
+    private final String workingDir;
+    private final long memoryBytes;
+    private boolean busy;
+    private long lastUsedAt = System.currentTimeMillis();
+    private ResourceBudget.Reservation reservation;
+
+    private WarmSession(SessionKey key, PooledContainer container, String revision,
+        String workingDir, long memoryBytes) {
+      this.key = key;
+      this.container = container;
+      this.revision = revision;
+      this.workingDir = workingDir;
+      this.memoryBytes = memoryBytes;
+    }
+
+    public PooledContainer container() {
+      return container;
+    }
+
+    public String workingDir() {
+      return workingDir;
+    }
+
+    private void releaseReservation() {
+      if (reservation != null) {
+        reservation.close();
+        reservation = null;
+      }
+    }
+  }
+}
@@ -0,0 +1,137 @@
+package com.cortex.backend.engine.internal.docker;
+
+import static com.cortex.backend.engine.internal.utils.Constants.CONTAINER_WORKING_DIR;
+
+import com.cortex.backend.engine.internal.bundle.ExerciseBundle;
+import com.github.dockerjava.api.DockerClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.springframework.stereotype.Component;
+
+/**
+ * Streams a workspace into a container through the Docker archive API, so the backend and the
+ * Docker daemon don't need to share a filesystem. The archive is assembled in memory from the
+ * exercise bundle archive, with the main file replaced by the submitted code.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class WorkspaceArchiver {
+
+  private static final int MAIN_FILE_MODE = 0644;
+
+  private final DockerClient dockerClient;
+  private final MeterRegistry meterRegistry;
+
+  /**
+   * Copies the workspace for a bundle into the container workspace directory.
+   *
+   * @param containerId the target container
+   * @param bundle      the exercise bundle
+   * @param decodedCode the submitted code
+   * @return the project root inside the container
+   * @throws IOException if the bundle archive cannot be read
+   */
+  public String copyWorkspace(String containerId, ExerciseBundle bundle, String decodedCode)
+      throws IOException {
+    long start = System.nanoTime();
+    byte[] archive = buildArchive(bundle, decodedCode);
+
+    try (InputStream input = new ByteArrayInputStream(archive)) {
+      dockerClient.copyArchiveToContainerCmd(containerId)
+          .withTarInputStream(input)
+          .withRemotePath(CONTAINER_WORKING_DIR)
+          .exec();
+    }
+
+    Timer.builder("engine.workspace.materialize")
+        .tag("mode", "archive")
+        .description("Time to materialize an execution workspace from its template")
+        .register(meterRegistry)
+        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    log.debug("Copied {} byte workspace archive into container {}", archive.length, containerId);
+
+    String projectRoot = bundle.manifest().projectRoot();
+    return projectRoot.isEmpty()
+        ? CONTAINER_WORKING_DIR
+        : CONTAINER_WORKING_DIR + "/" + projectRoot;
+  }
+
+  /**
+   * Copies every file of the bundle over a workspace already copied into the container, so
+   * files a previous run rewrote are back to the template. Build output is left in place, but
+   * the restored files are stamped with the current time so the toolchain rebuilds from them.
+   *
+   * @param containerId the container holding the workspace
+   * @param bundle      the exercise bundle the workspace was built from
+   * @param decodedCode the submitted code
+   * @throws IOException if the bundle archive cannot be read
+   */
+  public void restoreWorkspace(String containerId, ExerciseBundle bundle, String decodedCode)
+      throws IOException {
+    byte[] archive = buildArchive(bundle, decodedCode, new Date());
+    try (InputStream input = new ByteArrayInputStream(archive)) {
+      dockerClient.copyArchiveToContainerCmd(containerId)
+          .withTarInputStream(input)
+          .withRemotePath(CONTAINER_WORKING_DIR)
+          .exec();
+    }
+  }
+
+  private byte[] buildArchive(ExerciseBundle bundle, String decodedCode) throws IOException {
+    return buildArchive(bundle, decodedCode, null);
+  }
+
+  private byte[] buildArchive(ExerciseBundle bundle, String decodedCode, Date modTime)
+      throws IOException {
+    String mainFile = bundle.manifest().mainFile();
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream(
+        (int) Math.min(Integer.MAX_VALUE, Files.size(bundle.archive()) + decodedCode.length()));
+
+    try (InputStream source = Files.newInputStream(bundle.archive());
+        TarArchiveInputStream in = new TarArchiveInputStream(source);
+        TarArchiveOutputStream out = new TarArchiveOutputStream(buffer)) {
+      out.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+
+      TarArchiveEntry entry;
+      while ((entry = in.getNextTarEntry()) != null) {
+        if (entry.getName().equals(mainFile)) {
+          continue;
+        }
+        if (modTime != null) {
+          entry.setModTime(modTime);
+        }
+        out.putArchiveEntry(entry);
+        in.transferTo(out);
+        out.closeArchiveEntry();
+      }
+
+      writeMainFile(out, mainFile, decodedCode);
+    }
+    return buffer.toByteArray();
+  }
+
+  private void writeMainFile(TarArchiveOutputStream out, String mainFile, String decodedCode)
+      throws IOException {
+    byte[] code = decodedCode.getBytes(StandardCharsets.UTF_8);
+    TarArchiveEntry mainEntry = new TarArchiveEntry(mainFile);
+    mainEntry.setSize(code.length);
+    mainEntry.setMode(MAIN_FILE_MODE);
+    out.putArchiveEntry(mainEntry);
+    out.write(code);
+    out.closeArchiveEntry();
+  }
+}
@@ -26,40 +26,41 @@ public class LanguageEnvironmentSetup {
 
   }
 
-  public WorkspaceSetup setupWorkspace(Path tempDir, Path exercisePath, String decodedCode, Language language)
+  /**
+   * Prepares an exercise template: copies the exercise, adds the language specific configuration
+   * and locates the project root and the main file once, so workspaces can be materialized from
+   * it without walking the tree again.
+   *
+   * @param exercisePath the exercise directory in the local repository
+   * @param templateDir  an empty directory to build the template in
+   * @param language     the exercise language
+   * @return the prepared template
+   * @throws IOException if the exercise cannot be copied or is missing required files
+   */
+  public WorkspaceTemplate prepareTemplate(Path exercisePath, Path templateDir, Language language)
       throws IOException {
-    // Crear y configurar el directorio de trabajo
-    Path workspaceDir = tempDir.resolve("workspace");
-    Files.createDirectories(workspaceDir);
+    log.info("Preparing workspace template for {} at {}", exercisePath, templateDir);
 
-    log.info("Setting up workspace at: {}", workspaceDir);
-    log.info("Copying from exercise path: {}", exercisePath);
-
-    // Copy exercise files
-    copyDirectoryStructure(exercisePath, workspaceDir);
-
-    // Verificar que los archivos se copiaron
-    try (Stream<Path> paths = Files.walk(workspaceDir)) {
-      log.info("Files in workspace after copy:");
-      paths.forEach(p -> log.info("  {}", p));
-    }
+    copyDirectoryStructure(exercisePath, templateDir);
 
     // Configuración específica por lenguaje y obtener el directorio raíz del proyecto
     Path projectRoot = switch (language.getName()) {
-      case "java" -> setupJavaEnvironment(workspaceDir);
-      case "typescript" -> setupTypeScriptEnvironment(exercisePath, workspaceDir);
-      case "rust" -> setupRustEnvironment(workspaceDir);
-      case "go" -> setupGoEnvironment(workspaceDir);
-      default -> workspaceDir;
+      case "java" -> setupJavaEnvironment(templateDir);
+      case "typescript" -> setupTypeScriptEnvironment(exercisePath, templateDir);
+      case "rust" -> setupRustEnvironment(templateDir);
+      case "go" -> setupGoEnvironment(templateDir);
+      default -> templateDir;
     };
 
-    // Escribir el código en el archivo principal
-    updateMainFile(workspaceDir, decodedCode, language);
+    Path mainFile = findMainFile(templateDir, language);
+    if (mainFile == null) {
+      throw new IOException("Could not find main file for " + language.getName());
+    }
 
-    return new WorkspaceSetup(workspaceDir, projectRoot);
+    return WorkspaceTemplate.scan(templateDir, projectRoot, mainFile);
   }
 
-  private void copyDirectoryStructure(Path source, Path target) throws IOException {
+  public void copyDirectoryStructure(Path source, Path target) throws IOException {
     log.info("Copying directory structure from {} to {}", source, target);
 
     Files.walkFileTree(source, new SimpleFileVisitor<>() {
@@ -96,7 +97,7 @@ public class LanguageEnvironmentSetup {
       throw new IOException("Failed to create target directory: " + target);
     }
 
-    try (Stream<Path> paths = Files.walk(target)) {
+    try (Stream<Path> paths = Files.list(target)) {
       if (paths.findAny().isEmpty()) {
         throw new IOException("Target directory is empty after copy: " + target);
       }
@@ -142,12 +143,14 @@ public class LanguageEnvironmentSetup {
     }
   }
 
-  private void updateMainFile(Path workspaceDir, String decodedCode, Language language)
-      throws IOException {
-    Path mainFile = findMainFile(workspaceDir, language);
-    if (mainFile == null) {
-      throw new IOException("Could not find main file for " + language.getName());
-    }
+  /**
+   * Writes the submitted code as a private file of the workspace.
+   *
+   * @param mainFile    the main file path inside the workspace
+   * @param decodedCode the submitted code
+   * @throws IOException if the file cannot be written
+   */
+  public void writeMainFile(Path mainFile, String decodedCode) throws IOException {
     Files.writeString(mainFile, decodedCode, StandardCharsets.UTF_8);
     Files.setPosixFilePermissions(mainFile,
         PosixFilePermissions.fromString("rw-r--r--"));
@@ -175,10 +178,10 @@ public class LanguageEnvironmentSetup {
   }
 
   private Path setupTypeScriptEnvironment(Path originalPath, Path workspaceDir) throws IOException {
-    // Copiar archivos de configuración del directorio raíz de TypeScript
+    // Copiar archivos de configuración del directorio raíz de TypeScript. Las dependencias
+    // vienen instaladas en la imagen, así que el lockfile no hace falta
     Path tsRoot = originalPath.getParent().getParent();
     copyConfigFile(tsRoot, workspaceDir, PACKAGE_JSON);
-    copyConfigFile(tsRoot, workspaceDir, PNPM_LOCK);
     copyConfigFile(tsRoot, workspaceDir, TSCONFIG_JSON);
     copyConfigFile(tsRoot, workspaceDir, VITEST_CONFIG);
     copyConfigFile(tsRoot, workspaceDir, BIOME_JSON);
@@ -217,19 +220,18 @@ public class LanguageEnvironmentSetup {
   }
 
   public void cleanupDirectory(Path directory) {
-     log.info("Cleaning up directory: {}", directory);
-//    try {
-//      Files.walk(directory)
-//          .sorted(Comparator.reverseOrder())
-//          .forEach(path -> {
-//            try {
-//              Files.deleteIfExists(path);
-//            } catch (IOException e) {
-//              log.warn("Failed to delete {}: {}", path, e.getMessage());
-//            }
-//          });
-//    } catch (IOException e) {
-//      log.error("Error cleaning up directory {}", directory, e);
-//    }
+    log.info("Cleaning up directory: {}", directory);
+    try (Stream<Path> paths = Files.walk(directory)) {
+      paths.sorted(Comparator.reverseOrder())
+          .forEach(path -> {
+            try {
+              Files.deleteIfExists(path);
+            } catch (IOException e) {
+              log.warn("Failed to delete {}: {}", path, e.getMessage());
+            }
+          });
+    } catch (IOException e) {
+      log.error("Error cleaning up directory {}", directory, e);
+    }
   }
 }
\ No newline at end of file
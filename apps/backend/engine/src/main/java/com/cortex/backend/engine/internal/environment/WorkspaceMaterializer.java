@@ -0,0 +1,95 @@
+package com.cortex.backend.engine.internal.environment;
+
+import com.cortex.backend.engine.internal.environment.LanguageEnvironmentSetup.WorkspaceSetup;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds execution workspaces from {@link WorkspaceTemplate templates}. Each workspace recreates
+ * the directory skeleton, copies the template files and writes the submitted code as its own
+ * file. Hard linking the template files instead is opt-in: the workspace is mounted writable, so
+ * a container running as root could rewrite the shared template through the links.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class WorkspaceMaterializer {
+
+  private static final String MODE_HARDLINK = "hardlink";
+  private static final String MODE_COPY = "copy";
+
+  private final LanguageEnvironmentSetup environmentSetup;
+  private final MeterRegistry meterRegistry;
+
+  @Value("${engine.workspace.materialization:copy}")
+  private String mode;
+
+  private volatile boolean linksSupported = true;
+
+  /**
+   * Materializes a workspace from a template and writes the submitted code into it.
+   *
+   * @param workspaceDir an empty workspace directory
+   * @param template     the exercise template
+   * @param decodedCode  the submitted code
+   * @return the workspace and its project root
+   * @throws IOException if the workspace cannot be written
+   */
+  public WorkspaceSetup materialize(Path workspaceDir, WorkspaceTemplate template,
+      String decodedCode) throws IOException {
+    boolean linked = MODE_HARDLINK.equals(mode) && linksSupported;
+    long start = System.nanoTime();
+    if (linked) {
+      try {
+        template.linkInto(workspaceDir);
+      } catch (FileSystemException e) {
+        log.warn("Hard links not supported between {} and {}, falling back to copies: {}",
+            template.root(), workspaceDir, e.getMessage());
+        linksSupported = false;
+        linked = false;
+        deleteTree(workspaceDir);
+        Files.createDirectories(workspaceDir);
+        template.copyInto(workspaceDir);
+      }
+    } else {
+      template.copyInto(workspaceDir);
+    }
+    environmentSetup.writeMainFile(workspaceDir.resolve(template.mainFile()), decodedCode);
+
+    Timer.builder("engine.workspace.materialize")
+        .tag("mode", linked ? MODE_HARDLINK : MODE_COPY)
+        .description("Time to materialize an execution workspace from its template")
+        .register(meterRegistry)
+        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+    return new WorkspaceSetup(workspaceDir, workspaceDir.resolve(template.projectRoot()));
+  }
+
+  private void deleteTree(Path directory) {
+    if (!Files.exists(directory)) {
+      return;
+    }
+    try (Stream<Path> paths = Files.walk(directory)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+        try {
+          Files.deleteIfExists(path);
+        } catch (IOException e) {
+          log.warn("Failed to delete {}: {}", path, e.getMessage());
+        }
+      });
+    } catch (IOException e) {
+      log.warn("Failed to delete template {}: {}", directory, e.getMessage());
+    }
+  }
+}
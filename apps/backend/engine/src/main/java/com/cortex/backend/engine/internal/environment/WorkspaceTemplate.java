@@ -0,0 +1,123 @@
+package com.cortex.backend.engine.internal.environment;
+
+import static com.cortex.backend.engine.internal.utils.Constants.CARGO_LOCK;
+import static com.cortex.backend.engine.internal.utils.Constants.GO_SUM;
+import static com.cortex.backend.engine.internal.utils.Constants.PACKAGE_JSON;
+import static com.cortex.backend.engine.internal.utils.Constants.PNPM_LOCK;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * An immutable, fully prepared copy of an exercise that workspaces are materialized from.
+ * Directories are always created fresh so files added by a run never reach the template, and
+ * files that toolchains rewrite in place are always copied instead of linked.
+ *
+ * @param root        the template directory
+ * @param projectRoot the project root, relative to {@code root}
+ * @param mainFile    the file replaced by the submitted code, relative to {@code root}
+ * @param directories every directory, relative to {@code root}, parents first
+ * @param files       every regular file except the main file, relative to {@code root}
+ */
+public record WorkspaceTemplate(Path root, Path projectRoot, Path mainFile, List<Path> directories,
+                                List<Path> files) {
+
+  private static final Set<String> PRIVATE_FILES = Set.of(PACKAGE_JSON, PNPM_LOCK, CARGO_LOCK,
+      GO_SUM);
+
+  /**
+   * Indexes a prepared template directory.
+   *
+   * @param root        the template directory
+   * @param projectRoot the absolute project root inside {@code root}
+   * @param mainFile    the absolute main file path inside {@code root}
+   * @return the template
+   * @throws IOException if the directory cannot be walked
+   */
+  public static WorkspaceTemplate scan(Path root, Path projectRoot, Path mainFile)
+      throws IOException {
+    List<Path> directories = new ArrayList<>();
+    List<Path> files = new ArrayList<>();
+    try (Stream<Path> paths = Files.walk(root)) {
+      paths.filter(path -> !path.equals(root)).forEach(path -> {
+        if (Files.isDirectory(path)) {
+          directories.add(root.relativize(path));
+        } else if (Files.isRegularFile(path) && !path.equals(mainFile)) {
+          files.add(root.relativize(path));
+        }
+      });
+    }
+    return new WorkspaceTemplate(root, root.relativize(projectRoot), root.relativize(mainFile),
+        List.copyOf(directories), List.copyOf(files));
+  }
+
+  /**
+   * Materializes the template by hard linking its files into {@code target}. The links share
+   * their inode with the template, so the workspace must not be writable by the runs: the
+   * template files are made read-only, which only holds for non-root users.
+   *
+   * @param target an empty workspace directory on the same file store as the template
+   * @throws IOException if a link cannot be created, e.g. across file stores
+   */
+  public void linkInto(Path target) throws IOException {
+    createDirectories(target);
+    for (Path file : files) {
+      if (PRIVATE_FILES.contains(file.getFileName().toString())) {
+        Files.copy(root.resolve(file), target.resolve(file));
+      } else {
+        root.resolve(file).toFile().setWritable(false, false);
+        Files.createLink(target.resolve(file), root.resolve(file));
+      }
+    }
+  }
+
+  /**
+   * Materializes the template by copying its files into {@code target}. Modification times are
+   * kept, so cached build output of unchanged sources stays current.
+   *
+   * @param target an empty workspace directory
+   * @throws IOException if a file cannot be copied
+   */
+  public void copyInto(Path target) throws IOException {
+    createDirectories(target);
+    for (Path file : files) {
+      Files.copy(root.resolve(file), target.resolve(file), StandardCopyOption.COPY_ATTRIBUTES);
+    }
+  }
+
+  /**
+   * Copies the template files over a workspace a previous run used, so files the run rewrote
+   * are back to the template. The copies get the current modification time, so toolchains
+   * rebuild whatever output the run may have left for them. Directories that were replaced by
+   * anything else, links included, fail the restore rather than being written through.
+   *
+   * @param target a workspace materialized from this template
+   * @throws IOException if a file cannot be copied or a directory is not one
+   */
+  public void restoreInto(Path target) throws IOException {
+    for (Path directory : directories) {
+      Path path = target.resolve(directory);
+      if (Files.notExists(path, LinkOption.NOFOLLOW_LINKS)) {
+        Files.createDirectory(path);
+      } else if (!Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+        throw new IOException("Workspace directory was replaced: " + directory);
+      }
+    }
+    for (Path file : files) {
+      Files.copy(root.resolve(file), target.resolve(file), StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  private void createDirectories(Path target) throws IOException {
+    for (Path directory : directories) {
+      Files.createDirectories(target.resolve(directory));
+    }
+  }
+}
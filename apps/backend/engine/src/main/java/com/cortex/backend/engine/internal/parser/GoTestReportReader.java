@@ -0,0 +1,60 @@
+package com.cortex.backend.engine.internal.parser;
+
+import static com.cortex.backend.engine.internal.parser.ReportedTests.FAILED;
+import static com.cortex.backend.engine.internal.parser.ReportedTests.PASSED;
+import static com.cortex.backend.engine.internal.parser.ReportedTests.SKIPPED;
+
+import com.cortex.backend.engine.api.dto.TestCaseResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the event stream of {@code go test -json}, one JSON object per line, as converted from
+ * the verbose output by {@code go tool test2json}. The output of a test is kept only until it
+ * finishes and only reported when it fails.
+ */
+final class GoTestReportReader implements TestReportReader {
+
+  private static final int MAX_OUTPUT_LENGTH = 8192;
+
+  @Override
+  public void read(InputStream input, List<TestCaseResult> results) throws IOException {
+    Map<String, StringBuilder> outputs = new HashMap<>();
+    try (MappingIterator<JsonNode> events = OBJECT_MAPPER.readerFor(JsonNode.class)
+        .readValues(input)) {
+      while (events.hasNextValue()) {
+        JsonNode event = events.nextValue();
+        String test = event.path("Test").asText(null);
+        if (test == null) {
+          continue;
+        }
+        String pkg = event.path("Package").asText();
+        String key = pkg + " " + test;
+        String status = switch (event.path("Action").asText()) {
+          case "output" -> {
+            StringBuilder output = outputs.computeIfAbsent(key, _ -> new StringBuilder());
+            if (output.length() < MAX_OUTPUT_LENGTH) {
+              output.append(event.path("Output").asText());
+            }
+            yield null;
+          }
+          case "pass" -> PASSED;
+          case "fail" -> FAILED;
+          case "skip" -> SKIPPED;
+          default -> null;
+        };
+        if (status != null) {
+          StringBuilder output = outputs.remove(key);
+          results.add(ReportedTests.result(pkg, test, status,
+              Math.round(event.path("Elapsed").asDouble() * 1000),
+              output != null ? output.toString() : null));
+        }
+      }
+    }
+  }
+}
@@ -2,7 +2,9 @@ package com.cortex.backend.engine.internal.parser;
 
 import com.cortex.backend.engine.api.dto.TestCaseResult;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -23,18 +25,38 @@ public class JavaTestResultParser implements TestResultParser {
       "(?:@Test |test)([\\w]+)\\(\\) (?:\\[([\\d.]+) s\\])?"
   );
 
+  private static final Pattern FAILURE_PATTERN = Pattern.compile(
+      "(?m)^\\[ERROR\\] ([\\w]+)\\(([\\w.$]+)\\).*?\\R" +
+          "(?:Expected: (.+?)\\R)?" +
+          "(?:\\s+Actual: (.+?)\\R)?"
+  );
+
+  private static final Pattern SUMMARY_PATTERN = Pattern.compile(
+      "\\[INFO\\] Results:\\R" +
+          "\\[INFO\\] \\R" +
+          "\\[INFO\\] Tests run: (\\d+), Failures: (\\d+), Errors: (\\d+), Skipped: (\\d+)"
+  );
+
   @Override
   public List<TestCaseResult> parseTestResults(String output) {
     if (!isValidOutput(output)) {
       return List.of(createErrorResult("No test output provided"));
     }
 
+    if (RunnerReports.present(output)) {
+      List<TestCaseResult> runnerResults = RunnerReports.parse(output, this::createErrorResult);
+      if (!runnerResults.isEmpty()) {
+        return runnerResults;
+      }
+    }
+
     String compilationError = findCompilationError(output);
     if (compilationError != null) {
       return List.of(createErrorResult("Compilation failed: " + compilationError));
     }
 
     List<TestCaseResult> results = new ArrayList<>();
+    Map<String, List<TestCaseResult>> failureDetails = null;
     Matcher classMatcher = TEST_CLASS_PATTERN.matcher(output);
 
     while (classMatcher.find()) {
@@ -52,7 +74,10 @@ public class JavaTestResultParser implements TestResultParser {
 
       // Si hay fallas o errores, intentamos extraer los detalles
       if (failures > 0 || errors > 0) {
-        results.addAll(parseFailureDetails(output, className));
+        if (failureDetails == null) {
+          failureDetails = parseFailureDetails(output);
+        }
+        results.addAll(failureDetails.getOrDefault(className, List.of()));
       }
     }
 
@@ -68,21 +93,19 @@ public class JavaTestResultParser implements TestResultParser {
   }
 
 
-  private List<TestCaseResult> parseFailureDetails(String output, String className) {
-    List<TestCaseResult> results = new ArrayList<>();
-    Pattern failurePattern = Pattern.compile(
-        "(?m)^\\[ERROR\\] ([\\w]+)\\((" + className + ")\\).*?\\R" +
-            "(?:Expected: (.+?)\\R)?" +
-            "(?:\\s+Actual: (.+?)\\R)?"
-    );
-
-    Matcher matcher = failurePattern.matcher(output);
+  /**
+   * Extrae los detalles de todas las pruebas fallidas en una sola pasada, agrupados por clase.
+   */
+  private Map<String, List<TestCaseResult>> parseFailureDetails(String output) {
+    Map<String, List<TestCaseResult>> results = new HashMap<>();
+    Matcher matcher = FAILURE_PATTERN.matcher(output);
     while (matcher.find()) {
       String methodName = matcher.group(1);
+      String className = matcher.group(2);
       String expectedOutput = matcher.group(3);
       String actualOutput = matcher.group(4);
 
-      results.add(TestCaseResult.builder()
+      results.computeIfAbsent(className, _ -> new ArrayList<>()).add(TestCaseResult.builder()
           .passed(false)
           .input(className + "#" + methodName)
           .expectedOutput(expectedOutput != null ? expectedOutput : "Test should pass")
@@ -158,13 +181,7 @@ public class JavaTestResultParser implements TestResultParser {
   }
 
   private TestCaseResult parseOverallSummary(String output) {
-    Pattern summaryPattern = Pattern.compile(
-        "\\[INFO\\] Results:\\R" +
-            "\\[INFO\\] \\R" +
-            "\\[INFO\\] Tests run: (\\d+), Failures: (\\d+), Errors: (\\d+), Skipped: (\\d+)"
-    );
-
-    Matcher matcher = summaryPattern.matcher(output);
+    Matcher matcher = SUMMARY_PATTERN.matcher(output);
     if (matcher.find()) {
       return createClassSummaryResult(
           "Overall Summary",
@@ -0,0 +1,49 @@
+package com.cortex.backend.engine.internal.parser;
+
+import static com.cortex.backend.engine.internal.parser.ReportedTests.FAILED;
+import static com.cortex.backend.engine.internal.parser.ReportedTests.PASSED;
+import static com.cortex.backend.engine.internal.parser.ReportedTests.SKIPPED;
+
+import com.cortex.backend.engine.api.dto.TestCaseResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Reads the JSON events of the Rust test harness ({@code --format json --report-time}), one
+ * object per line, from every test binary of the run.
+ */
+final class LibtestReportReader implements TestReportReader {
+
+  @Override
+  public void read(InputStream input, List<TestCaseResult> results) throws IOException {
+    try (MappingIterator<JsonNode> events = OBJECT_MAPPER.readerFor(JsonNode.class)
+        .readValues(input)) {
+      while (events.hasNextValue()) {
+        JsonNode event = events.nextValue();
+        if (!"test".equals(event.path("type").asText())) {
+          continue;
+        }
+        String status = switch (event.path("event").asText()) {
+          case "ok" -> PASSED;
+          case "failed", "timeout" -> FAILED;
+          case "ignored" -> SKIPPED;
+          default -> null;
+        };
+        if (status == null) {
+          continue;
+        }
+        String path = event.path("name").asText();
+        int separator = path.lastIndexOf("::");
+        results.add(ReportedTests.result(
+            separator >= 0 ? path.substring(0, separator) : "",
+            separator >= 0 ? path.substring(separator + 2) : path,
+            status,
+            Math.round(event.path("exec_time").asDouble() * 1000),
+            event.path("stdout").asText(null)));
+      }
+    }
+  }
+}
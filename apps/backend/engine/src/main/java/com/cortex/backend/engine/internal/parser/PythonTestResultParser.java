@@ -26,6 +26,12 @@ public class PythonTestResultParser implements TestResultParser {
       return List.of(createErrorResult("No test output provided"));
     }
 
+    if (RunnerReports.present(output)) {
+      List<TestCaseResult> runnerResults = RunnerReports.parse(output, this::createErrorResult);
+      if (!runnerResults.isEmpty()) {
+        return runnerResults;
+      }
+    }
 
     String error = findError(output);
     if (error != null) {
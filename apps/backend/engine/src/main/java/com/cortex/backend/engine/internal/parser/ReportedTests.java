@@ -0,0 +1,47 @@
+package com.cortex.backend.engine.internal.parser;
+
+import com.cortex.backend.engine.api.dto.TestCaseResult;
+
+/**
+ * Builds the result of a single test read from a structured report, the same way for every
+ * report format.
+ */
+final class ReportedTests {
+
+  static final String PASSED = "PASSED";
+  static final String FAILED = "FAILED";
+  static final String SKIPPED = "SKIPPED";
+
+  private static final int MAX_FAILURE_LENGTH = 4096;
+
+  private ReportedTests() {
+  }
+
+  /**
+   * @param suite      the class, module or package of the test
+   * @param name       the test name
+   * @param status     {@link #PASSED}, {@link #FAILED} or {@link #SKIPPED}
+   * @param durationMs the time the test took, in milliseconds
+   * @param failure    the failure message, {@code null} if there is none
+   * @return the test result, skipped tests count as passed
+   */
+  static TestCaseResult result(String suite, String name, String status, long durationMs,
+      String failure) {
+    boolean passed = !FAILED.equals(status);
+    return TestCaseResult.builder()
+        .passed(passed)
+        .input(suite.isEmpty() ? name : suite + "#" + name)
+        .expectedOutput("Test should pass")
+        .actualOutput(passed ? "Test passed" : truncate(failure != null ? failure : "Test failed"))
+        .message(String.format("Test '%s' %s (%d ms)", name, status.toLowerCase(), durationMs))
+        .durationMs(durationMs)
+        .build();
+  }
+
+  private static String truncate(String failure) {
+    String trimmed = failure.strip();
+    return trimmed.length() > MAX_FAILURE_LENGTH
+        ? trimmed.substring(0, MAX_FAILURE_LENGTH) + "..."
+        : trimmed;
+  }
+}
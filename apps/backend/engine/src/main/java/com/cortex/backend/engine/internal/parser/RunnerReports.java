@@ -0,0 +1,60 @@
+package com.cortex.backend.engine.internal.parser;
+
+import com.cortex.backend.engine.api.dto.TestCaseResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Reads the JSON reports that resident language runners print on {@code ##cortex-report} lines.
+ */
+final class RunnerReports {
+
+  private static final String REPORT_PREFIX = "##cortex-report ";
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  private RunnerReports() {
+  }
+
+  static boolean present(String output) {
+    return output.contains(REPORT_PREFIX);
+  }
+
+  /**
+   * Turns the runner reports found in the output into test results.
+   *
+   * @param output      the run output
+   * @param errorResult builds the result reported when compilation failed
+   * @return one result per test, empty when the output holds no readable report
+   */
+  static List<TestCaseResult> parse(String output, Function<String, TestCaseResult> errorResult) {
+    List<TestCaseResult> results = new ArrayList<>();
+    for (String line : output.lines().filter(l -> l.startsWith(REPORT_PREFIX)).toList()) {
+      JsonNode report;
+      try {
+        report = OBJECT_MAPPER.readTree(line.substring(REPORT_PREFIX.length()));
+      } catch (JsonProcessingException e) {
+        continue;
+      }
+      if ("compile".equals(report.path("phase").asText())) {
+        if (!report.path("success").asBoolean()) {
+          List<String> errors = new ArrayList<>();
+          report.path("errors").forEach(error -> errors.add(error.asText()));
+          return List.of(errorResult.apply("Compilation failed: " + String.join("\n", errors)));
+        }
+        continue;
+      }
+      report.path("tests").forEach(test -> results.add(toTestResult(test)));
+    }
+    return results;
+  }
+
+  static TestCaseResult toTestResult(JsonNode test) {
+    return ReportedTests.result(test.path("class").asText(), test.path("name").asText(),
+        test.path("status").asText(), test.path("duration_ms").asLong(),
+        test.path("message").asText(null));
+  }
+}
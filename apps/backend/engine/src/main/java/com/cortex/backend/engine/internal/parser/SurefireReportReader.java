@@ -0,0 +1,104 @@
+package com.cortex.backend.engine.internal.parser;
+
+import static com.cortex.backend.engine.internal.parser.ReportedTests.FAILED;
+import static com.cortex.backend.engine.internal.parser.ReportedTests.PASSED;
+import static com.cortex.backend.engine.internal.parser.ReportedTests.SKIPPED;
+
+import com.cortex.backend.engine.api.dto.TestCaseResult;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Reads the {@code TEST-*.xml} files Maven Surefire writes per test class.
+ */
+final class SurefireReportReader implements TestReportReader {
+
+  private static final XMLInputFactory XML_INPUT_FACTORY = createFactory();
+
+  @Override
+  public boolean accepts(String fileName) {
+    return fileName.startsWith("TEST-") && fileName.endsWith(".xml");
+  }
+
+  @Override
+  public void read(InputStream input, List<TestCaseResult> results) throws IOException {
+    XMLStreamReader xml = null;
+    try {
+      xml = XML_INPUT_FACTORY.createXMLStreamReader(input);
+      String suite = null;
+      String name = null;
+      String status = null;
+      String failure = null;
+      long durationMs = 0L;
+      while (xml.hasNext()) {
+        int event = xml.next();
+        if (event == XMLStreamConstants.START_ELEMENT) {
+          switch (xml.getLocalName()) {
+            case "testcase" -> {
+              suite = xml.getAttributeValue(null, "classname");
+              name = xml.getAttributeValue(null, "name");
+              durationMs = toMillis(xml.getAttributeValue(null, "time"));
+              status = PASSED;
+              failure = null;
+            }
+            case "failure", "error" -> {
+              status = FAILED;
+              failure = xml.getAttributeValue(null, "message");
+              if (failure == null) {
+                failure = xml.getAttributeValue(null, "type");
+              }
+            }
+            case "skipped" -> {
+              if (PASSED.equals(status)) {
+                status = SKIPPED;
+              }
+            }
+            default -> {
+              // Properties and captured output are not reported
+            }
+          }
+        } else if (event == XMLStreamConstants.END_ELEMENT
+            && "testcase".equals(xml.getLocalName()) && name != null) {
+          results.add(ReportedTests.result(suite != null ? suite : "", name, status, durationMs,
+              failure));
+          name = null;
+        }
+      }
+    } catch (XMLStreamException e) {
+      throw new IOException("Malformed surefire report: " + e.getMessage(), e);
+    } finally {
+      if (xml != null) {
+        try {
+          xml.close();
+        } catch (XMLStreamException e) {
+          // Closing the reader never closes the underlying stream
+        }
+      }
+    }
+  }
+
+  private static long toMillis(String seconds) {
+    if (seconds == null || seconds.isBlank()) {
+      return 0L;
+    }
+    try {
+      // Older Surefire versions group thousands
+      return Math.round(Double.parseDouble(seconds.replace(",", "")) * 1000);
+    } catch (NumberFormatException e) {
+      return 0L;
+    }
+  }
+
+  private static XMLInputFactory createFactory() {
+    XMLInputFactory factory = XMLInputFactory.newFactory();
+    // The report is written inside the execution container, never resolve anything it points to
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    return factory;
+  }
+}
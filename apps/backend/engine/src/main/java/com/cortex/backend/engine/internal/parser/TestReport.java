@@ -0,0 +1,92 @@
+package com.cortex.backend.engine.internal.parser;
+
+import static com.cortex.backend.engine.internal.utils.Constants.TEST_REPORT_DIR;
+
+import com.cortex.backend.engine.api.dto.TestCaseResult;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+
+/**
+ * The machine-readable test report each language's test command writes inside the container,
+ * read instead of scanning the run output. Relative locations are resolved against the project
+ * root.
+ */
+public enum TestReport {
+
+  JAVA("java", "target/surefire-reports", List.of(), new SurefireReportReader()),
+  PYTHON("python", TEST_REPORT_DIR + "/unittest.json", List.of("unittest_report.py"),
+      new UnittestReportReader()),
+  TYPESCRIPT("typescript", TEST_REPORT_DIR + "/vitest.json", List.of(),
+      new VitestReportReader()),
+  RUST("rust", TEST_REPORT_DIR + "/libtest.json", List.of(), new LibtestReportReader()),
+  GO("go", TEST_REPORT_DIR + "/go-test.json", List.of(), new GoTestReportReader());
+
+  private final String language;
+  private final String location;
+  private final List<String> helperFiles;
+  private final TestReportReader reader;
+
+  TestReport(String language, String location, List<String> helperFiles,
+      TestReportReader reader) {
+    this.language = language;
+    this.location = location;
+    this.helperFiles = helperFiles;
+    this.reader = reader;
+  }
+
+  public static Optional<TestReport> forLanguage(String language) {
+    return Arrays.stream(values())
+        .filter(report -> report.language.equals(language))
+        .findFirst();
+  }
+
+  /**
+   * Files from {@code runners/<language>/} on the class path the test command of the language
+   * needs in the container to write the report.
+   */
+  public List<String> helperFiles() {
+    return helperFiles;
+  }
+
+  /**
+   * Resolves the report file or directory inside the container.
+   *
+   * @param workingDir the project root inside the container
+   * @return the absolute path
+   */
+  public String locationIn(String workingDir) {
+    return location.startsWith("/") ? location : workingDir + "/" + location;
+  }
+
+  /**
+   * Reads the test results from a tar archive of the report location, as returned when copying
+   * it out of the container. Entries are parsed as they stream by.
+   *
+   * @param archive       the tar stream
+   * @param maxEntryBytes files larger than this are rejected
+   * @return the results of every test in the report
+   * @throws IOException if the archive or a report file cannot be read
+   */
+  public List<TestCaseResult> read(InputStream archive, long maxEntryBytes) throws IOException {
+    List<TestCaseResult> results = new ArrayList<>();
+    TarArchiveInputStream tar = new TarArchiveInputStream(archive);
+    TarArchiveEntry entry;
+    while ((entry = tar.getNextTarEntry()) != null) {
+      String name = entry.getName().substring(entry.getName().lastIndexOf('/') + 1);
+      if (!entry.isFile() || !reader.accepts(name)) {
+        continue;
+      }
+      if (entry.getSize() > maxEntryBytes) {
+        throw new IOException("Report file " + name + " exceeds " + maxEntryBytes + " bytes");
+      }
+      reader.read(tar, results);
+    }
+    return results;
+  }
+}
@@ -0,0 +1,66 @@
+package com.cortex.backend.engine.internal.parser;
+
+import com.cortex.backend.engine.api.dto.TestCaseResult;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads one report file of a {@link TestReport} as a stream, without loading it whole.
+ */
+interface TestReportReader {
+
+  /**
+   * Shared by the JSON readers. The report streams are entries of an archive, so parsers must
+   * not close them.
+   */
+  ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+      .configure(JsonParser.Feature.AUTO_CLOSE_SOURCE, false);
+
+  /**
+   * Whether a file of the report location holds test results.
+   *
+   * @param fileName the file name, without directories
+   */
+  default boolean accepts(String fileName) {
+    return true;
+  }
+
+  /**
+   * Adds the results of the tests in a report file.
+   *
+   * @param input   the file content, left open
+   * @param results the results to add to
+   * @throws IOException if the file cannot be read or is malformed
+   */
+  void read(InputStream input, List<TestCaseResult> results) throws IOException;
+
+  /**
+   * Hands each element of an array field of a top-level JSON object to a consumer, one element
+   * in memory at a time.
+   */
+  static void forEachElement(InputStream input, String field, Consumer<JsonNode> consumer)
+      throws IOException {
+    try (JsonParser parser = OBJECT_MAPPER.createParser(input)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new IOException("Report is not a JSON object");
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String name = parser.currentName();
+        JsonToken value = parser.nextToken();
+        if (field.equals(name) && value == JsonToken.START_ARRAY) {
+          while (parser.nextToken() != JsonToken.END_ARRAY) {
+            consumer.accept(parser.readValueAsTree());
+          }
+        } else {
+          parser.skipChildren();
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package com.cortex.backend.engine.internal.parser;
+
+import com.cortex.backend.engine.api.dto.TestCaseResult;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Reads the report of the unittest runner, which has the same layout as the reports of the
+ * resident runners.
+ */
+final class UnittestReportReader implements TestReportReader {
+
+  @Override
+  public void read(InputStream input, List<TestCaseResult> results) throws IOException {
+    TestReportReader.forEachElement(input, "tests",
+        test -> results.add(RunnerReports.toTestResult(test)));
+  }
+}
@@ -0,0 +1,55 @@
+package com.cortex.backend.engine.internal.parser;
+
+import static com.cortex.backend.engine.internal.parser.ReportedTests.FAILED;
+import static com.cortex.backend.engine.internal.parser.ReportedTests.PASSED;
+import static com.cortex.backend.engine.internal.parser.ReportedTests.SKIPPED;
+
+import com.cortex.backend.engine.api.dto.TestCaseResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the report of vitest's JSON reporter, one test file at a time.
+ */
+final class VitestReportReader implements TestReportReader {
+
+  @Override
+  public void read(InputStream input, List<TestCaseResult> results) throws IOException {
+    TestReportReader.forEachElement(input, "testResults", file -> readFile(file, results));
+  }
+
+  private void readFile(JsonNode file, List<TestCaseResult> results) {
+    String path = file.path("name").asText();
+    String fileName = path.substring(path.lastIndexOf('/') + 1);
+    JsonNode assertions = file.path("assertionResults");
+    if (assertions.isEmpty()) {
+      if ("failed".equals(file.path("status").asText())) {
+        // The file failed before running any test, e.g. it doesn't compile
+        results.add(ReportedTests.result("", fileName, FAILED, 0L,
+            file.path("message").asText(null)));
+      }
+      return;
+    }
+
+    for (JsonNode assertion : assertions) {
+      List<String> ancestors = new ArrayList<>();
+      assertion.path("ancestorTitles").forEach(title -> ancestors.add(title.asText()));
+      List<String> failures = new ArrayList<>();
+      assertion.path("failureMessages").forEach(message -> failures.add(message.asText()));
+      String status = switch (assertion.path("status").asText()) {
+        case "passed" -> PASSED;
+        case "failed" -> FAILED;
+        default -> SKIPPED;
+      };
+      results.add(ReportedTests.result(
+          ancestors.isEmpty() ? fileName : String.join(" > ", ancestors),
+          assertion.path("title").asText(),
+          status,
+          Math.round(assertion.path("duration").asDouble()),
+          failures.isEmpty() ? null : String.join("\n", failures)));
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package com.cortex.backend.engine.internal.runner;
+
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs Java exercises in a resident JVM: the submitted sources are compiled with the in-process
+ * compiler and the precompiled tests run through the JUnit Platform Launcher, each run in a fresh
+ * class loader. Relies on the compile cache for the test classes and the test class path, and
+ * falls back to Maven when either is missing, or once a warm session's submission leaves threads
+ * running in the shared JVM.
+ */
+@Component
+public class JavaLauncherRunner implements LanguageRunner {
+
+  private static final String DIR = INSTALL_DIR + "/java";
+
+  @Value("${engine.runner.java.enabled:false}")
+  private boolean enabled;
+
+  @Value("${engine.runner.java.jvm-options:-XX:+UseSerialGC -XX:MaxRAMPercentage=70}")
+  private String jvmOptions;
+
+  @Override
+  public String language() {
+    return "java";
+  }
+
+  @Override
+  public boolean enabled() {
+    return enabled;
+  }
+
+  @Override
+  public List<String> files() {
+    return List.of("CortexJavaRunner.java");
+  }
+
+  @Override
+  public String startCommand() {
+    return "java " + jvmOptions + " " + DIR + "/CortexJavaRunner.java; exec tail -f /dev/null";
+  }
+
+  @Override
+  public String compileCommand() {
+    return "sh " + CLIENT + " compile";
+  }
+
+  @Override
+  public String executeCommand() {
+    return "sh " + CLIENT + " test";
+  }
+}
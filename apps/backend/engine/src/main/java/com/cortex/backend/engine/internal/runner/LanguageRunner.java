@@ -0,0 +1,53 @@
+package com.cortex.backend.engine.internal.runner;
+
+import java.util.List;
+
+/**
+ * A resident test runner that stands in for a language's build tool inside execution
+ * containers. Its files are copied into the container before it starts and it runs as the
+ * container's main process, so its startup is paid while the container waits in the pool.
+ * Runner commands exit with {@link #UNAVAILABLE} when they can't serve a run, in which case the
+ * language's own command runs instead.
+ */
+public interface LanguageRunner {
+
+  /**
+   * Exit code of a runner command that could not serve the run.
+   */
+  int UNAVAILABLE = 75;
+
+  /**
+   * Directory the runner files are copied to, one subdirectory per language.
+   */
+  String INSTALL_DIR = "/opt/cortex";
+
+  /**
+   * Client script shared by every runner: {@code run.sh <command>} sends a request for the
+   * project in the working directory and relays the response and exit code.
+   */
+  String CLIENT = INSTALL_DIR + "/run.sh";
+
+  String language();
+
+  boolean enabled();
+
+  /**
+   * Files copied from {@code runners/<language>/} on the class path into the container.
+   */
+  List<String> files();
+
+  /**
+   * Command the container starts with. It must keep the container alive when the runner exits.
+   */
+  String startCommand();
+
+  /**
+   * Runner command of the compile step, {@code null} when the runner has no compile step.
+   */
+  String compileCommand();
+
+  /**
+   * Runner command of the test step.
+   */
+  String executeCommand();
+}
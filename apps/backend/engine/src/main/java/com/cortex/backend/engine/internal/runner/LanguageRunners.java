@@ -0,0 +1,139 @@
+package com.cortex.backend.engine.internal.runner;
+
+import static com.cortex.backend.engine.internal.runner.LanguageRunner.INSTALL_DIR;
+import static com.cortex.backend.engine.internal.runner.LanguageRunner.UNAVAILABLE;
+
+import com.cortex.backend.core.domain.Language;
+import com.cortex.backend.engine.internal.parser.TestReport;
+import com.github.dockerjava.api.DockerClient;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves the enabled {@link LanguageRunner} of a language, installs it into containers and
+ * builds the step commands that try the runner first and fall back to the language's own
+ * commands. The helper files the language's {@link TestReport} needs are installed along with it,
+ * whether the runner is enabled or not.
+ */
+@Component
+@RequiredArgsConstructor
+public class LanguageRunners {
+
+  private static final String RESOURCE_DIR = "/runners/";
+  private static final String CLIENT_FILE = "run.sh";
+  private static final int FILE_MODE = 0755;
+
+  private final List<LanguageRunner> runners;
+  private final DockerClient dockerClient;
+
+  public Optional<LanguageRunner> find(String language) {
+    return runners.stream()
+        .filter(runner -> runner.language().equals(language) && runner.enabled())
+        .findFirst();
+  }
+
+  /**
+   * Copies the runner and test report files of a language into a created container, before it
+   * starts.
+   *
+   * @param containerId the container
+   * @param language    the language name
+   * @throws IOException if a runner file cannot be read
+   */
+  public void install(String containerId, String language) throws IOException {
+    // Resource paths below runners/, the shared client first
+    Set<String> paths = new LinkedHashSet<>();
+    find(language).ifPresent(runner -> {
+      paths.add(CLIENT_FILE);
+      runner.files().forEach(file -> paths.add(language + "/" + file));
+    });
+    TestReport.forLanguage(language).ifPresent(report ->
+        report.helperFiles().forEach(file -> paths.add(language + "/" + file)));
+    if (paths.isEmpty()) {
+      return;
+    }
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    try (TarArchiveOutputStream out = new TarArchiveOutputStream(buffer)) {
+      for (String path : paths) {
+        addEntry(out, path, readResource(path));
+      }
+    }
+    try (InputStream input = new ByteArrayInputStream(buffer.toByteArray())) {
+      dockerClient.copyArchiveToContainerCmd(containerId)
+          .withTarInputStream(input)
+          .withRemotePath("/")
+          .exec();
+    }
+  }
+
+  /**
+   * Returns the command the container of a language starts with, if it has a runner.
+   *
+   * @param language the language name
+   * @return the shell command
+   */
+  public Optional<String> startCommand(String language) {
+    return find(language).map(LanguageRunner::startCommand);
+  }
+
+  /**
+   * Returns the command of the compile step.
+   *
+   * @param language the language to run
+   * @return the command, {@code null} when the language has no compile step
+   */
+  public String compileCommand(Language language) {
+    return find(language.getName())
+        .map(runner -> withFallback(runner.compileCommand(), language.getCompileCommand()))
+        .orElse(language.getCompileCommand());
+  }
+
+  /**
+   * Returns the command of the test step.
+   *
+   * @param language the language to run
+   * @return the command
+   */
+  public String executeCommand(Language language) {
+    return find(language.getName())
+        .map(runner -> withFallback(runner.executeCommand(), language.getExecuteCommand()))
+        .orElse(language.getExecuteCommand());
+  }
+
+  private String withFallback(String runnerCommand, String fallback) {
+    if (runnerCommand == null || fallback == null) {
+      return fallback;
+    }
+    return runnerCommand + "; status=$?; [ $status -eq " + UNAVAILABLE + " ] || exit $status; "
+        + fallback;
+  }
+
+  private void addEntry(TarArchiveOutputStream out, String path, byte[] content)
+      throws IOException {
+    TarArchiveEntry entry = new TarArchiveEntry(INSTALL_DIR.substring(1) + "/" + path);
+    entry.setSize(content.length);
+    entry.setMode(FILE_MODE);
+    out.putArchiveEntry(entry);
+    out.write(content);
+    out.closeArchiveEntry();
+  }
+
+  private byte[] readResource(String path) throws IOException {
+    try (InputStream input = getClass().getResourceAsStream(RESOURCE_DIR + path)) {
+      if (input == null) {
+        throw new IOException("Runner file not found: " + path);
+      }
+      return input.readAllBytes();
+    }
+  }
+}
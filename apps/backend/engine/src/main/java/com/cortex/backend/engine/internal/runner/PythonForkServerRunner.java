@@ -0,0 +1,49 @@
+package com.cortex.backend.engine.internal.runner;
+
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs Python exercises from a resident fork server: the interpreter starts with common standard
+ * library modules imported, imports what the tests need once per project and forks a clean child
+ * per run, so neither interpreter startup nor imports are paid per submission.
+ */
+@Component
+public class PythonForkServerRunner implements LanguageRunner {
+
+  private static final String DIR = INSTALL_DIR + "/python";
+
+  @Value("${engine.runner.python.enabled:false}")
+  private boolean enabled;
+
+  @Override
+  public String language() {
+    return "python";
+  }
+
+  @Override
+  public boolean enabled() {
+    return enabled;
+  }
+
+  @Override
+  public List<String> files() {
+    return List.of("cortex_runner.py", "unittest_report.py");
+  }
+
+  @Override
+  public String startCommand() {
+    return "python " + DIR + "/cortex_runner.py; exec tail -f /dev/null";
+  }
+
+  @Override
+  public String compileCommand() {
+    return null;
+  }
+
+  @Override
+  public String executeCommand() {
+    return "sh " + CLIENT + " test";
+  }
+}
@@ -0,0 +1,236 @@
+package com.cortex.backend.engine.internal.scheduling;
+
+import com.github.dockerjava.core.DockerClientConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caps the executions running on this host with a limit adjusted by an AIMD loop. The limit
+ * grows by one while executions use all of it and the host is healthy, and is cut by a factor as
+ * soon as containers start slowly, the host loses CPU to steal or memory runs short.
+ *
+ * <p>Host signals are read from {@code /proc}, which only describes the machine running the
+ * containers when the Docker daemon is reached through a local socket. With a remote daemon, or
+ * on hosts without {@code /proc}, only the container start latency reported by the container pool
+ * is used.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AdaptiveConcurrencyLimit {
+
+  private static final Path PROC_STAT = Path.of("/proc/stat");
+  private static final Path PROC_MEMINFO = Path.of("/proc/meminfo");
+  private static final double EWMA_WEIGHT = 0.3;
+  private static final String LOCAL_DOCKER_SCHEME = "unix";
+
+  private final MeterRegistry meterRegistry;
+  private final DockerClientConfig dockerClientConfig;
+
+  @Value("${engine.scheduler.adaptive.enabled:true}")
+  private boolean enabled;
+
+  @Value("${engine.scheduler.adaptive.initial-limit:4}")
+  private int initialLimit;
+
+  @Value("${engine.scheduler.adaptive.min-limit:1}")
+  private int minLimit;
+
+  @Value("${engine.scheduler.adaptive.max-limit:32}")
+  private int maxLimit;
+
+  @Value("${engine.scheduler.adaptive.decrease-factor:0.7}")
+  private double decreaseFactor;
+
+  @Value("${engine.scheduler.adaptive.start-latency-threshold-ms:2000}")
+  private double startLatencyThresholdMs;
+
+  @Value("${engine.scheduler.adaptive.steal-threshold:0.1}")
+  private double stealThreshold;
+
+  @Value("${engine.scheduler.adaptive.memory-threshold:0.85}")
+  private double memoryThreshold;
+
+  private int limit;
+  private int inFlight;
+  private boolean saturated;
+  private double startLatencyMs;
+  private boolean startSampled;
+  private double steal;
+  private double memoryUsed;
+  private long[] lastCpuSample;
+  private boolean hostSignals;
+
+  @PostConstruct
+  void init() {
+    limit = Math.clamp(initialLimit, minLimit, maxLimit);
+    URI dockerHost = dockerClientConfig.getDockerHost();
+    hostSignals = LOCAL_DOCKER_SCHEME.equals(dockerHost.getScheme());
+    if (!hostSignals) {
+      log.info("Docker daemon at {} is not local, adjusting the execution limit on container "
+          + "start latency only", dockerHost);
+    }
+    Gauge.builder("engine.scheduler.adaptive.limit", this, AdaptiveConcurrencyLimit::limit)
+        .description("Executions allowed to run at once on this host")
+        .register(meterRegistry);
+    Gauge.builder("engine.scheduler.adaptive.in.flight", this, AdaptiveConcurrencyLimit::inFlight)
+        .description("Executions running on this host")
+        .register(meterRegistry);
+    Gauge.builder("engine.host.cpu.steal", this, l -> l.steal)
+        .description("Share of host CPU time lost to steal over the last interval")
+        .register(meterRegistry);
+    Gauge.builder("engine.host.memory.used", this, l -> l.memoryUsed)
+        .description("Share of host memory not available to new processes")
+        .register(meterRegistry);
+    Gauge.builder("engine.container.start.latency", this, l -> l.startLatencyMs)
+        .baseUnit("milliseconds")
+        .description("Moving average of the container create and start time")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Blocks until the execution fits under the current limit.
+   *
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public synchronized void acquire() throws InterruptedException {
+    if (!enabled) {
+      inFlight++;
+      return;
+    }
+    while (inFlight >= limit) {
+      saturated = true;
+      wait();
+    }
+    inFlight++;
+    if (inFlight == limit) {
+      saturated = true;
+    }
+  }
+
+  public synchronized void release() {
+    inFlight--;
+    notifyAll();
+  }
+
+  /**
+   * Reports how long creating and starting a container took.
+   *
+   * @param latency the create and start time
+   */
+  public synchronized void recordContainerStart(Duration latency) {
+    double sample = latency.toMillis();
+    startLatencyMs = startLatencyMs == 0
+        ? sample
+        : EWMA_WEIGHT * sample + (1 - EWMA_WEIGHT) * startLatencyMs;
+    startSampled = true;
+  }
+
+  @Scheduled(fixedDelayString = "${engine.scheduler.adaptive.interval-ms:5000}")
+  public void adjust() {
+    if (!enabled) {
+      return;
+    }
+    if (hostSignals) {
+      readCpuSteal();
+      readMemoryUsed();
+    }
+
+    synchronized (this) {
+      int previous = limit;
+      String reason = overloadReason();
+      if (reason != null) {
+        limit = Math.max(minLimit, (int) Math.floor(limit * decreaseFactor));
+        if (limit != previous) {
+          log.info("Lowering execution limit from {} to {}: {}", previous, limit, reason);
+        }
+      } else if (saturated && limit < maxLimit) {
+        limit++;
+        log.debug("Raising execution limit to {}", limit);
+        notifyAll();
+      }
+      saturated = inFlight >= limit;
+      // Without new containers the last slow start shouldn't hold the limit down forever
+      if (!startSampled) {
+        startLatencyMs *= 1 - EWMA_WEIGHT;
+      }
+      startSampled = false;
+    }
+  }
+
+  private String overloadReason() {
+    if (startLatencyMs > startLatencyThresholdMs) {
+      return String.format("container start latency %.0f ms", startLatencyMs);
+    }
+    if (steal > stealThreshold) {
+      return String.format("CPU steal %.2f", steal);
+    }
+    if (memoryUsed > memoryThreshold) {
+      return String.format("memory used %.2f", memoryUsed);
+    }
+    return null;
+  }
+
+  private void readCpuSteal() {
+    try {
+      // cpu  user nice system idle iowait irq softirq steal ...
+      String[] fields = Files.readAllLines(PROC_STAT).getFirst().trim().split("\\s+");
+      long[] sample = new long[fields.length - 1];
+      for (int i = 1; i < fields.length; i++) {
+        sample[i - 1] = Long.parseLong(fields[i]);
+      }
+      if (lastCpuSample != null && sample.length > 7) {
+        long total = 0;
+        for (int i = 0; i < Math.min(sample.length, 8); i++) {
+          total += sample[i] - lastCpuSample[i];
+        }
+        long stolen = sample[7] - lastCpuSample[7];
+        steal = total > 0 ? (double) stolen / total : 0;
+      }
+      lastCpuSample = sample;
+    } catch (IOException | RuntimeException e) {
+      log.trace("CPU steal not available: {}", e.getMessage());
+    }
+  }
+
+  private void readMemoryUsed() {
+    try {
+      List<String> lines = Files.readAllLines(PROC_MEMINFO);
+      long total = meminfoKb(lines, "MemTotal:");
+      long available = meminfoKb(lines, "MemAvailable:");
+      if (total > 0 && available >= 0) {
+        memoryUsed = 1 - (double) available / total;
+      }
+    } catch (IOException | RuntimeException e) {
+      log.trace("Memory usage not available: {}", e.getMessage());
+    }
+  }
+
+  private static long meminfoKb(List<String> lines, String key) {
+    return lines.stream()
+        .filter(line -> line.startsWith(key))
+        .map(line -> Long.parseLong(line.substring(key.length()).trim().split("\\s+")[0]))
+        .findFirst()
+        .orElse(-1L);
+  }
+
+  private synchronized int limit() {
+    return limit;
+  }
+
+  private synchronized int inFlight() {
+    return inFlight;
+  }
+}
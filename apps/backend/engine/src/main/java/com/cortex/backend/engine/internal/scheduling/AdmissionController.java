@@ -0,0 +1,166 @@
+package com.cortex.backend.engine.internal.scheduling;
+
+import com.cortex.backend.core.common.exception.ExecutionOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sheds submissions early when the execution backlog can't be drained in time. The wait of a
+ * new task is estimated from the live depth of its language queues and the drain rate of the
+ * language, a moving average of the executions completed by every node per second. The queue
+ * depth leaves out tasks already delivered to a consumer, so the tasks waiting for a slot in the
+ * lanes of this node are added to it.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AdmissionController {
+
+  private static final String DRAINED_PREFIX = "exec:drained:";
+  private static final double EWMA_WEIGHT = 0.3;
+
+  private final ExecutionQueues executionQueues;
+  private final StringRedisTemplate stringRedisTemplate;
+  private final MeterRegistry meterRegistry;
+
+  private final Map<String, DrainRate> drainRates = new ConcurrentHashMap<>();
+  private final Map<String, LaneGate> gates = new ConcurrentHashMap<>();
+
+  @Value("${engine.admission.enabled:true}")
+  private boolean enabled;
+
+  @Value("${engine.admission.max-wait-seconds:120}")
+  private long maxWaitSeconds;
+
+  @Value("${engine.admission.min-depth:20}")
+  private long minDepth;
+
+  @Value("${engine.admission.min-drain-per-second:0.1}")
+  private double minDrainPerSecond;
+
+  /**
+   * Estimates where a new task would land in its language queues and admits it, unless its
+   * estimated wait exceeds the configured maximum.
+   *
+   * @param language the language of the task
+   * @param priority whether the task goes to the priority queue
+   * @return the position and estimated wait of the task
+   * @throws ExecutionOverloadedException if the backlog is too long to take the task
+   */
+  public QueueEstimate admit(String language, boolean priority) {
+    DrainRate drainRate = drainRate(language);
+    long ahead = depth(language, true);
+    if (!priority) {
+      ahead += depth(language, false);
+    }
+
+    long position = ahead + 1;
+    double rate = Math.max(drainRate.perSecond, minDrainPerSecond);
+    long etaSeconds = (long) Math.ceil(position / rate);
+
+    if (enabled && ahead >= minDepth && etaSeconds > maxWaitSeconds) {
+      long retryAfter = Math.max(1L, etaSeconds - maxWaitSeconds);
+      log.warn("Shedding {} submission: {} queued, estimated wait {} s", language, ahead,
+          etaSeconds);
+      Counter.builder("engine.admission.rejected")
+          .tag("language", language)
+          .description("Submissions rejected because the estimated wait was too long")
+          .register(meterRegistry)
+          .increment();
+      throw new ExecutionOverloadedException(
+          String.format("The %s queue is full, estimated wait is %d seconds", language,
+              etaSeconds),
+          retryAfter);
+    }
+    return new QueueEstimate(position, etaSeconds);
+  }
+
+  /**
+   * Registers the slots of a language lane, whose waiting tasks count as queued.
+   *
+   * @param language the language of the lane
+   * @param gate     the slots of the lane
+   */
+  void registerLane(String language, LaneGate gate) {
+    gates.put(language, gate);
+  }
+
+  /**
+   * Counts an execution of a language as drained from its queue.
+   *
+   * @param language the language of the execution
+   */
+  public void recordCompletion(String language) {
+    drainRate(language);
+    try {
+      stringRedisTemplate.opsForValue().increment(DRAINED_PREFIX + language);
+    } catch (Exception e) {
+      log.debug("Failed to count drained execution for {}: {}", language, e.getMessage());
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${engine.admission.sample-interval-ms:10000}")
+  public void sampleDrainRates() {
+    drainRates.forEach((language, drainRate) -> {
+      try {
+        String value = stringRedisTemplate.opsForValue().get(DRAINED_PREFIX + language);
+        drainRate.sample(value != null ? Long.parseLong(value) : 0L, System.nanoTime());
+      } catch (Exception e) {
+        log.debug("Failed to sample drain rate for {}: {}", language, e.getMessage());
+      }
+    });
+  }
+
+  private long depth(String language, boolean priority) {
+    LaneGate gate = gates.get(language);
+    return executionQueues.depth(language, priority)
+        + (gate != null ? gate.waiting(priority) : 0);
+  }
+
+  private DrainRate drainRate(String language) {
+    return drainRates.computeIfAbsent(language, name -> {
+      DrainRate drainRate = new DrainRate();
+      Gauge.builder("engine.admission.drain.rate", drainRate, rate -> rate.perSecond)
+          .tag("language", name)
+          .description("Executions completed per second by every node")
+          .register(meterRegistry);
+      return drainRate;
+    });
+  }
+
+  /**
+   * Where a task landed in its language queues.
+   *
+   * @param position   the position of the task, {@code 1} being next
+   * @param etaSeconds the estimated wait until the task starts, in seconds
+   */
+  public record QueueEstimate(long position, long etaSeconds) {
+
+  }
+
+  private static final class DrainRate {
+
+    private volatile double perSecond;
+    private long lastCount = -1;
+    private long lastSampledAt;
+
+    synchronized void sample(long count, long now) {
+      if (lastCount >= 0 && count >= lastCount) {
+        double seconds = (now - lastSampledAt) / 1_000_000_000d;
+        double current = seconds > 0 ? (count - lastCount) / seconds : 0;
+        perSecond = EWMA_WEIGHT * current + (1 - EWMA_WEIGHT) * perSecond;
+      }
+      lastCount = count;
+      lastSampledAt = now;
+    }
+  }
+}
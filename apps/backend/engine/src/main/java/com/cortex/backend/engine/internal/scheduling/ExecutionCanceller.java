@@ -0,0 +1,135 @@
+package com.cortex.backend.engine.internal.scheduling;
+
+import com.cortex.backend.engine.internal.streaming.ExecutionStatusTracker;
+import com.github.dockerjava.api.DockerClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cancels executions nobody will read. A cancelled task is flagged in Redis, so the consumer
+ * drops it if it hasn't started, and announced on a channel, so the node running it kills its
+ * container.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ExecutionCanceller implements MessageListener {
+
+  private static final String CANCEL_FLAG_PREFIX = "cancel:";
+  private static final String LATEST_PREFIX = "exec:latest:";
+  private static final String CANCEL_CHANNEL = "execution:cancel";
+
+  private final StringRedisTemplate stringRedisTemplate;
+  private final ExecutionStatusTracker statusTracker;
+  private final RedisMessageListenerContainer listenerContainer;
+  private final DockerClient dockerClient;
+  private final MeterRegistry meterRegistry;
+
+  private final Map<String, String> runningContainers = new ConcurrentHashMap<>();
+
+  @Value("${engine.cancellation.ttl-ms:3600000}")
+  private long ttlMs;
+
+  @PostConstruct
+  void subscribe() {
+    listenerContainer.addMessageListener(this, new ChannelTopic(CANCEL_CHANNEL));
+  }
+
+  /**
+   * Records a task as the latest submission of a user for an exercise and cancels the one it
+   * replaces, if that one is still queued or running.
+   *
+   * @param userId     the submitting user
+   * @param exerciseId the exercise
+   * @param taskId     the new task
+   * @return the task that was cancelled, if any
+   */
+  public Optional<String> supersede(Long userId, Long exerciseId, String taskId) {
+    String previous = stringRedisTemplate.opsForValue()
+        .getAndSet(LATEST_PREFIX + userId + ":" + exerciseId, taskId);
+    stringRedisTemplate.expire(LATEST_PREFIX + userId + ":" + exerciseId, Duration.ofMillis(ttlMs));
+    if (previous != null && !previous.equals(taskId) && isUnfinished(previous)) {
+      log.info("Task {} supersedes task {}", taskId, previous);
+      cancel(previous, "superseded");
+      return Optional.of(previous);
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Cancels a task wherever it is: queued tasks are dropped when dequeued and running ones have
+   * their container killed.
+   *
+   * @param taskId the task to cancel
+   * @param reason why the task is cancelled, for metrics
+   */
+  public void cancel(String taskId, String reason) {
+    stringRedisTemplate.opsForValue()
+        .set(CANCEL_FLAG_PREFIX + taskId, reason, Duration.ofMillis(ttlMs));
+    stringRedisTemplate.convertAndSend(CANCEL_CHANNEL, taskId);
+    meterRegistry.counter("engine.execution.cancelled", "reason", reason).increment();
+  }
+
+  public boolean isCancelled(String taskId) {
+    return Boolean.TRUE.equals(stringRedisTemplate.hasKey(CANCEL_FLAG_PREFIX + taskId));
+  }
+
+  /**
+   * Registers the container running a task, so a cancellation can kill it.
+   *
+   * @param taskId      the task
+   * @param containerId the container running it
+   */
+  public void attach(String taskId, String containerId) {
+    runningContainers.put(taskId, containerId);
+    // The cancellation may have been announced before the container was attached
+    if (isCancelled(taskId)) {
+      kill(taskId);
+    }
+  }
+
+  public void detach(String taskId) {
+    runningContainers.remove(taskId);
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    kill(new String(message.getBody(), StandardCharsets.UTF_8));
+  }
+
+  private boolean isUnfinished(String taskId) {
+    return statusTracker.find(taskId)
+        .map(status -> switch (status.status()) {
+          case DONE, FAILED, CANCELLED -> false;
+          default -> true;
+        })
+        .orElse(false);
+  }
+
+  private void kill(String taskId) {
+    String containerId = runningContainers.remove(taskId);
+    if (containerId == null) {
+      return;
+    }
+    log.info("Killing container {} of cancelled task {}", containerId, taskId);
+    try {
+      dockerClient.killContainerCmd(containerId).exec();
+    } catch (Exception e) {
+      log.warn("Failed to kill container {}: {}", containerId, e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package com.cortex.backend.engine.internal.scheduling;
+
+import static com.cortex.backend.engine.internal.utils.Constants.CODE_EXECUTION_EXCHANGE;
+import static com.cortex.backend.engine.internal.utils.Constants.CODE_EXECUTION_QUEUE;
+
+import com.cortex.backend.engine.api.dto.CodeExecutionTask;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Routes execution tasks to durable queues bound to the execution exchange: one standard and one
+ * priority queue per language, for submissions of active subscribers.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExecutionQueues {
+
+  private static final String PRIORITY_SUFFIX = ".priority";
+
+  private final AmqpAdmin amqpAdmin;
+  private final RabbitTemplate rabbitTemplate;
+  private final DirectExchange codeExecutionExchange;
+
+  private final Set<String> declared = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Name of the queue holding the tasks of a language.
+   *
+   * @param language the language name
+   * @param priority whether the queue holds priority tasks
+   * @return the queue name
+   */
+  public static String queueName(String language, boolean priority) {
+    return CODE_EXECUTION_QUEUE + "." + routingKey(language, priority);
+  }
+
+  private static String routingKey(String language, boolean priority) {
+    return priority ? language + PRIORITY_SUFFIX : language;
+  }
+
+  /**
+   * Declares a queue of a language and binds it to the execution exchange, once per process.
+   *
+   * @param language the language name
+   * @param priority whether to declare the priority queue
+   * @return the queue name
+   */
+  public String declare(String language, boolean priority) {
+    String name = queueName(language, priority);
+    if (declared.add(name)) {
+      Queue queue = new Queue(name, true);
+      amqpAdmin.declareQueue(queue);
+      Binding binding = BindingBuilder.bind(queue).to(codeExecutionExchange)
+          .with(routingKey(language, priority));
+      amqpAdmin.declareBinding(binding);
+    }
+    return name;
+  }
+
+  /**
+   * Sends a task to the standard or priority queue of its language.
+   *
+   * @param task the task to run
+   */
+  public void dispatch(CodeExecutionTask task) {
+    String language = task.request().language();
+    declare(language, task.priority());
+    rabbitTemplate.convertAndSend(CODE_EXECUTION_EXCHANGE,
+        routingKey(language, task.priority()), task);
+  }
+
+  /**
+   * Number of tasks waiting in a queue of a language.
+   *
+   * @param language the language name
+   * @param priority whether to read the priority queue
+   * @return the queue depth, {@code 0} when the queue doesn't exist
+   */
+  public long depth(String language, boolean priority) {
+    var info = amqpAdmin.getQueueInfo(queueName(language, priority));
+    return info != null ? info.getMessageCount() : 0L;
+  }
+}
@@ -0,0 +1,222 @@
+package com.cortex.backend.engine.internal.scheduling;
+
+import com.cortex.backend.core.domain.Language;
+import com.cortex.backend.engine.api.LanguageRepository;
+import com.cortex.backend.engine.api.dto.CodeExecutionTask;
+import com.cortex.backend.engine.internal.cache.ExecutionCoalescer;
+import com.cortex.backend.engine.internal.services.CodeExecutionService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs execution tasks in one bulkhead per language. Each language consumes its own standard and
+ * priority queues and shares a fixed number of slots between them and between users, so a
+ * backlog of slow runs in one language can't take the slots of another. Every run then waits for the host-wide
+ * {@link AdaptiveConcurrencyLimit} and reserves its container limits from the
+ * {@link ResourceBudget} before it starts. Tasks following an identical run in flight wait for
+ * its result before any of that, so they hold no capacity.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ExecutionScheduler {
+
+  private final LanguageRepository languageRepository;
+  private final ExecutionQueues executionQueues;
+  private final ResourceBudget resourceBudget;
+  private final AdaptiveConcurrencyLimit concurrencyLimit;
+  private final AdmissionController admissionController;
+  private final CodeExecutionService codeExecutionService;
+  private final ConnectionFactory connectionFactory;
+  private final Jackson2JsonMessageConverter messageConverter;
+  private final MeterRegistry meterRegistry;
+  private final Environment environment;
+
+  private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+
+  @Value("${engine.scheduler.default-concurrency:2}")
+  private int defaultConcurrency;
+
+  @Value("${engine.scheduler.max-priority-streak:3}")
+  private int maxPriorityStreak;
+
+  @Value("${engine.scheduler.user-quantum:1}")
+  private int userQuantum;
+
+  @Value("${engine.scheduler.fairness-window:4}")
+  private int fairnessWindow;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    languageRepository.findAll().forEach(this::startLane);
+  }
+
+  @Scheduled(fixedDelayString = "${engine.scheduler.depth-refresh-ms:5000}")
+  public void refreshQueueDepths() {
+    lanes.forEach((language, lane) -> {
+      try {
+        lane.standardDepth().set(executionQueues.depth(language, false));
+        lane.priorityDepth().set(executionQueues.depth(language, true));
+      } catch (Exception e) {
+        log.debug("Failed to read queue depth for {}: {}", language, e.getMessage());
+      }
+    });
+  }
+
+  @PreDestroy
+  public void stop() {
+    lanes.values().forEach(lane -> {
+      lane.priority().stop();
+      lane.standard().stop();
+    });
+  }
+
+  private void startLane(Language language) {
+    String name = language.getName();
+    lanes.computeIfAbsent(name, _ -> {
+      int concurrency = concurrency(name);
+      LaneGate gate = new LaneGate(concurrency, maxPriorityStreak, userQuantum);
+      Lane lane = new Lane(
+          listen(language, gate, true),
+          listen(language, gate, false),
+          gate,
+          new AtomicLong(),
+          new AtomicLong()
+      );
+      registerMetrics(name, lane);
+      admissionController.registerLane(name, gate);
+      lane.priority().start();
+      lane.standard().start();
+
+      log.info("Started execution lane for {} with {} slots", name, concurrency);
+      return lane;
+    });
+  }
+
+  private SimpleMessageListenerContainer listen(Language language, LaneGate gate,
+      boolean priority) {
+    // Each consumer holds one unacknowledged task while it waits for a slot, so the extra
+    // consumers form the window of tasks the gate can reorder between users
+    int consumers = gate.slots() * Math.max(1, fairnessWindow);
+    SimpleMessageListenerContainer container =
+        new SimpleMessageListenerContainer(connectionFactory);
+    container.setQueueNames(executionQueues.declare(language.getName(), priority));
+    container.setConcurrentConsumers(consumers);
+    container.setMaxConcurrentConsumers(consumers);
+    container.setPrefetchCount(1);
+    container.setDefaultRequeueRejected(false);
+    container.setMessageListener((Message message) ->
+        run(language, gate, priority, (CodeExecutionTask) messageConverter.fromMessage(message)));
+    return container;
+  }
+
+  private void run(Language language, LaneGate gate, boolean priority, CodeExecutionTask task) {
+    log.info("Received {} code execution task: {}", priority ? "priority" : "standard",
+        task.taskId());
+    try (ExecutionCoalescer.Flight flight = codeExecutionService.joinFlight(task)) {
+      if (flight.awaitLeader()) {
+        // An identical run, or the result cache, provided the result: only recording is left
+        try {
+          codeExecutionService.processCodeExecution(task, flight);
+        } finally {
+          admissionController.recordCompletion(language.getName());
+        }
+        return;
+      }
+      try {
+        gate.acquire(task.userId(), priority);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw requeue(task, e);
+      }
+      try {
+        runWithinHostLimits(language, task, flight);
+      } finally {
+        gate.release();
+      }
+    }
+  }
+
+  private void runWithinHostLimits(Language language, CodeExecutionTask task,
+      ExecutionCoalescer.Flight flight) {
+    try {
+      concurrencyLimit.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw requeue(task, e);
+    }
+    try (ResourceBudget.Reservation _ = resourceBudget.reserve(language)) {
+      codeExecutionService.processCodeExecution(task, flight);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw requeue(task, e);
+    } catch (Exception e) {
+      log.error("Error processing code execution task: {}", task.taskId(), e);
+    } finally {
+      concurrencyLimit.release();
+      admissionController.recordCompletion(language.getName());
+    }
+  }
+
+  /**
+   * Hands a task that never started back to the broker, usually because the consumer is
+   * stopping. Its status stays queued and its submission slot is released once it runs.
+   */
+  private ImmediateRequeueAmqpException requeue(CodeExecutionTask task, InterruptedException e) {
+    log.warn("Interrupted while waiting to run task {}, requeueing it", task.taskId());
+    return new ImmediateRequeueAmqpException("Interrupted before running " + task.taskId(), e);
+  }
+
+  private int concurrency(String language) {
+    return environment.getProperty("engine.scheduler.concurrency." + language, Integer.class,
+        defaultConcurrency);
+  }
+
+  private void registerMetrics(String language, Lane lane) {
+    Gauge.builder("engine.scheduler.queue.depth", lane.standardDepth(), AtomicLong::get)
+        .tag("language", language)
+        .tag("lane", "standard")
+        .description("Tasks waiting in the language queue")
+        .register(meterRegistry);
+    Gauge.builder("engine.scheduler.queue.depth", lane.priorityDepth(), AtomicLong::get)
+        .tag("language", language)
+        .tag("lane", "priority")
+        .description("Tasks waiting in the language queue")
+        .register(meterRegistry);
+    Gauge.builder("engine.scheduler.slots.used", lane.gate(), LaneGate::used)
+        .tag("language", language)
+        .description("Executions running in the language lane")
+        .register(meterRegistry);
+    Gauge.builder("engine.scheduler.slots.waiting", lane.gate(), LaneGate::waiting)
+        .tag("language", language)
+        .description("Received tasks waiting for a slot in the language lane")
+        .register(meterRegistry);
+    Gauge.builder("engine.scheduler.slots.limit", lane.gate(), LaneGate::slots)
+        .tag("language", language)
+        .description("Concurrent executions allowed in the language lane")
+        .register(meterRegistry);
+  }
+
+  private record Lane(SimpleMessageListenerContainer priority,
+                      SimpleMessageListenerContainer standard, LaneGate gate,
+                      AtomicLong priorityDepth, AtomicLong standardDepth) {
+
+  }
+}
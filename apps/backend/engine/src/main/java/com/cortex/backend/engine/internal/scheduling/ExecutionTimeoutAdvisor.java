@@ -0,0 +1,204 @@
+package com.cortex.backend.engine.internal.scheduling;
+
+import com.cortex.backend.core.domain.Language;
+import com.cortex.backend.engine.api.LanguageRepository;
+import com.cortex.backend.engine.api.dto.ExerciseTimeout;
+import com.cortex.backend.engine.internal.bundle.ExerciseBundlePublishedEvent;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Derives per-exercise test timeouts from the test-step runtimes of passing runs. The last
+ * runtimes of each exercise are kept in Redis and, once there are enough of them, the timeout
+ * becomes a high percentile times a safety factor, never above the language default. Until then
+ * the language default applies. Compile time is left out: it depends on whether the compile and
+ * dependency caches were warm, not on the exercise, so the compile step always gets the language
+ * default. Samples of an exercise are dropped when a new revision of it is published.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ExecutionTimeoutAdvisor {
+
+  // Earlier samples under exec:runtime: included compile time and are left to expire
+  private static final String SAMPLES_PREFIX = "exec:test-runtime:";
+
+  private final StringRedisTemplate stringRedisTemplate;
+  private final LanguageRepository languageRepository;
+
+  private final Map<String, DerivedTimeout> derived = new ConcurrentHashMap<>();
+
+  @Value("${engine.timeouts.adaptive:true}")
+  private boolean adaptive;
+
+  @Value("${engine.timeouts.min-samples:20}")
+  private int minSamples;
+
+  @Value("${engine.timeouts.max-samples:200}")
+  private int maxSamples;
+
+  @Value("${engine.timeouts.percentile:0.99}")
+  private double percentile;
+
+  @Value("${engine.timeouts.safety-factor:3.0}")
+  private double safetyFactor;
+
+  @Value("${engine.timeouts.floor-ms:5000}")
+  private long floorMs;
+
+  @Value("${engine.timeouts.refresh-ms:60000}")
+  private long refreshMs;
+
+  @Value("${engine.timeouts.sample-ttl-days:30}")
+  private long sampleTtlDays;
+
+  /**
+   * Resolves the timeout of the test step of an exercise.
+   *
+   * @param githubPath the exercise path
+   * @param language   the language the exercise runs in
+   * @return the timeout in milliseconds
+   */
+  public long timeoutFor(String githubPath, Language language) {
+    long defaultTimeout = language.getDefaultTimeout();
+    if (!adaptive || githubPath == null) {
+      return defaultTimeout;
+    }
+    String key = samplesKey(language.getName(), githubPath);
+    long now = System.currentTimeMillis();
+    DerivedTimeout current = derived.compute(key, (_, cached) ->
+        cached != null && now - cached.computedAt() < refreshMs
+            ? cached
+            : derive(key, defaultTimeout, now));
+    return current.timeoutMs();
+  }
+
+  /**
+   * Records the test runtime of a passing run of an exercise. Failing runs are left out, a timed
+   * out or crashing submission says nothing about how long the exercise needs.
+   *
+   * @param githubPath the exercise path
+   * @param language   the language name
+   * @param runtimeMs  time spent in the test step, in milliseconds
+   */
+  public void recordPassingRun(String githubPath, String language, long runtimeMs) {
+    if (!adaptive || githubPath == null) {
+      return;
+    }
+    String key = samplesKey(language, githubPath);
+    try {
+      stringRedisTemplate.opsForList().leftPush(key, String.valueOf(runtimeMs));
+      stringRedisTemplate.opsForList().trim(key, 0, maxSamples - 1L);
+      stringRedisTemplate.expire(key, sampleTtlDays, TimeUnit.DAYS);
+    } catch (Exception e) {
+      log.warn("Failed to record runtime of {}: {}", githubPath, e.getMessage());
+    }
+  }
+
+  @EventListener
+  public void onBundlePublished(ExerciseBundlePublishedEvent event) {
+    if (event.previousRevision() == null) {
+      return;
+    }
+    ScanOptions options = ScanOptions.scanOptions()
+        .match(SAMPLES_PREFIX + "*:" + event.githubPath()).count(100).build();
+    try (Cursor<String> keys = stringRedisTemplate.scan(options)) {
+      keys.forEachRemaining(key -> {
+        stringRedisTemplate.delete(key);
+        derived.remove(key);
+      });
+    }
+    log.debug("Dropped runtime samples of {} for revision {}", event.githubPath(),
+        event.revision());
+  }
+
+  /**
+   * Lists the derived timeout of every exercise with runtime samples, tightest first.
+   *
+   * @return the timeout of each exercise
+   */
+  public List<ExerciseTimeout> getTimeouts() {
+    Map<String, Long> defaults = new ConcurrentHashMap<>();
+    List<ExerciseTimeout> timeouts = new ArrayList<>();
+    long now = System.currentTimeMillis();
+    ScanOptions options = ScanOptions.scanOptions().match(SAMPLES_PREFIX + "*").count(500).build();
+    try (Cursor<String> keys = stringRedisTemplate.scan(options)) {
+      keys.forEachRemaining(key -> {
+        String rest = key.substring(SAMPLES_PREFIX.length());
+        int separator = rest.indexOf(':');
+        if (separator < 0) {
+          return;
+        }
+        String language = rest.substring(0, separator);
+        Long defaultTimeout = defaults.computeIfAbsent(language, name ->
+            languageRepository.findByName(name).map(Language::getDefaultTimeout).orElse(-1L));
+        if (defaultTimeout < 0) {
+          return;
+        }
+        DerivedTimeout timeout = derive(key, defaultTimeout, now);
+        derived.put(key, timeout);
+        timeouts.add(new ExerciseTimeout(rest.substring(separator + 1), language,
+            timeout.samples(), timeout.percentileMs(), timeout.timeoutMs(), defaultTimeout,
+            timeout.timeoutMs() < defaultTimeout));
+      });
+    }
+    timeouts.sort(Comparator.comparingLong(ExerciseTimeout::timeoutMs));
+    return timeouts;
+  }
+
+  private DerivedTimeout derive(String key, long defaultTimeout, long now) {
+    List<String> samples;
+    try {
+      samples = stringRedisTemplate.opsForList().range(key, 0, -1);
+    } catch (Exception e) {
+      log.warn("Failed to read runtime samples {}: {}", key, e.getMessage());
+      return new DerivedTimeout(0, 0L, defaultTimeout, now);
+    }
+    return derive(samples != null ? samples : List.of(), defaultTimeout, minSamples, percentile,
+        safetyFactor, floorMs, now);
+  }
+
+  /**
+   * Derives a timeout from runtime samples: the percentile times the safety factor, kept between
+   * the floor and the language default. With fewer than {@code minSamples} samples the default
+   * applies.
+   *
+   * @param samples        the runtimes in milliseconds, in any order
+   * @param defaultTimeout the language default, in milliseconds
+   * @param now            when the timeout is derived, in epoch milliseconds
+   * @return the derived timeout
+   */
+  static DerivedTimeout derive(List<String> samples, long defaultTimeout, int minSamples,
+      double percentile, double safetyFactor, long floorMs, long now) {
+    if (samples.isEmpty() || samples.size() < minSamples) {
+      return new DerivedTimeout(samples.size(), 0L, defaultTimeout, now);
+    }
+
+    long[] runtimes = samples.stream().mapToLong(Long::parseLong).sorted().toArray();
+    int rank = (int) Math.ceil(percentile * runtimes.length) - 1;
+    long percentileMs = runtimes[Math.clamp(rank, 0, runtimes.length - 1)];
+    long timeoutMs = Math.clamp((long) (percentileMs * safetyFactor),
+        Math.min(floorMs, defaultTimeout), defaultTimeout);
+    return new DerivedTimeout(runtimes.length, percentileMs, timeoutMs, now);
+  }
+
+  private String samplesKey(String language, String githubPath) {
+    return SAMPLES_PREFIX + language + ":" + githubPath;
+  }
+
+  record DerivedTimeout(int samples, long percentileMs, long timeoutMs, long computedAt) {
+
+  }
+}
@@ -0,0 +1,175 @@
+package com.cortex.backend.engine.internal.scheduling;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The execution slots of a language lane. Priority tasks are granted free slots first, but after
+ * {@code maxPriorityStreak} consecutive priority grants a waiting standard task gets the next
+ * slot, so standard tasks can't starve. Within each class, slots are shared between users by
+ * deficit round-robin, so one user's backlog can't delay the others.
+ */
+final class LaneGate {
+
+  private static final Long ANONYMOUS_USER = -1L;
+
+  private final int slots;
+  private final int maxPriorityStreak;
+  private final FairQueue priority;
+  private final FairQueue standard;
+  private int used;
+  private int priorityStreak;
+
+  LaneGate(int slots, int maxPriorityStreak, int userQuantum) {
+    this.slots = slots;
+    this.maxPriorityStreak = maxPriorityStreak;
+    this.priority = new FairQueue(userQuantum);
+    this.standard = new FairQueue(userQuantum);
+  }
+
+  synchronized void acquire(Long userId, boolean prioritized) throws InterruptedException {
+    Ticket ticket = new Ticket(userId != null ? userId : ANONYMOUS_USER);
+    FairQueue queue = prioritized ? priority : standard;
+    queue.add(ticket);
+    grant();
+    try {
+      while (!ticket.granted) {
+        wait();
+      }
+    } catch (InterruptedException e) {
+      if (ticket.granted) {
+        used--;
+      } else {
+        queue.remove(ticket);
+      }
+      grant();
+      throw e;
+    }
+  }
+
+  synchronized void release() {
+    used--;
+    grant();
+  }
+
+  synchronized int used() {
+    return used;
+  }
+
+  synchronized int waiting() {
+    return priority.size() + standard.size();
+  }
+
+  synchronized int waiting(boolean prioritized) {
+    return (prioritized ? priority : standard).size();
+  }
+
+  int slots() {
+    return slots;
+  }
+
+  private void grant() {
+    boolean granted = false;
+    while (used < slots) {
+      boolean standardsTurn = !standard.isEmpty()
+          && (priority.isEmpty() || priorityStreak >= maxPriorityStreak);
+      FairQueue queue = standardsTurn ? standard : priority;
+      Ticket next = queue.poll();
+      if (next == null) {
+        break;
+      }
+      next.granted = true;
+      used++;
+      priorityStreak = standardsTurn ? 0 : priorityStreak + 1;
+      granted = true;
+    }
+    if (granted) {
+      notifyAll();
+    }
+  }
+
+  private static final class Ticket {
+
+    private final Long userId;
+    private boolean granted;
+
+    private Ticket(Long userId) {
+      this.userId = userId;
+    }
+  }
+
+  /**
+   * Deficit round-robin over the users with waiting tasks. Every task costs one unit; a user's
+   * turn grants up to {@code quantum} tasks before the next user is served.
+   */
+  private static final class FairQueue {
+
+    private static final int TASK_COST = 1;
+
+    private final int quantum;
+    private final Map<Long, Deque<Ticket>> backlog = new HashMap<>();
+    private final Map<Long, Integer> deficit = new HashMap<>();
+    private final Deque<Long> active = new ArrayDeque<>();
+    private int size;
+
+    private FairQueue(int quantum) {
+      this.quantum = Math.max(TASK_COST, quantum);
+    }
+
+    void add(Ticket ticket) {
+      backlog.computeIfAbsent(ticket.userId, user -> {
+        active.addLast(user);
+        return new ArrayDeque<>();
+      }).addLast(ticket);
+      size++;
+    }
+
+    Ticket poll() {
+      Long user = active.peekFirst();
+      if (user == null) {
+        return null;
+      }
+      if (deficit.getOrDefault(user, 0) < TASK_COST) {
+        deficit.merge(user, quantum, Integer::sum);
+      }
+      Deque<Ticket> tickets = backlog.get(user);
+      Ticket ticket = tickets.pollFirst();
+      int left = deficit.merge(user, -TASK_COST, Integer::sum);
+      size--;
+
+      if (tickets.isEmpty()) {
+        forget(user);
+      } else if (left < TASK_COST) {
+        active.pollFirst();
+        active.addLast(user);
+      }
+      return ticket;
+    }
+
+    void remove(Ticket ticket) {
+      Deque<Ticket> tickets = backlog.get(ticket.userId);
+      if (tickets != null && tickets.remove(ticket)) {
+        size--;
+        if (tickets.isEmpty()) {
+          forget(ticket.userId);
+        }
+      }
+    }
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    int size() {
+      return size;
+    }
+
+    private void forget(Long user) {
+      backlog.remove(user);
+      deficit.remove(user);
+      active.remove(user);
+    }
+  }
+}
@@ -0,0 +1,223 @@
+package com.cortex.backend.engine.internal.scheduling;
+
+import com.cortex.backend.core.domain.Language;
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.model.Info;
+import com.github.dockerjava.core.DockerClientConfig;
+import com.sun.management.OperatingSystemMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Host-wide memory and CPU budget shared by every execution lane. An execution reserves its
+ * language's container limits before it starts and gives them back when it ends, so the sum of
+ * running container limits never exceeds the host. Unless configured, the budget is sized from
+ * the Docker daemon's host, which is not the backend's when the daemon is remote. Containers kept
+ * alive between runs hold memory too; an execution that doesn't fit asks for them to be closed.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ResourceBudget {
+
+  private static final long MB = 1024L * 1024L;
+  private static final String LOCAL_DOCKER_SCHEME = "unix";
+
+  private final MeterRegistry meterRegistry;
+  private final DockerClient dockerClient;
+  private final DockerClientConfig dockerClientConfig;
+
+  @Value("${engine.scheduler.memory-budget-mb:0}")
+  private long memoryBudgetMb;
+
+  @Value("${engine.scheduler.cpu-budget:0}")
+  private long cpuBudget;
+
+  private long totalMemory;
+  private long totalCpus;
+  private long usedMemory;
+  private long usedCpus;
+  private long retainedMemory;
+  private volatile Runnable reclaimer;
+
+  @PostConstruct
+  void init() {
+    if (memoryBudgetMb > 0 && cpuBudget > 0) {
+      totalMemory = memoryBudgetMb * MB;
+      totalCpus = cpuBudget;
+    } else {
+      long[] host = dockerHostResources();
+      totalMemory = memoryBudgetMb > 0 ? memoryBudgetMb * MB : host[0] * 3 / 4;
+      totalCpus = cpuBudget > 0 ? cpuBudget : host[1];
+    }
+    log.info("Execution budget: {} MB of memory, {} CPUs", totalMemory / MB, totalCpus);
+
+    Gauge.builder("engine.scheduler.budget.memory.used", this, ResourceBudget::usedMemory)
+        .baseUnit("bytes")
+        .description("Memory reserved by running executions")
+        .register(meterRegistry);
+    Gauge.builder("engine.scheduler.budget.cpu.used", this, ResourceBudget::usedCpus)
+        .description("CPUs reserved by running executions")
+        .register(meterRegistry);
+    Gauge.builder("engine.scheduler.budget.memory.retained", this,
+            ResourceBudget::retainedMemory)
+        .baseUnit("bytes")
+        .description("Memory reserved by containers kept alive between runs")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Sets what an execution that doesn't fit calls to close an idle retained container. It runs
+   * on its own thread, without the budget lock.
+   *
+   * @param reclaimer closes the least recently used idle container holding a retained
+   *                  reservation, if there is one
+   */
+  public void registerReclaimer(Runnable reclaimer) {
+    this.reclaimer = reclaimer;
+  }
+
+  /**
+   * Reserves memory for a container kept alive between runs, if it fits right now.
+   *
+   * @param memory the container memory limit, in bytes
+   * @return the reservation, empty if the budget has no room for it
+   */
+  public synchronized Optional<Reservation> tryRetain(long memory) {
+    if (usedMemory + memory > totalMemory) {
+      return Optional.empty();
+    }
+    usedMemory += memory;
+    retainedMemory += memory;
+    return Optional.of(new Reservation(memory, 0L, true));
+  }
+
+  /**
+   * Blocks until the limits of a language fit in the budget and reserves them. A language whose
+   * limits exceed the whole budget is clamped to it, so it can still run alone.
+   *
+   * @param language the language about to run
+   * @return the reservation, to be released when the execution ends
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public Reservation reserve(Language language) throws InterruptedException {
+    long memory = Math.min(valueOrZero(language.getDefaultMemoryLimit()), totalMemory);
+    long cpus = Math.min(valueOrZero(language.getDefaultCpuLimit()), totalCpus);
+
+    long start = System.nanoTime();
+    synchronized (this) {
+      while (usedMemory + memory > totalMemory || usedCpus + cpus > totalCpus) {
+        reclaim();
+        wait();
+      }
+      usedMemory += memory;
+      usedCpus += cpus;
+    }
+    Timer.builder("engine.scheduler.budget.wait")
+        .tag("language", language.getName())
+        .description("Time an execution waited for memory and CPU budget")
+        .register(meterRegistry)
+        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    return new Reservation(memory, cpus, false);
+  }
+
+  private void reclaim() {
+    Runnable current = reclaimer;
+    if (current != null && retainedMemory > 0) {
+      // The reclaimer takes its own lock and releases into this budget, never under ours
+      Thread.ofVirtual().start(current);
+    }
+  }
+
+  private synchronized void release(Reservation reservation) {
+    usedMemory -= reservation.memory();
+    usedCpus -= reservation.cpus();
+    if (reservation.retained) {
+      retainedMemory -= reservation.memory();
+    }
+    notifyAll();
+  }
+
+  private synchronized long usedMemory() {
+    return usedMemory;
+  }
+
+  private synchronized long usedCpus() {
+    return usedCpus;
+  }
+
+  private synchronized long retainedMemory() {
+    return retainedMemory;
+  }
+
+  private static long valueOrZero(Long value) {
+    return value != null ? value : 0L;
+  }
+
+  /**
+   * Reads the memory, in bytes, and the CPUs of the host the containers run on. The backend's
+   * own host only stands in for a local daemon that can't be asked.
+   */
+  private long[] dockerHostResources() {
+    URI dockerHost = dockerClientConfig.getDockerHost();
+    try {
+      Info info = dockerClient.infoCmd().exec();
+      if (info.getMemTotal() != null && info.getNCPU() != null) {
+        return new long[]{info.getMemTotal(), info.getNCPU()};
+      }
+    } catch (Exception e) {
+      log.warn("Could not read the resources of Docker host {}: {}", dockerHost, e.getMessage());
+    }
+    if (!LOCAL_DOCKER_SCHEME.equals(dockerHost.getScheme())) {
+      throw new IllegalStateException("Cannot size the execution budget of Docker host "
+          + dockerHost + ", set engine.scheduler.memory-budget-mb and engine.scheduler.cpu-budget");
+    }
+    return new long[]{
+        ((OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+            .getTotalMemorySize(),
+        Runtime.getRuntime().availableProcessors()};
+  }
+
+  /**
+   * Memory and CPUs held by a running execution.
+   */
+  public final class Reservation implements AutoCloseable {
+
+    private final long memory;
+    private final long cpus;
+    private final boolean retained;
+    private boolean released;
+
+    private Reservation(long memory, long cpus, boolean retained) {
+      this.memory = memory;
+      this.cpus = cpus;
+      this.retained = retained;
+    }
+
+    long memory() {
+      return memory;
+    }
+
+    long cpus() {
+      return cpus;
+    }
+
+    @Override
+    public void close() {
+      if (!released) {
+        released = true;
+        release(this);
+      }
+    }
+  }
+}
@@ -0,0 +1,157 @@
+package com.cortex.backend.engine.internal.scheduling;
+
+import com.cortex.backend.core.common.exception.RateLimitExceededException;
+import com.cortex.backend.engine.api.dto.UserInFlight;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limits code submissions per user across every node: a token bucket bounds the submission rate
+ * and an in-flight set of task ids bounds the tasks a user can have queued or running. Both live
+ * in Redis and are checked and updated by one script, so concurrent submissions can't overshoot.
+ * Tracking ids rather than a count makes releasing a task idempotent, so a task can be released
+ * as soon as it is cancelled and again when its consumer finishes with it.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SubmissionRateLimiter {
+
+  private static final String BUCKET_PREFIX = "rate:submit:";
+  private static final String IN_FLIGHT_PREFIX = "exec:inflight-tasks:";
+  private static final long IN_FLIGHT_EXCEEDED = -1L;
+
+  // KEYS: bucket, in-flight task set
+  // ARGV: capacity, tokens per ms, now in ms, max in flight, in-flight ttl in ms, task id
+  // Returns 0 when admitted, -1 when the in-flight limit is reached, else the ms until a token
+  private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>("""
+      local capacity = tonumber(ARGV[1])
+      local rate = tonumber(ARGV[2])
+      local now = tonumber(ARGV[3])
+      local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+      local tokens = tonumber(bucket[1]) or capacity
+      local ts = tonumber(bucket[2]) or now
+      tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate)
+      local inFlight = redis.call('SCARD', KEYS[2])
+      local result = 0
+      if inFlight >= tonumber(ARGV[4]) then
+        result = -1
+      elseif tokens < 1 then
+        result = math.ceil((1 - tokens) / rate)
+      else
+        tokens = tokens - 1
+        redis.call('SADD', KEYS[2], ARGV[6])
+        redis.call('PEXPIRE', KEYS[2], ARGV[5])
+      end
+      redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(now))
+      redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / rate))
+      return result
+      """, Long.class);
+
+  private final StringRedisTemplate stringRedisTemplate;
+
+  @Value("${engine.rate-limit.enabled:true}")
+  private boolean enabled;
+
+  @Value("${engine.rate-limit.capacity:10}")
+  private long capacity;
+
+  @Value("${engine.rate-limit.refill-per-minute:6}")
+  private long refillPerMinute;
+
+  @Value("${engine.rate-limit.max-in-flight:3}")
+  private long maxInFlight;
+
+  @Value("${engine.rate-limit.in-flight-ttl-ms:900000}")
+  private long inFlightTtlMs;
+
+  @Value("${engine.rate-limit.in-flight-retry-after-seconds:5}")
+  private long inFlightRetryAfterSeconds;
+
+  /**
+   * Takes a submission token for a user and counts the task as in flight.
+   *
+   * @param userId the submitting user
+   * @param taskId the submitted task
+   * @throws RateLimitExceededException if the user is out of tokens or has too many tasks in
+   *                                    flight
+   */
+  public void acquire(Long userId, String taskId) {
+    if (!enabled) {
+      return;
+    }
+    double tokensPerMs = refillPerMinute / 60_000d;
+    Long result = stringRedisTemplate.execute(ACQUIRE_SCRIPT,
+        List.of(BUCKET_PREFIX + userId, IN_FLIGHT_PREFIX + userId),
+        String.valueOf(capacity),
+        String.valueOf(tokensPerMs),
+        String.valueOf(System.currentTimeMillis()),
+        String.valueOf(maxInFlight),
+        String.valueOf(inFlightTtlMs),
+        taskId);
+
+    if (result == null || result == 0L) {
+      return;
+    }
+    if (result == IN_FLIGHT_EXCEEDED) {
+      log.debug("User {} has {} executions in flight", userId, maxInFlight);
+      throw new RateLimitExceededException(
+          String.format("You already have %d executions running, wait for one to finish",
+              maxInFlight),
+          inFlightRetryAfterSeconds);
+    }
+    long retryAfterSeconds = Math.max(1L, (result + 999) / 1000);
+    log.debug("User {} is out of submission tokens for {} s", userId, retryAfterSeconds);
+    throw new RateLimitExceededException("Too many submissions, please wait before running again",
+        retryAfterSeconds);
+  }
+
+  /**
+   * Stops counting a task of a user as in flight. Releasing a task twice is harmless.
+   *
+   * @param userId the user owning the task, may be {@code null} for legacy tasks
+   * @param taskId the task
+   */
+  public void release(Long userId, String taskId) {
+    if (!enabled || userId == null) {
+      return;
+    }
+    try {
+      stringRedisTemplate.opsForSet().remove(IN_FLIGHT_PREFIX + userId, taskId);
+    } catch (Exception e) {
+      log.warn("Failed to release in-flight task {} of user {}: {}", taskId, userId,
+          e.getMessage());
+    }
+  }
+
+  /**
+   * Lists the users with tasks queued or running, busiest first.
+   *
+   * @return the in-flight count of each user
+   */
+  public List<UserInFlight> getInFlight() {
+    List<UserInFlight> users = new ArrayList<>();
+    ScanOptions options = ScanOptions.scanOptions().match(IN_FLIGHT_PREFIX + "*").count(500).build();
+    try (Cursor<String> keys = stringRedisTemplate.scan(options)) {
+      keys.forEachRemaining(key -> {
+        Long count = stringRedisTemplate.opsForSet().size(key);
+        if (count != null && count > 0) {
+          users.add(new UserInFlight(Long.valueOf(key.substring(IN_FLIGHT_PREFIX.length())),
+              count));
+        }
+      });
+    }
+    users.sort(Comparator.comparingLong(UserInFlight::inFlight).reversed());
+    return users;
+  }
+}
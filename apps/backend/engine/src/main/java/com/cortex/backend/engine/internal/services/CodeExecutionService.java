@@ -1,12 +1,12 @@
 package com.cortex.backend.engine.internal.services;
 
-import static com.cortex.backend.engine.internal.utils.Constants.CODE_EXECUTION_QUEUE;
 import static com.cortex.backend.engine.internal.utils.Constants.RESULT_EXPIRATION_HOURS;
 import static com.cortex.backend.engine.internal.utils.Constants.RESULT_KEY_PREFIX;
 
 import com.cortex.backend.core.common.BusinessErrorCodes;
 import com.cortex.backend.core.common.exception.InvalidExerciseStateException;
-import com.cortex.backend.core.common.exception.ResultNotAvailableException;
+import com.cortex.backend.core.common.exception.OperationNotPermittedException;
+import com.cortex.backend.core.common.exception.ResourceNotFoundException;
 import com.cortex.backend.core.common.exception.UnsupportedLanguageException;
 import com.cortex.backend.core.domain.EntityType;
 import com.cortex.backend.core.domain.Exercise;
@@ -19,23 +19,40 @@ import com.cortex.backend.engine.api.LanguageRepository;
 import com.cortex.backend.engine.api.SubmissionService;
 import com.cortex.backend.engine.api.dto.CodeExecutionRequest;
 import com.cortex.backend.engine.api.dto.CodeExecutionResult;
+import com.cortex.backend.engine.api.dto.CodeExecutionSubmissionResponse;
 import com.cortex.backend.engine.api.dto.CodeExecutionTask;
+import com.cortex.backend.engine.api.dto.ExecutionStatus;
+import com.cortex.backend.engine.api.dto.ExecutionStatusResponse;
 import com.cortex.backend.engine.api.dto.SubmissionResponse;
 import com.cortex.backend.engine.api.dto.TestCaseResult;
+import com.cortex.backend.engine.internal.bundle.ExerciseBundle;
+import com.cortex.backend.engine.internal.bundle.ExerciseBundleStore;
+import com.cortex.backend.engine.internal.cache.ExecutionCoalescer;
+import com.cortex.backend.engine.internal.cache.ExecutionResultCache;
 import com.cortex.backend.engine.internal.docker.DockerExecutionService;
+import com.cortex.backend.engine.internal.docker.ExecutionLifecycle;
+import com.cortex.backend.engine.internal.docker.ExecutionPhase;
 import com.cortex.backend.engine.internal.parser.TestResultParser;
 import com.cortex.backend.engine.internal.parser.TestResultParserFactory;
+import com.cortex.backend.engine.internal.scheduling.AdmissionController;
+import com.cortex.backend.engine.internal.scheduling.AdmissionController.QueueEstimate;
+import com.cortex.backend.engine.internal.scheduling.ExecutionCanceller;
+import com.cortex.backend.engine.internal.scheduling.ExecutionQueues;
+import com.cortex.backend.engine.internal.scheduling.SubmissionRateLimiter;
+import com.cortex.backend.engine.internal.streaming.ExecutionOutputPublisher.BatchedOutput;
+import com.cortex.backend.engine.internal.streaming.ExecutionOutputPublisher;
+import com.cortex.backend.engine.internal.streaming.ExecutionStatusTracker;
+import com.cortex.backend.payments.api.EntitlementService;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.time.LocalDateTime;
 import java.util.Base64;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
@@ -48,18 +65,26 @@ public class CodeExecutionService {
 
   private final LanguageRepository languageRepository;
   private final ExerciseRepository exerciseRepository;
-  private final RabbitTemplate rabbitTemplate;
+  private final ExecutionQueues executionQueues;
   private final RedisTemplate<String, CodeExecutionResult> redisTemplate;
   private final DockerExecutionService dockerExecutionService;
   private final SubmissionService submissionService;
   private final ProgressTrackingService progressTrackingService;
   private final ApplicationEventPublisher eventPublisher;
-
-  @Value("${github.exercises.local-path}")
-  private String localExercisesPath;
+  private final ExerciseBundleStore exerciseBundleStore;
+  private final ExecutionOutputPublisher outputPublisher;
+  private final MeterRegistry meterRegistry;
+  private final ExecutionResultCache executionResultCache;
+  private final ExecutionCoalescer executionCoalescer;
+  private final EntitlementService entitlementService;
+  private final SubmissionRateLimiter submissionRateLimiter;
+  private final AdmissionController admissionController;
+  private final ExecutionStatusTracker statusTracker;
+  private final ExecutionCanceller executionCanceller;
 
   @Transactional
-  public String submitCodeExecution(CodeExecutionRequest request, Long userId) {
+  public CodeExecutionSubmissionResponse submitCodeExecution(CodeExecutionRequest request,
+      Long userId) {
     Exercise exercise = exerciseRepository.findById(request.exerciseId())
         .orElseThrow(() -> new IllegalArgumentException("Exercise not found"));
 
@@ -69,35 +94,142 @@ public class CodeExecutionService {
       throw new UnsupportedLanguageException("Unsupported language: " + request.language());
     }
 
+    ExerciseBundle bundle = exerciseBundleStore.current(exercise.getGithubPath());
+
+    // Shed load before anything is persisted or counted against the user
+    boolean priority = entitlementService.hasActiveSubscription(String.valueOf(userId));
+    QueueEstimate estimate = admissionController.admit(request.language(), priority);
+
+    // Replacing a task frees its slot right away, its consumer releasing it again is harmless
     String taskId = UUID.randomUUID().toString();
-    SubmissionResponse submission = submissionService.createSubmission(request, userId);
-    CodeExecutionTask task = new CodeExecutionTask(taskId, request,
-        exercise.getGithubPath(), submission.getId(), userId);
-    rabbitTemplate.convertAndSend(CODE_EXECUTION_QUEUE, task);
+    executionCanceller.supersede(userId, request.exerciseId(), taskId)
+        .ifPresent(previous -> submissionRateLimiter.release(userId, previous));
+
+    submissionRateLimiter.acquire(userId, taskId);
+    try {
+      SubmissionResponse submission = submissionService.createSubmission(request, userId);
+      CodeExecutionTask task = new CodeExecutionTask(taskId, request,
+          exercise.getGithubPath(), submission.getId(), userId, bundle.revision(), priority);
+      statusTracker.queued(taskId, userId, request.language(), estimate.position());
+      executionQueues.dispatch(task);
+
+      return new CodeExecutionSubmissionResponse(
+          taskId,
+          "SUBMITTED",
+          "Code execution task submitted successfully",
+          LocalDateTime.now(),
+          estimate.position(),
+          estimate.etaSeconds()
+      );
+    } catch (RuntimeException e) {
+      submissionRateLimiter.release(userId, taskId);
+      throw e;
+    }
+  }
+
+  public Optional<CodeExecutionResult> findExecutionResult(String taskId) {
+    return Optional.ofNullable(redisTemplate.opsForValue().get(RESULT_KEY_PREFIX + taskId));
+  }
+
+  public Optional<ExecutionStatusResponse> findExecutionStatus(String taskId) {
+    return statusTracker.find(taskId);
+  }
 
-    return taskId;
+  /**
+   * Checks that a task was submitted by a user before exposing anything about it.
+   *
+   * @param taskId the task id
+   * @param userId the user asking for the task
+   * @throws ResourceNotFoundException      if the task is unknown or expired
+   * @throws OperationNotPermittedException if the task belongs to another user
+   */
+  public void verifyOwnership(String taskId, Long userId) {
+    Long owner = statusTracker.ownerOf(taskId)
+        .orElseThrow(() -> new ResourceNotFoundException("Execution task not found: " + taskId));
+    if (!owner.equals(userId)) {
+      throw new OperationNotPermittedException("You can only access your own executions");
+    }
   }
 
-  public CodeExecutionResult getExecutionResult(String taskId) {
-    CodeExecutionResult result = redisTemplate.opsForValue().get(RESULT_KEY_PREFIX + taskId);
+  /**
+   * Cancels a task of a user. Finished tasks are left untouched.
+   *
+   * @param taskId the task to cancel
+   * @param userId the user asking for the cancellation
+   */
+  public void cancelExecution(String taskId, Long userId) {
+    ExecutionStatusResponse status = statusTracker.find(taskId)
+        .orElseThrow(() -> new ResourceNotFoundException("Execution task not found: " + taskId));
+    Long owner = statusTracker.ownerOf(taskId).orElse(null);
+    if (!userId.equals(owner)) {
+      throw new OperationNotPermittedException("You can only cancel your own executions");
+    }
 
-    if (result == null) {
-      log.error("Execution result not available yet for task: {}", taskId);
-      throw new ResultNotAvailableException("Execution result not available yet");
+    switch (status.status()) {
+      case DONE, FAILED, CANCELLED -> log.debug("Task {} already finished", taskId);
+      default -> {
+        executionCanceller.cancel(taskId, "user");
+        submissionRateLimiter.release(userId, taskId);
+      }
     }
+  }
 
-    return result;
+  /**
+   * Joins the flight of identical executions a task belongs to, unless the task is cancelled or
+   * its result is already cached. The result cache is only read here, a cached result is handed
+   * to {@link #processCodeExecution} through the flight.
+   *
+   * @param task the received task
+   * @return the flight, to be passed to {@link #processCodeExecution} and closed afterwards
+   */
+  public ExecutionCoalescer.Flight joinFlight(CodeExecutionTask task) {
+    try {
+      if (executionCanceller.isCancelled(task.taskId())) {
+        return executionCoalescer.solo();
+      }
+      String decodedCode = new String(Base64.getDecoder().decode(task.request().code()));
+      String cacheKey = executionResultCache.keyFor(task.exerciseRevision(),
+          task.request().language(), decodedCode);
+      Optional<CodeExecutionResult> cached = executionResultCache.get(cacheKey);
+      if (cached.isPresent()) {
+        log.info("Serving cached result for exercise {} ({})", task.request().exerciseId(),
+            task.exerciseRevision());
+        CodeExecutionResult result = cached.get();
+        result.setCached(true);
+        return executionCoalescer.resolved(result);
+      }
+      return executionCoalescer.join(cacheKey);
+    } catch (Exception e) {
+      log.warn("Not coalescing task {}: {}", task.taskId(), e.getMessage());
+      return executionCoalescer.solo();
+    }
   }
 
   @Transactional
-  public void processCodeExecution(CodeExecutionTask task) {
+  public void processCodeExecution(CodeExecutionTask task, ExecutionCoalescer.Flight flight) {
     try {
+      if (executionCanceller.isCancelled(task.taskId())) {
+        log.info("Dropping cancelled task {}", task.taskId());
+        saveCancelledResult(task, CodeExecutionResult.builder()
+            .language(task.request().language())
+            .exerciseId(task.request().exerciseId())
+            .build());
+        return;
+      }
+
       Exercise exercise = exerciseRepository.findById(task.request().exerciseId())
           .orElseThrow(() -> new EntityNotFoundException("Exercise not found"));
 
       validateExerciseState(exercise);
 
-      CodeExecutionResult result = executeCode(task.request(), task.githubPath());
+      ExerciseBundle bundle = exerciseBundleStore.resolve(task.githubPath(),
+          task.exerciseRevision());
+      CodeExecutionResult result = executeCode(task.request(), bundle, task.taskId(),
+          task.userId(), flight);
+      if (result.isCancelled() || executionCanceller.isCancelled(task.taskId())) {
+        saveCancelledResult(task, result);
+        return;
+      }
       submissionService.updateSubmissionWithResult(task.submissionId(), result);
 
       if (result.isSuccess()) {
@@ -109,21 +241,35 @@ public class CodeExecutionService {
         );
       }
 
-      saveExecutionResult(task.taskId(), result);
+      saveExecutionResult(task, result, ExecutionStatus.DONE);
 
     } catch (Exception e) {
       log.error("Error processing code execution task: {}", e.getMessage(), e);
       handleExecutionError(task, e);
+    } finally {
+      submissionRateLimiter.release(task.userId(), task.taskId());
     }
   }
 
-  private void saveExecutionResult(String taskId, CodeExecutionResult result) {
+  private void saveExecutionResult(CodeExecutionTask task, CodeExecutionResult result,
+      ExecutionStatus status) {
     redisTemplate.opsForValue().set(
-        RESULT_KEY_PREFIX + taskId,
+        RESULT_KEY_PREFIX + task.taskId(),
         result,
         RESULT_EXPIRATION_HOURS,
         TimeUnit.HOURS
     );
+    outputPublisher.publishResult(task.taskId(), result);
+    outputPublisher.publishCompletion(task.taskId(), task.userId(), result);
+    statusTracker.advance(task.taskId(), status);
+  }
+
+  private void saveCancelledResult(CodeExecutionTask task, CodeExecutionResult result) {
+    result.setSuccess(false);
+    result.setCancelled(true);
+    result.setStderr("Execution cancelled");
+    submissionService.updateSubmissionWithResult(task.submissionId(), result);
+    saveExecutionResult(task, result, ExecutionStatus.CANCELLED);
   }
 
   private void handleExecutionError(CodeExecutionTask task, Exception e) {
@@ -134,53 +280,103 @@ public class CodeExecutionService {
         .exerciseId(task.request().exerciseId())
         .build();
 
-    saveExecutionResult(task.taskId(), errorResult);
+    saveExecutionResult(task, errorResult, ExecutionStatus.FAILED);
   }
 
 
-  private CodeExecutionResult executeCode(CodeExecutionRequest request, String githubPath) {
+  private CodeExecutionResult executeCode(CodeExecutionRequest request, ExerciseBundle bundle,
+      String taskId, Long userId, ExecutionCoalescer.Flight flight) {
     try {
       String decodedCode = new String(Base64.getDecoder().decode(request.code()));
-      Path exercisePath = Paths.get(localExercisesPath, githubPath);
 
+      String cacheKey = executionResultCache.keyFor(bundle.revision(), request.language(),
+          decodedCode);
+      CodeExecutionResult result = flight.execute(
+          () -> runExecution(request, bundle, taskId, userId, decodedCode, cacheKey));
+      result.setExerciseId(request.exerciseId());
+      return result;
+    } catch (Exception e) {
+      log.error("Unexpected error executing code", e);
+      return CodeExecutionResult.builder()
+          .success(false)
+          .stderr("Unexpected error: " + e.getMessage())
+          .language(request.language())
+          .exerciseId(request.exerciseId())  
+          .exerciseRevision(bundle.revision())
+          .build();
+    }
+  }
+
+  private CodeExecutionResult runExecution(CodeExecutionRequest request, ExerciseBundle bundle,
+      String taskId, Long userId, String decodedCode, String cacheKey) {
+    try {
+      ExecutionLifecycle lifecycle = new ExecutionLifecycle(request.language(), meterRegistry,
+          phase -> statusTracker.advance(taskId, phase));
       log.info("Executing code for language: {}", request.language());
-      log.info("Exercise path: {}", exercisePath);
+      log.info("Exercise bundle: {} ({})", bundle.manifest().githubPath(), bundle.revision());
       log.info("Decoded code length: {}", decodedCode.length());
       log.debug("Decoded code content: \n{}", decodedCode);
 
-      DockerExecutionService.ExecutionResult dockerResult = dockerExecutionService.executeCode(
-          decodedCode,
-          exercisePath,
-          request.language()
-      );
-      Thread.sleep(500);
+      DockerExecutionService.ExecutionResult dockerResult;
+      try (BatchedOutput output = outputPublisher.listenerFor(taskId)) {
+        dockerResult = dockerExecutionService.executeCode(
+            taskId,
+            userId,
+            decodedCode,
+            bundle,
+            request.language(),
+            output,
+            lifecycle
+        );
+      }
       log.info("Docker execution result - Exit code: {}", dockerResult.exitCode());
       log.info("Docker execution stdout: \n{}", dockerResult.stdout());
       log.info("Docker execution stderr: \n{}", dockerResult.stderr());
 
-      List<TestCaseResult> testCaseResults = parseTestResults(
-          dockerResult.stdout(),
-          dockerResult.stderr(),
-          request.language()
-      );
+      lifecycle.enter(ExecutionPhase.PARSING);
+      List<TestCaseResult> testCaseResults = dockerResult.testResults() != null
+          ? dockerResult.testResults()
+          : parseTestResults(dockerResult.stdout(), dockerResult.stderr(), request.language());
+      lifecycle.finish();
 
-      return CodeExecutionResult.builder()
+      CodeExecutionResult result = CodeExecutionResult.builder()
           .success(dockerResult.exitCode() == 0)
           .stdout(dockerResult.stdout())
           .stderr(dockerResult.stderr())
           .executionTime((int) dockerResult.executionTime())
           .language(request.language())
           .memoryUsed((int) dockerResult.memoryUsed())
+          .compileTime(dockerResult.compileTime())
+          .testTime(dockerResult.testTime())
+          .cpuTime(TimeUnit.NANOSECONDS.toMillis(dockerResult.resources().cpuTimeNanos()))
+          .cpuThrottledTime(
+              TimeUnit.NANOSECONDS.toMillis(dockerResult.resources().throttledTimeNanos()))
+          .cpuThrottledPeriods(dockerResult.resources().throttledPeriods())
           .exerciseId(request.exerciseId())  
+          .exerciseRevision(bundle.revision())
+          .phaseTimings(lifecycle.timings())
+          .compileCacheHit(dockerResult.compileCacheHit())
           .testCaseResults(testCaseResults)
           .build();
+
+      if (executionCanceller.isCancelled(taskId)) {
+        result.setCancelled(true);
+        return result;
+      }
+      // Only verdicts on the code are shared, not timeouts, kills or dependency trouble.
+      // Warm runs share a container with earlier runs of the user, their verdict is theirs only
+      if (dockerResult.cacheable() && !dockerResult.warmSession()) {
+        executionResultCache.put(bundle.manifest().githubPath(), cacheKey, result);
+      }
+      return result;
     } catch (Exception e) {
       log.error("Unexpected error executing code", e);
       return CodeExecutionResult.builder()
           .success(false)
           .stderr("Unexpected error: " + e.getMessage())
           .language(request.language())
-          .exerciseId(request.exerciseId())  
+          .exerciseId(request.exerciseId())
+          .exerciseRevision(bundle.revision())
           .build();
     }
   }
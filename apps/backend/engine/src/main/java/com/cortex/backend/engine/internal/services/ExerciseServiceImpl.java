@@ -3,7 +3,6 @@ package com.cortex.backend.engine.internal.services;
 import com.cortex.backend.auth.config.ApplicationAuditAware;
 import com.cortex.backend.core.common.PageResponse;
 import com.cortex.backend.core.common.exception.ExerciseCreationException;
-import com.cortex.backend.core.common.exception.ExerciseReadException;
 import com.cortex.backend.core.domain.Exercise;
 import com.cortex.backend.core.domain.ExerciseDifficulty;
 import com.cortex.backend.core.domain.ExerciseStatus;
@@ -20,21 +19,18 @@ import com.cortex.backend.engine.api.dto.UpdateExercise;
 import com.cortex.backend.engine.internal.CodeFileReader;
 import com.cortex.backend.engine.internal.ContentData;
 import com.cortex.backend.engine.internal.ExerciseConfig;
+import com.cortex.backend.engine.internal.bundle.ExerciseBundle;
+import com.cortex.backend.engine.internal.bundle.ExerciseBundleStore;
 import com.cortex.backend.engine.internal.mappers.ExerciseMapper;
 import com.cortex.backend.user.api.UserService;
 import com.cortex.backend.user.api.dto.UserResponse;
 import jakarta.persistence.EntityNotFoundException;
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -57,10 +53,7 @@ public class ExerciseServiceImpl implements ExerciseService {
   private final ExerciseMapper exerciseMapper;
   private final UserService userService;
   private final CodeFileReader codeFileReader;
-
-
-  @Value("${github.exercises.local-path}")
-  private String localRepoPath;
+  private final ExerciseBundleStore exerciseBundleStore;
 
   @Override
   @Transactional
@@ -191,65 +184,21 @@ public class ExerciseServiceImpl implements ExerciseService {
   public ExerciseDetailsResponse getExerciseDetails(Long id) {
     Exercise exercise = exerciseRepository.findById(id)
         .orElseThrow(() -> new EntityNotFoundException("Exercise not found with id: " + id));
-    Path exercisePath = Paths.get(localRepoPath, exercise.getGithubPath());
-    try {
-      String language = determineLanguage(exercise.getGithubPath());
-      String initialCode;
-      String testCode;
-      String fileName;
-
-      if ("go".equals(language)) {
-        fileName = findFileByExtension(exercisePath, ".go", false);
-        initialCode = codeFileReader.readFileContent(exercisePath.resolve(fileName));
-        String testFileName = findFileByExtension(exercisePath, ".go", true);
-        testCode = codeFileReader.readFileContent(exercisePath.resolve(testFileName));
-      } else if ("python".equals(language)) {
-        fileName = findFileByExtension(exercisePath, ".py", false);
-        initialCode = codeFileReader.readFileContent(exercisePath.resolve(fileName));
-        String testFileName = findFileByExtension(exercisePath, ".py", true);
-        testCode = codeFileReader.readFileContent(exercisePath.resolve(testFileName));
-      } else {
-        initialCode = codeFileReader.readInitialCode(exercisePath);
-        testCode = codeFileReader.readTestCode(exercisePath);
-        fileName = determineFileName(exercisePath, language);
-      }
-
-      return ExerciseDetailsResponse.builder()
-          .id(exercise.getId())
-          .title(exercise.getTitle())
-          .instructions(exercise.getInstructions())
-          .hints(exercise.getHints())
-          .initialCode(initialCode)
-          .testCode(testCode)
-          .lessonName(exercise.getLesson().getName())
-          .fileName(fileName)
-          .language(language)
-          .slug(exercise.getSlug())
-          .build();
-    } catch (IOException e) {
-      log.error("Error reading exercise files for exercise id: {}", id, e);
-      throw new ExerciseReadException("Failed to read exercise files", e);
-    }
-  }
-
-  private String findFileByExtension(Path exercisePath, String extension, boolean isTestFile) throws IOException {
-    try (Stream<Path> paths = Files.walk(exercisePath)) {
-      return paths
-          .filter(Files::isRegularFile)
-          .filter(path -> path.toString().endsWith(extension))
-          .filter(path -> {
-            String fileName = path.getFileName().toString().toLowerCase();
-            if (isTestFile) {
-              return fileName.startsWith("test_") || fileName.endsWith("_test" + extension);
-            } else {
-              return !fileName.startsWith("test_") && !fileName.endsWith("_test" + extension);
-            }
-          })
-          .findFirst()
-          .map(Path::getFileName)
-          .map(Path::toString)
-          .orElseThrow(() -> new IOException("File with extension " + extension + " not found in " + exercisePath));
-    }
+    ExerciseBundle bundle = exerciseBundleStore.current(exercise.getGithubPath());
+    Path testFile = bundle.testFile();
+
+    return ExerciseDetailsResponse.builder()
+        .id(exercise.getId())
+        .title(exercise.getTitle())
+        .instructions(exercise.getInstructions())
+        .hints(exercise.getHints())
+        .initialCode(codeFileReader.readFileContent(bundle.mainFile()))
+        .testCode(testFile != null ? codeFileReader.readFileContent(testFile) : "")
+        .lessonName(exercise.getLesson().getName())
+        .fileName(bundle.mainFile().getFileName().toString())
+        .language(bundle.manifest().language())
+        .slug(exercise.getSlug())
+        .build();
   }
 
   @Override
@@ -433,38 +382,4 @@ public class ExerciseServiceImpl implements ExerciseService {
     return lessonRepository.findBySlug(lessonSlug)
         .orElseThrow(() -> new IllegalArgumentException("Lesson not found with id: " + lessonSlug));
   }
-
-  private String determineLanguage(String githubPath) {
-    String[] parts = githubPath.split("/");
-    if (parts.length > 1) {
-      return parts[1];
-    }
-    return "unknown";
-  }
-
-  private String determineFileName(Path exercisePath, String language) throws IOException {
-    try (Stream<Path> paths = Files.walk(exercisePath)) {
-      return paths
-          .filter(Files::isRegularFile)
-          .map(Path::getFileName)
-          .map(Path::toString)
-          .filter(name -> name.endsWith(getFileExtension(language)))
-          .filter(name -> !name.contains("test") && !name.contains("Test"))
-          .findFirst()
-          .orElse("main" + getFileExtension(language));
-    }
-  }
-
-  private String getFileExtension(String language) {
-    // Mapeo de lenguajes a extensiones de archivo
-    return switch (language.toLowerCase()) {
-      case "java" -> ".java";
-      case "python" -> ".py";
-      case "javascript" -> ".js";
-      case "typescript" -> ".ts";
-      case "go" -> ".go";
-      case "rust" -> ".rs";
-      default -> ".txt";
-    };
-  }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 package com.cortex.backend.engine.internal.services;
 
 import com.cortex.backend.core.common.SlugUtils;
+import com.cortex.backend.core.common.exception.ExerciseReadException;
 import com.cortex.backend.core.common.exception.GitSyncException;
 import com.cortex.backend.core.common.exception.InvalidConfigurationException;
 import com.cortex.backend.core.common.exception.InvalidPrerequisiteException;
@@ -9,6 +10,9 @@ import com.cortex.backend.engine.api.ExerciseRepository;
 import com.cortex.backend.engine.api.ExerciseService;
 import com.cortex.backend.engine.config.ExerciseConfigProcessor;
 import com.cortex.backend.engine.internal.ExerciseConfig;
+import com.cortex.backend.engine.internal.cache.DependencyCacheManager;
+import com.cortex.backend.engine.internal.docker.ExerciseImageManager;
+import com.cortex.backend.engine.internal.bundle.ExerciseBundleStore;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import java.io.IOException;
@@ -45,6 +49,9 @@ public class GithubSyncService {
   private final ExerciseRepository exerciseRepository;
   private final ExerciseConfigProcessor configProcessor;
   private final SlugUtils slugUtils;
+  private final DependencyCacheManager dependencyCacheManager;
+  private final ExerciseBundleStore exerciseBundleStore;
+  private final ExerciseImageManager exerciseImageManager;
 
   @Value("${github.exercises.repo-url}")
   private String repoUrl;
@@ -208,11 +215,15 @@ public class GithubSyncService {
       return;
     }
 
-    int updatedCount = processLanguageDirectories(exercisesDir);
+    String commitId = resolveHeadCommit(localPath);
+    int updatedCount = processLanguageDirectories(exercisesDir, commitId);
     log.info("Updated or created {} exercises", updatedCount);
 
     log.info("Processing pending prerequisites...");
     configProcessor.processAllPendingPrerequisites();
+
+    dependencyCacheManager.seedAsync(exercisesDir.toPath());
+    exerciseImageManager.rebuildIfChanged(exercisesDir.toPath());
   }
 
 
@@ -220,18 +231,31 @@ public class GithubSyncService {
     return !directory.exists() || !directory.isDirectory();
   }
 
-  private int processLanguageDirectories(File exercisesDir) {
+  private String resolveHeadCommit(Path localPath) {
+    try (Repository repository = new FileRepositoryBuilder()
+        .setGitDir(new File(localPath.toFile(), ".git"))
+        .readEnvironment()
+        .build()) {
+      ObjectId head = repository.resolve("HEAD");
+      return head != null ? head.getName() : "unknown";
+    } catch (IOException e) {
+      log.warn("Could not resolve HEAD of {}: {}", localPath, e.getMessage());
+      return "unknown";
+    }
+  }
+
+  private int processLanguageDirectories(File exercisesDir, String commitId) {
     int totalUpdated = 0;
     for (File languageDir : Objects.requireNonNull(exercisesDir.listFiles(File::isDirectory))) {
       if (isHiddenOrSystemDirectory(languageDir)) {
         continue;
       }
-      totalUpdated += processPracticeDirectory(languageDir);
+      totalUpdated += processPracticeDirectory(languageDir, commitId);
     }
     return totalUpdated;
   }
 
-  private int processPracticeDirectory(File languageDir) {
+  private int processPracticeDirectory(File languageDir, String commitId) {
     log.info("Processing language directory: {}", languageDir.getName());
     File practiceDir = new File(languageDir, "practice");
     log.info("Practice directory: {}", practiceDir);
@@ -241,17 +265,18 @@ public class GithubSyncService {
       return 0;
     }
 
-    return processExerciseDirectories(practiceDir, languageDir.getName());
+    return processExerciseDirectories(practiceDir, languageDir.getName(), commitId);
   }
 
-  private int processExerciseDirectories(File practiceDir, String languageName) {
+  private int processExerciseDirectories(File practiceDir, String languageName,
+      String commitId) {
     int updatedCount = 0;
     for (File exerciseDir : Objects.requireNonNull(practiceDir.listFiles(File::isDirectory))) {
       if (isHiddenOrSystemDirectory(exerciseDir)) {
         continue;
       }
       log.info("Processing exercise: {}", exerciseDir.getName());
-      if (updateExercise(exerciseDir, languageName)) {
+      if (updateExercise(exerciseDir, languageName, commitId)) {
         updatedCount++;
       }
     }
@@ -263,7 +288,7 @@ public class GithubSyncService {
     return directory.isHidden() || directory.getName().startsWith(".");
   }
 
-  private boolean updateExercise(File exerciseDir, String language) {
+  private boolean updateExercise(File exerciseDir, String language, String commitId) {
     String exerciseName = exerciseDir.getName();
     String githubPath =
         "exercises" + File.separatorChar + language + File.separatorChar + "practice"
@@ -307,6 +332,7 @@ public class GithubSyncService {
           tags
       );
 
+      publishBundle(githubPath, commitId);
       return true;
     } catch (InvalidConfigurationException e) {
       log.error("Configuration error in exercise {}: {}", exerciseName, e.getMessage());
@@ -318,6 +344,14 @@ public class GithubSyncService {
   }
 
 
+  private void publishBundle(String githubPath, String commitId) {
+    try {
+      exerciseBundleStore.publish(githubPath, commitId);
+    } catch (ExerciseReadException e) {
+      log.error("Failed to publish bundle for {}: {}", githubPath, e.getMessage());
+    }
+  }
+
   private ExerciseConfig parseExerciseConfig(String configYaml, String exerciseName) {
     try {
       ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
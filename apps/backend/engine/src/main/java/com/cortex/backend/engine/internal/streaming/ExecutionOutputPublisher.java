@@ -0,0 +1,162 @@
+package com.cortex.backend.engine.internal.streaming;
+
+import static com.cortex.backend.engine.internal.utils.Constants.OUTPUT_CHANNEL_PREFIX;
+
+import com.cortex.backend.engine.api.dto.CodeExecutionResult;
+import com.cortex.backend.engine.api.dto.ExecutionCompletedEvent;
+import com.cortex.backend.engine.api.dto.ExecutionOutputEvent;
+import com.cortex.backend.engine.internal.docker.ExecutionOutputListener;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.dockerjava.api.model.StreamType;
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes live execution output and final results on a per-task Redis channel, so any engine
+ * instance holding the client connection can forward them. Output frames are batched per stream
+ * until the batch is large or old enough, and dropped past the execution output limit.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ExecutionOutputPublisher {
+
+  private final StringRedisTemplate stringRedisTemplate;
+  private final ObjectMapper objectMapper;
+
+  private final ScheduledExecutorService flushScheduler =
+      Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().name("execution-output-flush").daemon().factory());
+
+  @Value("${engine.stream.batch-interval-ms:100}")
+  private long batchIntervalMs;
+
+  @Value("${engine.stream.batch-max-bytes:16384}")
+  private int batchMaxBytes;
+
+  @Value("${engine.execution.max-output-bytes:4194304}")
+  private long maxOutputBytes;
+
+  /**
+   * Creates a listener forwarding the output frames of a task. Closing it publishes what is still
+   * batched.
+   *
+   * @param taskId the task id
+   * @return the listener
+   */
+  public BatchedOutput listenerFor(String taskId) {
+    return new BatchedOutput(taskId);
+  }
+
+  public void publishResult(String taskId, CodeExecutionResult result) {
+    try {
+      publish(taskId, new ExecutionOutputEvent(ExecutionOutputEvent.RESULT,
+          objectMapper.writeValueAsString(result)));
+    } catch (JsonProcessingException e) {
+      log.warn("Failed to serialize result of task {}: {}", taskId, e.getMessage());
+    }
+  }
+
+  /**
+   * Announces a finished task to every node, so the one holding the user's WebSocket session can
+   * push the result.
+   *
+   * @param taskId the task id
+   * @param userId the user who submitted the task
+   * @param result the final result
+   */
+  public void publishCompletion(String taskId, Long userId, CodeExecutionResult result) {
+    try {
+      stringRedisTemplate.convertAndSend(ExecutionCompletedEvent.CHANNEL,
+          objectMapper.writeValueAsString(new ExecutionCompletedEvent(taskId, userId, result)));
+    } catch (Exception e) {
+      log.warn("Failed to publish completion of task {}: {}", taskId, e.getMessage());
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    flushScheduler.shutdownNow();
+  }
+
+  private void publish(String taskId, ExecutionOutputEvent event) {
+    try {
+      stringRedisTemplate.convertAndSend(OUTPUT_CHANNEL_PREFIX + taskId,
+          objectMapper.writeValueAsString(event));
+    } catch (Exception e) {
+      log.debug("Failed to publish output of task {}: {}", taskId, e.getMessage());
+    }
+  }
+
+  /**
+   * Output listener of one task, publishing its frames in batches.
+   */
+  public final class BatchedOutput implements ExecutionOutputListener, AutoCloseable {
+
+    private final String taskId;
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private StreamType pendingType;
+    private long published;
+    private ScheduledFuture<?> scheduledFlush;
+    private boolean closed;
+
+    private BatchedOutput(String taskId) {
+      this.taskId = taskId;
+    }
+
+    @Override
+    public synchronized void onOutput(StreamType streamType, byte[] payload) {
+      if (closed) {
+        return;
+      }
+      if (pendingType != null && pendingType != streamType) {
+        flush();
+      }
+      long room = maxOutputBytes - published - pending.size();
+      if (room <= 0) {
+        return;
+      }
+      pending.write(payload, 0, (int) Math.min(payload.length, room));
+      pendingType = streamType;
+      if (pending.size() >= batchMaxBytes) {
+        flush();
+      } else if (scheduledFlush == null) {
+        scheduledFlush = flushScheduler.schedule(this::flush, batchIntervalMs,
+            TimeUnit.MILLISECONDS);
+      }
+    }
+
+    @Override
+    public synchronized void close() {
+      flush();
+      closed = true;
+    }
+
+    private synchronized void flush() {
+      if (scheduledFlush != null) {
+        scheduledFlush.cancel(false);
+        scheduledFlush = null;
+      }
+      if (pending.size() == 0) {
+        return;
+      }
+      String type = pendingType == StreamType.STDERR
+          ? ExecutionOutputEvent.STDERR
+          : ExecutionOutputEvent.STDOUT;
+      published += pending.size();
+      publish(taskId, new ExecutionOutputEvent(type, pending.toString(StandardCharsets.UTF_8)));
+      pending.reset();
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package com.cortex.backend.engine.internal.streaming;
+
+import static com.cortex.backend.engine.internal.utils.Constants.OUTPUT_CHANNEL_PREFIX;
+import static com.cortex.backend.engine.internal.utils.Constants.RESULT_KEY_PREFIX;
+
+import com.cortex.backend.engine.api.dto.CodeExecutionResult;
+import com.cortex.backend.engine.api.dto.ExecutionOutputEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+/**
+ * Long-polls the result of an execution: the request is held until the result is published on
+ * the task channel, or answered with no content when the wait times out.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ExecutionResultWaiter {
+
+  private final RedisMessageListenerContainer listenerContainer;
+  private final RedisTemplate<String, CodeExecutionResult> redisTemplate;
+  private final ObjectMapper objectMapper;
+
+  @Value("${engine.result.long-poll-timeout-ms:30000}")
+  private long maxTimeoutMs;
+
+  public DeferredResult<ResponseEntity<CodeExecutionResult>> await(String taskId,
+      long timeoutMs) {
+    long timeout = Math.clamp(timeoutMs, 1L, maxTimeoutMs);
+    DeferredResult<ResponseEntity<CodeExecutionResult>> deferred =
+        new DeferredResult<>(timeout, ResponseEntity.noContent().build());
+    ChannelTopic topic = new ChannelTopic(OUTPUT_CHANNEL_PREFIX + taskId);
+
+    MessageListener listener = (message, _) -> {
+      try {
+        ExecutionOutputEvent event = objectMapper.readValue(
+            new String(message.getBody(), StandardCharsets.UTF_8), ExecutionOutputEvent.class);
+        if (ExecutionOutputEvent.RESULT.equals(event.type())) {
+          deferred.setResult(ResponseEntity.ok(
+              objectMapper.readValue(event.data(), CodeExecutionResult.class)));
+        }
+      } catch (IOException e) {
+        log.warn("Failed to read result event of task {}: {}", taskId, e.getMessage());
+      }
+    };
+
+    listenerContainer.addMessageListener(listener, topic);
+    deferred.onCompletion(() -> listenerContainer.removeMessageListener(listener, topic));
+
+    // The task may have finished before the subscription was in place
+    CodeExecutionResult result = redisTemplate.opsForValue().get(RESULT_KEY_PREFIX + taskId);
+    if (result != null) {
+      deferred.setResult(ResponseEntity.ok(result));
+    }
+    return deferred;
+  }
+}
@@ -0,0 +1,122 @@
+package com.cortex.backend.engine.internal.streaming;
+
+import static com.cortex.backend.engine.internal.utils.Constants.RESULT_EXPIRATION_HOURS;
+
+import com.cortex.backend.engine.api.dto.ExecutionStatus;
+import com.cortex.backend.engine.api.dto.ExecutionStatusResponse;
+import com.cortex.backend.engine.internal.docker.ExecutionPhase;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the status of each task in a small Redis hash, so clients and dashboards can see where a
+ * task is and how long each step took with a single read. The hash holds the current status, the
+ * language, the queue position at submission and the time each status was entered.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ExecutionStatusTracker {
+
+  private static final String STATUS_KEY_PREFIX = "status:";
+  private static final String STATUS_FIELD = "status";
+  private static final String USER_FIELD = "user";
+  private static final String LANGUAGE_FIELD = "language";
+  private static final String POSITION_FIELD = "position";
+  private static final String TIMESTAMP_PREFIX = "at:";
+
+  private final StringRedisTemplate stringRedisTemplate;
+
+  public void queued(String taskId, Long userId, String language, long position) {
+    String key = STATUS_KEY_PREFIX + taskId;
+    stringRedisTemplate.opsForHash().putAll(key, Map.of(
+        STATUS_FIELD, ExecutionStatus.QUEUED.name(),
+        USER_FIELD, String.valueOf(userId),
+        LANGUAGE_FIELD, language,
+        POSITION_FIELD, String.valueOf(position),
+        TIMESTAMP_PREFIX + ExecutionStatus.QUEUED.name(), String.valueOf(System.currentTimeMillis())
+    ));
+    stringRedisTemplate.expire(key, RESULT_EXPIRATION_HOURS, TimeUnit.HOURS);
+  }
+
+  /**
+   * Moves a task to a status. Failures are logged and ignored, status tracking must never fail
+   * an execution.
+   *
+   * @param taskId the task id
+   * @param status the status entered
+   */
+  public void advance(String taskId, ExecutionStatus status) {
+    String key = STATUS_KEY_PREFIX + taskId;
+    try {
+      stringRedisTemplate.opsForHash().putAll(key, Map.of(
+          STATUS_FIELD, status.name(),
+          TIMESTAMP_PREFIX + status.name(), String.valueOf(System.currentTimeMillis())
+      ));
+      stringRedisTemplate.expire(key, RESULT_EXPIRATION_HOURS, TimeUnit.HOURS);
+    } catch (Exception e) {
+      log.debug("Failed to update status of task {}: {}", taskId, e.getMessage());
+    }
+  }
+
+  /**
+   * Moves a task to the status matching an execution phase, if the phase is reported.
+   *
+   * @param taskId the task id
+   * @param phase  the phase entered
+   */
+  public void advance(String taskId, ExecutionPhase phase) {
+    switch (phase) {
+      case PROVISIONING -> advance(taskId, ExecutionStatus.PROVISIONING);
+      case COMPILING -> advance(taskId, ExecutionStatus.COMPILING);
+      case TESTING -> advance(taskId, ExecutionStatus.TESTING);
+      case PARSING -> advance(taskId, ExecutionStatus.PARSING);
+      default -> {
+        // Acquiring and collecting are reported as part of the surrounding status
+      }
+    }
+  }
+
+  /**
+   * Looks up the user who submitted a task.
+   *
+   * @param taskId the task id
+   * @return the user id, empty for unknown or expired tasks
+   */
+  public Optional<Long> ownerOf(String taskId) {
+    Object user = stringRedisTemplate.opsForHash().get(STATUS_KEY_PREFIX + taskId, USER_FIELD);
+    return Optional.ofNullable(user).map(value -> Long.valueOf((String) value));
+  }
+
+  public Optional<ExecutionStatusResponse> find(String taskId) {
+    Map<Object, Object> fields = stringRedisTemplate.opsForHash()
+        .entries(STATUS_KEY_PREFIX + taskId);
+    if (fields.isEmpty()) {
+      return Optional.empty();
+    }
+
+    Map<String, Long> timestamps = new LinkedHashMap<>();
+    Arrays.stream(ExecutionStatus.values()).forEach(status -> {
+      Object at = fields.get(TIMESTAMP_PREFIX + status.name());
+      if (at != null) {
+        timestamps.put(status.name().toLowerCase(), Long.valueOf((String) at));
+      }
+    });
+    Object position = fields.get(POSITION_FIELD);
+
+    return Optional.of(new ExecutionStatusResponse(
+        taskId,
+        ExecutionStatus.valueOf((String) fields.get(STATUS_FIELD)),
+        (String) fields.get(LANGUAGE_FIELD),
+        position != null ? Long.valueOf((String) position) : null,
+        timestamps
+    ));
+  }
+}
@@ -0,0 +1,81 @@
+package com.cortex.backend.engine.internal.streaming;
+
+import static com.cortex.backend.engine.internal.utils.Constants.OUTPUT_CHANNEL_PREFIX;
+import static com.cortex.backend.engine.internal.utils.Constants.RESULT_KEY_PREFIX;
+
+import com.cortex.backend.engine.api.dto.CodeExecutionResult;
+import com.cortex.backend.engine.api.dto.ExecutionOutputEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Streams the output of an execution to a client over Server-Sent Events. Output frames are
+ * forwarded from the task channel as they arrive and the stream completes with the final result.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ExecutionStreamService {
+
+  private final RedisMessageListenerContainer listenerContainer;
+  private final RedisTemplate<String, CodeExecutionResult> redisTemplate;
+  private final ObjectMapper objectMapper;
+
+  @Value("${engine.stream.timeout-ms:300000}")
+  private long timeoutMs;
+
+  public SseEmitter subscribe(String taskId) {
+    SseEmitter emitter = new SseEmitter(timeoutMs);
+    ChannelTopic topic = new ChannelTopic(OUTPUT_CHANNEL_PREFIX + taskId);
+
+    MessageListener listener = (message, _) -> {
+      try {
+        ExecutionOutputEvent event = objectMapper.readValue(
+            new String(message.getBody(), StandardCharsets.UTF_8), ExecutionOutputEvent.class);
+        emitter.send(SseEmitter.event().name(event.type()).data(event.data()));
+        if (ExecutionOutputEvent.RESULT.equals(event.type())) {
+          emitter.complete();
+        }
+      } catch (IOException e) {
+        log.debug("Client stream for task {} closed: {}", taskId, e.getMessage());
+        emitter.completeWithError(e);
+      } catch (IllegalStateException e) {
+        // Already completed, e.g. by the stored result sent on subscription
+        log.debug("Dropping message for completed stream of task {}", taskId);
+      }
+    };
+
+    listenerContainer.addMessageListener(listener, topic);
+    Runnable unsubscribe = () -> listenerContainer.removeMessageListener(listener, topic);
+    emitter.onCompletion(unsubscribe);
+    emitter.onTimeout(unsubscribe);
+    emitter.onError(_ -> unsubscribe.run());
+
+    // The task may have finished before the subscription was in place
+    CodeExecutionResult result = redisTemplate.opsForValue().get(RESULT_KEY_PREFIX + taskId);
+    if (result != null) {
+      try {
+        emitter.send(SseEmitter.event()
+            .name(ExecutionOutputEvent.RESULT)
+            .data(objectMapper.writeValueAsString(result)));
+        emitter.complete();
+      } catch (IOException e) {
+        emitter.completeWithError(e);
+      } catch (IllegalStateException e) {
+        log.debug("Stream of task {} completed by its result event", taskId);
+      }
+    }
+
+    return emitter;
+  }
+}
@@ -7,11 +7,17 @@ public final class Constants {
 
   // Queue and Redis related constants
   public static final String CODE_EXECUTION_QUEUE = "code_execution";
+  public static final String CODE_EXECUTION_EXCHANGE = "code_execution.direct";
   public static final String RESULT_KEY_PREFIX = "result:";
   public static final long RESULT_EXPIRATION_HOURS = 1;
+  public static final String OUTPUT_CHANNEL_PREFIX = "execution:output:";
 
   // Directory paths
   public static final String TMP_PREFIX = "code-execution-";
+  public static final String WORKSPACE_DIR = "workspace";
+  public static final String CONTAINER_WORKING_DIR = "/workspace";
+  public static final String CONTAINER_NAME_PREFIX = "code-execution-";
+  public static final String TEST_REPORT_DIR = "/tmp/cortex-report";
   // Shell related
   public static final String BIN_SH = "/bin/sh";
   
@@ -30,6 +36,8 @@ public final class Constants {
   public static final String PACKAGE_JSON = "package.json";
   public static final String TSCONFIG_JSON = "tsconfig.json";
   public static final String PNPM_LOCK = "pnpm-lock.yaml";
+  public static final String CARGO_LOCK = "Cargo.lock";
+  public static final String GO_SUM = "go.sum";
   public static final String VITEST_CONFIG = "vitest.config.ts";
   public static final String BIOME_JSON = "biome.json";
 
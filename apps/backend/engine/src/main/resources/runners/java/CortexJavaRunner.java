@@ -0,0 +1,459 @@
+import java.io.BufferedReader;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Stream;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * Resident runner for Java exercises, started as the main process of an execution container and
+ * launched from source so it needs nothing but the JDK.
+ *
+ * <p>Requests arrive on the {@code requests} FIFO as {@code <command> <response fifo> <nonce>
+ * <project root>} lines. {@code compile} compiles the main and test sources with the in-process compiler
+ * against the jars in {@code target/cortex-lib}; {@code test} runs the tests, discovered in the
+ * precompiled test classes, through the JUnit Platform Launcher in a fresh class loader that
+ * prefers the freshly compiled classes. The response is the output, streamed while the tests run,
+ * a {@code ##cortex-report} line with the JSON report and a final {@code #exit} line with the exit
+ * code, {@value #UNAVAILABLE} when the runner can't serve the request and the build tool has to
+ * run instead. Both lines carry the request nonce.
+ *
+ * <p>The fresh class loader only discards the classes of a run. The JVM is shared by every run of
+ * a warm session, so threads the submission started, the files it wrote into the workspace and
+ * JVM-wide settings outlive it. System properties and the default uncaught exception handler are
+ * restored after each run; once a run leaves non-daemon threads behind, the runner answers every
+ * later request with {@value #UNAVAILABLE} so the build tool runs them in a fresh JVM.
+ */
+public class CortexJavaRunner {
+
+  private static final Path DIR = Path.of("/tmp/cortex-runner");
+  private static final int UNAVAILABLE = 75;
+  private static final String REPORT_PREFIX = "##cortex-report ";
+  private static final long THREAD_GRACE_MS = 200;
+
+  private static final JavaCompiler COMPILER = ToolProvider.getSystemJavaCompiler();
+  private static final StandardJavaFileManager FILE_MANAGER =
+      COMPILER.getStandardFileManager(null, Locale.ROOT, StandardCharsets.UTF_8);
+  private static final Map<Path, Path> COMPILED = new HashMap<>();
+
+  private static boolean tainted;
+
+  public static void main(String[] args) throws Exception {
+    Files.createDirectories(DIR);
+    Path requests = DIR.resolve("requests");
+    Files.deleteIfExists(requests);
+    new ProcessBuilder("mkfifo", requests.toString()).inheritIO().start().waitFor();
+    warmUp();
+    Files.writeString(DIR.resolve("pid"), String.valueOf(ProcessHandle.current().pid()));
+
+    while (true) {
+      try (BufferedReader reader = Files.newBufferedReader(requests)) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          String[] parts = line.split(" ", 4);
+          if (parts.length == 4) {
+            serve(parts[0], Path.of(parts[1]), parts[2], Path.of(parts[3]));
+          }
+        }
+      }
+    }
+  }
+
+  private static void serve(String command, Path response, String nonce, Path root) {
+    try (ResponseStream out = new ResponseStream(Files.newOutputStream(response))) {
+      Result result;
+      try {
+        result = tainted ? Result.unavailable() : switch (command) {
+          case "compile" -> compile(root);
+          case "test" -> test(root, out);
+          default -> Result.unavailable();
+        };
+      } catch (Throwable e) {
+        result = Result.unavailable();
+        e.printStackTrace();
+      }
+      out.write(result.output().getBytes(StandardCharsets.UTF_8));
+      out.endLine();
+      // Only the caller knows the nonce, output of the tests can't pass for these lines
+      if (result.report() != null) {
+        out.write((REPORT_PREFIX + nonce + " " + result.report() + "\n")
+            .getBytes(StandardCharsets.UTF_8));
+      }
+      out.write(("#exit " + nonce + " " + result.exitCode() + "\n")
+          .getBytes(StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+
+  private static Result compile(Path root) throws IOException {
+    Path testClasses = root.resolve("target/test-classes");
+    List<Path> jars = jars(root);
+    if (!Files.isDirectory(testClasses) || jars.isEmpty()) {
+      return Result.unavailable();
+    }
+    // Tests are compiled with the submission, classes precompiled against the template could
+    // link to members the submission no longer has
+    List<Path> sources = new ArrayList<>(javaSources(root.resolve("src/main/java")));
+    sources.addAll(javaSources(root.resolve("src/test/java")));
+
+    Path previous = COMPILED.remove(root);
+    if (previous != null) {
+      delete(previous);
+    }
+    Path classes = Files.createTempDirectory(DIR, "classes");
+
+    long start = System.nanoTime();
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    boolean compiled = COMPILER.getTask(null, FILE_MANAGER, diagnostics,
+        List.of("-d", classes.toString(), "-cp", join(jars), "-proc:none", "-g",
+            "-encoding", "UTF-8"),
+        null, FILE_MANAGER.getJavaFileObjectsFromPaths(sources)).call();
+    long durationMs = (System.nanoTime() - start) / 1_000_000;
+
+    StringBuilder output = new StringBuilder();
+    List<String> errors = new ArrayList<>();
+    for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+      String file = diagnostic.getSource() != null
+          ? root.relativize(Path.of(diagnostic.getSource().toUri())).toString()
+          : "";
+      String message = String.format("%s:%d: %s: %s", file, diagnostic.getLineNumber(),
+          diagnostic.getKind().toString().toLowerCase(Locale.ROOT),
+          diagnostic.getMessage(Locale.ROOT));
+      output.append(message).append('\n');
+      if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+        errors.add(json(message));
+      }
+    }
+    if (compiled) {
+      COMPILED.put(root, classes);
+    } else {
+      delete(classes);
+    }
+    String report = "{\"runner\":\"java\",\"phase\":\"compile\",\"success\":" + compiled
+        + ",\"duration_ms\":" + durationMs + ",\"errors\":[" + String.join(",", errors) + "]}";
+    return new Result(output.toString(), report, compiled ? 0 : 1);
+  }
+
+  private static Result test(Path root, OutputStream out) throws Exception {
+    Path classes = COMPILED.get(root);
+    if (classes == null) {
+      return Result.unavailable();
+    }
+    Path testClasses = root.resolve("target/test-classes");
+    List<URL> urls = new ArrayList<>();
+    urls.add(classes.toUri().toURL());
+    urls.add(testClasses.toUri().toURL());
+    for (Path jar : jars(root)) {
+      urls.add(jar.toUri().toURL());
+    }
+
+    PrintStream stdout = System.out;
+    PrintStream stderr = System.err;
+    // Test output goes to the response as it is written, so it can be streamed to the user
+    PrintStream capture = new PrintStream(out, true, StandardCharsets.UTF_8);
+    Thread thread = Thread.currentThread();
+    ClassLoader contextLoader = thread.getContextClassLoader();
+    Map<String, TestCase> tests = new LinkedHashMap<>();
+    Set<Thread> threads = Thread.getAllStackTraces().keySet();
+    Properties properties = (Properties) System.getProperties().clone();
+    Thread.UncaughtExceptionHandler handler = Thread.getDefaultUncaughtExceptionHandler();
+    long start = System.nanoTime();
+
+    try (URLClassLoader loader = new URLClassLoader(urls.toArray(URL[]::new),
+        ClassLoader.getPlatformClassLoader())) {
+      thread.setContextClassLoader(loader);
+      System.setOut(capture);
+      System.setErr(capture);
+
+      Class<?> listenerType = loader.loadClass(
+          "org.junit.platform.launcher.TestExecutionListener");
+      Class<?> requestType = loader.loadClass(
+          "org.junit.platform.launcher.LauncherDiscoveryRequest");
+      Class<?> builderType = loader.loadClass(
+          "org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder");
+      Object selectors = loader.loadClass("org.junit.platform.engine.discovery.DiscoverySelectors")
+          .getMethod("selectClasspathRoots", Set.class)
+          .invoke(null, Set.of(testClasses));
+      Object builder = builderType.getMethod("request").invoke(null);
+      builderType.getMethod("selectors", List.class).invoke(builder, selectors);
+      Object request = builderType.getMethod("build").invoke(builder);
+      Object launcher = loader.loadClass("org.junit.platform.launcher.core.LauncherFactory")
+          .getMethod("create").invoke(null);
+
+      Object listeners = Array.newInstance(listenerType, 1);
+      Array.set(listeners, 0, Proxy.newProxyInstance(loader, new Class<?>[]{listenerType},
+          new Listener(tests)));
+      loader.loadClass("org.junit.platform.launcher.Launcher")
+          .getMethod("execute", requestType, listeners.getClass())
+          .invoke(launcher, request, listeners);
+    } catch (ClassNotFoundException | NoSuchMethodException e) {
+      return Result.unavailable();
+    } finally {
+      capture.flush();
+      System.setOut(stdout);
+      System.setErr(stderr);
+      thread.setContextClassLoader(contextLoader);
+      System.setProperties(properties);
+      Thread.setDefaultUncaughtExceptionHandler(handler);
+      tainted = outlivedBy(threads);
+    }
+    long durationMs = (System.nanoTime() - start) / 1_000_000;
+
+    boolean passed = tests.values().stream()
+        .allMatch(test -> "PASSED".equals(test.status) || "SKIPPED".equals(test.status));
+    List<String> entries = tests.values().stream().map(TestCase::toJson).toList();
+    String report = "{\"runner\":\"java\",\"phase\":\"test\",\"success\":" + passed
+        + ",\"duration_ms\":" + durationMs + ",\"tests\":[" + String.join(",", entries) + "]}";
+    return new Result("", report, passed ? 0 : 1);
+  }
+
+  /**
+   * Whether non-daemon threads started since a snapshot are still alive, after giving them a
+   * moment to finish.
+   */
+  private static boolean outlivedBy(Set<Thread> snapshot) throws InterruptedException {
+    long deadline = System.nanoTime() + THREAD_GRACE_MS * 1_000_000;
+    List<Thread> leftover = Thread.getAllStackTraces().keySet().stream()
+        .filter(thread -> !snapshot.contains(thread) && !thread.isDaemon())
+        .toList();
+    for (Thread thread : leftover) {
+      thread.join(Math.max(1, (deadline - System.nanoTime()) / 1_000_000));
+    }
+    boolean alive = leftover.stream().anyMatch(Thread::isAlive);
+    if (alive) {
+      System.err.println("Threads of the submission outlived the run, handing over to the build"
+          + " tool");
+    }
+    return alive;
+  }
+
+  private static List<Path> javaSources(Path directory) throws IOException {
+    if (!Files.isDirectory(directory)) {
+      return List.of();
+    }
+    try (Stream<Path> paths = Files.walk(directory)) {
+      return paths.filter(path -> path.toString().endsWith(".java")).toList();
+    }
+  }
+
+  private static void warmUp() {
+    try {
+      Path source = Files.createTempDirectory(DIR, "warmup").resolve("Warmup.java");
+      Files.writeString(source, "class Warmup { String run() { return String.valueOf(1); } }");
+      COMPILER.getTask(null, FILE_MANAGER, null,
+          List.of("-d", source.getParent().toString(), "-proc:none"), null,
+          FILE_MANAGER.getJavaFileObjectsFromPaths(List.of(source))).call();
+      delete(source.getParent());
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+
+  private static List<Path> jars(Path root) throws IOException {
+    Path lib = root.resolve("target/cortex-lib");
+    if (!Files.isDirectory(lib)) {
+      return List.of();
+    }
+    try (Stream<Path> paths = Files.list(lib)) {
+      return paths.filter(path -> path.toString().endsWith(".jar")).sorted().toList();
+    }
+  }
+
+  private static String join(List<Path> paths) {
+    return String.join(":", paths.stream().map(Path::toString).toList());
+  }
+
+  private static void delete(Path directory) throws IOException {
+    try (Stream<Path> paths = Files.walk(directory)) {
+      for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+        Files.deleteIfExists(path);
+      }
+    }
+  }
+
+  private static String json(String value) {
+    StringBuilder escaped = new StringBuilder("\"");
+    for (char c : value.toCharArray()) {
+      switch (c) {
+        case '"' -> escaped.append("\\\"");
+        case '\\' -> escaped.append("\\\\");
+        case '\n' -> escaped.append("\\n");
+        case '\r' -> escaped.append("\\r");
+        case '\t' -> escaped.append("\\t");
+        default -> {
+          if (c < 0x20) {
+            escaped.append(String.format("\\u%04x", (int) c));
+          } else {
+            escaped.append(c);
+          }
+        }
+      }
+    }
+    return escaped.append('"').toString();
+  }
+
+  /**
+   * The response FIFO, remembering whether the last line written is complete.
+   */
+  private static final class ResponseStream extends FilterOutputStream {
+
+    private int last = '\n';
+
+    ResponseStream(OutputStream out) {
+      super(out);
+    }
+
+    @Override
+    public synchronized void write(int b) throws IOException {
+      out.write(b);
+      last = b;
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) throws IOException {
+      if (len > 0) {
+        out.write(b, off, len);
+        last = b[off + len - 1];
+      }
+    }
+
+    synchronized void endLine() throws IOException {
+      if (last != '\n') {
+        write('\n');
+      }
+    }
+  }
+
+  private record Result(String output, String report, int exitCode) {
+
+    static Result unavailable() {
+      return new Result("", null, UNAVAILABLE);
+    }
+  }
+
+  private static final class TestCase {
+
+    private final String className;
+    private final String name;
+    private final long startedAt = System.nanoTime();
+    private long durationMs;
+    private String status = "RUNNING";
+    private String message;
+
+    TestCase(String className, String name) {
+      this.className = className;
+      this.name = name;
+    }
+
+    String toJson() {
+      return "{\"class\":" + json(className) + ",\"name\":" + json(name)
+          + ",\"status\":" + json(status) + ",\"duration_ms\":" + durationMs
+          + ",\"message\":" + (message != null ? json(message) : "null") + "}";
+    }
+  }
+
+  /**
+   * {@code TestExecutionListener} implemented reflectively, since the JUnit API is only on the
+   * class path of the run.
+   */
+  private record Listener(Map<String, TestCase> tests) implements InvocationHandler {
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      switch (method.getName()) {
+        case "executionStarted" -> {
+          if (isTest(args[0])) {
+            tests.put(uniqueId(args[0]), new TestCase(className(args[0]), name(args[0])));
+          }
+        }
+        case "executionSkipped" -> {
+          if (isTest(args[0])) {
+            TestCase test = new TestCase(className(args[0]), name(args[0]));
+            test.status = "SKIPPED";
+            test.message = (String) args[1];
+            tests.put(uniqueId(args[0]), test);
+          }
+        }
+        case "executionFinished" -> {
+          TestCase test = tests.get(uniqueId(args[0]));
+          if (test != null) {
+            Object status = args[1].getClass().getMethod("getStatus").invoke(args[1]);
+            Optional<?> throwable = (Optional<?>) args[1].getClass().getMethod("getThrowable")
+                .invoke(args[1]);
+            test.durationMs = (System.nanoTime() - test.startedAt) / 1_000_000;
+            test.status = switch (status.toString()) {
+              case "SUCCESSFUL" -> "PASSED";
+              case "ABORTED" -> "SKIPPED";
+              default -> "FAILED";
+            };
+            test.message = throwable.map(Object::toString).orElse(null);
+          }
+        }
+        case "hashCode" -> {
+          return System.identityHashCode(proxy);
+        }
+        case "equals" -> {
+          return proxy == args[0];
+        }
+        case "toString" -> {
+          return "CortexJavaRunner.Listener";
+        }
+        default -> {
+        }
+      }
+      return null;
+    }
+
+    private static boolean isTest(Object identifier) throws Exception {
+      return (boolean) identifier.getClass().getMethod("isTest").invoke(identifier);
+    }
+
+    private static String uniqueId(Object identifier) throws Exception {
+      return (String) identifier.getClass().getMethod("getUniqueId").invoke(identifier);
+    }
+
+    private static String name(Object identifier) throws Exception {
+      return (String) identifier.getClass().getMethod("getDisplayName").invoke(identifier);
+    }
+
+    private static String className(Object identifier) throws Exception {
+      Optional<?> source = (Optional<?>) identifier.getClass().getMethod("getSource")
+          .invoke(identifier);
+      if (source.isPresent()) {
+        try {
+          return (String) source.get().getClass().getMethod("getClassName")
+              .invoke(source.get());
+        } catch (NoSuchMethodException e) {
+          return "";
+        }
+      }
+      return "";
+    }
+  }
+}
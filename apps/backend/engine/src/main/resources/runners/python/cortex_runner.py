@@ -0,0 +1,157 @@
+"""Forkserver-style runner for Python exercises.
+
+Started as the main process of an execution container with the standard library modules tests
+commonly use already imported. Requests arrive on the ``requests`` FIFO as ``<command> <response
+fifo> <project root>`` lines. For ``test`` the server imports the third-party modules the test
+files need, then forks a child that discovers and runs the tests like ``python -m unittest
+discover -v``. Submitted code only ever runs in the child, so every run starts from the same
+clean state.
+
+Requests arrive as ``<command> <response fifo> <nonce> <project root>`` lines. The child writes
+the test output and a ``##cortex-report`` line with the JSON report to the response FIFO, then
+the server writes the final ``#exit`` line. Both lines carry the request nonce, so output of the
+tests can't pass for them. The exit code is 75 when the runner can't serve the request and the
+caller has to run unittest itself.
+"""
+
+import ast
+import importlib
+import json
+import os
+import sys
+import time
+import traceback
+import unittest
+
+from unittest_report import ReportingResult
+
+DIR = "/tmp/cortex-runner"
+UNAVAILABLE = 75
+REPORT_PREFIX = "##cortex-report "
+# Exit codes of a child that wrote its own report, offset from the test exit code
+REPORTED = 100
+
+PRELOADED = (
+    "bisect", "collections", "dataclasses", "datetime", "decimal", "enum", "fractions",
+    "functools", "heapq", "io", "itertools", "math", "random", "re", "statistics", "string",
+    "textwrap", "typing",
+)
+
+prepared_roots = set()
+
+
+def preload_test_imports(root):
+    """Imports the non-local modules the test files of a project depend on."""
+    if root in prepared_roots:
+        return
+    prepared_roots.add(root)
+    for directory, _, files in os.walk(root):
+        for name in files:
+            if not (name.startswith("test") and name.endswith(".py")):
+                continue
+            try:
+                with open(os.path.join(directory, name), encoding="utf-8") as source:
+                    tree = ast.parse(source.read())
+            except (OSError, SyntaxError):
+                continue
+            for node in ast.walk(tree):
+                if isinstance(node, ast.Import):
+                    modules = [alias.name for alias in node.names]
+                elif isinstance(node, ast.ImportFrom) and node.level == 0 and node.module:
+                    modules = [node.module]
+                else:
+                    continue
+                for module in modules:
+                    top = module.split(".")[0]
+                    if is_local(root, top):
+                        continue
+                    try:
+                        importlib.import_module(module)
+                    except Exception:
+                        pass
+
+
+def is_local(root, module):
+    return (os.path.exists(os.path.join(root, module + ".py"))
+            or os.path.isdir(os.path.join(root, module)))
+
+
+def run_tests(root, response, nonce):
+    """Runs in the forked child: discovers and runs the tests, then reports."""
+    fd = os.open(response, os.O_WRONLY)
+    os.dup2(fd, 1)
+    os.dup2(fd, 2)
+    sys.stdout = os.fdopen(1, "w", buffering=1, encoding="utf-8", closefd=False)
+    sys.stderr = os.fdopen(2, "w", buffering=1, encoding="utf-8", closefd=False)
+    os.chdir(root)
+    sys.path.insert(0, root)
+
+    started = time.perf_counter()
+    suite = unittest.TestLoader().discover(root, pattern="test*.py", top_level_dir=root)
+    runner = unittest.TextTestRunner(stream=sys.stderr, verbosity=2,
+                                     resultclass=ReportingResult)
+    result = runner.run(suite)
+    report = {
+        "runner": "python",
+        "phase": "test",
+        "success": result.wasSuccessful(),
+        "duration_ms": int((time.perf_counter() - started) * 1000),
+        "tests": result.cases,
+    }
+    code = 0 if result.wasSuccessful() else 1
+    sys.stderr.flush()
+    sys.stdout.write(f"\n{REPORT_PREFIX}{nonce} {json.dumps(report)}\n")
+    sys.stdout.flush()
+    os._exit(REPORTED + code)
+
+
+def serve(command, response, nonce, root):
+    if command != "test":
+        with open(response, "w") as out:
+            out.write(f"#exit {nonce} {UNAVAILABLE}\n")
+        return
+    try:
+        preload_test_imports(root)
+    except Exception:
+        traceback.print_exc()
+
+    # Keep the response open so a child that dies without reporting can still be answered
+    with open(response, "w") as out:
+        pid = os.fork()
+        if pid == 0:
+            try:
+                run_tests(root, response, nonce)
+            except BaseException:
+                traceback.print_exc()
+            finally:
+                os._exit(1)
+        _, status = os.waitpid(pid, 0)
+        code = os.waitstatus_to_exitcode(status)
+        if code in (REPORTED, REPORTED + 1):
+            out.write(f"#exit {nonce} {code - REPORTED}\n")
+        else:
+            out.write(f"\nTest process exited unexpectedly with status {code}\n")
+            out.write(f"#exit {nonce} 1\n")
+
+
+def main():
+    for module in PRELOADED:
+        importlib.import_module(module)
+    os.makedirs(DIR, exist_ok=True)
+    requests = os.path.join(DIR, "requests")
+    if os.path.exists(requests):
+        os.remove(requests)
+    os.mkfifo(requests)
+    with open(os.path.join(DIR, "pid"), "w") as pid_file:
+        pid_file.write(str(os.getpid()))
+
+    while True:
+        with open(requests) as lines:
+            for line in lines:
+                parts = line.rstrip("\n").split(" ", 3)
+                if len(parts) == 4:
+                    serve(*parts)
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,85 @@
+"""Runs the tests of the project in the working directory like ``python -m unittest discover -v``
+and writes a JSON report of every test to the path given as the only argument.
+
+The report has the layout of the ``##cortex-report`` lines of the resident runners: ``runner``,
+``phase``, ``success``, ``duration_ms`` and ``tests``, each test with its ``class``, ``name``,
+``status`` (PASSED, FAILED or SKIPPED), ``duration_ms`` and failure ``message``.
+"""
+
+import json
+import sys
+import time
+import unittest
+
+# Exit code of ``python -m unittest`` when no tests were found
+NO_TESTS = 5
+
+
+class ReportingResult(unittest.TextTestResult):
+    """Text result that also records the outcome and duration of every test."""
+
+    def __init__(self, stream, descriptions, verbosity, **kwargs):
+        super().__init__(stream, descriptions, verbosity, **kwargs)
+        self.cases = []
+        self._started = 0.0
+
+    def startTest(self, test):
+        self._started = time.perf_counter()
+        super().startTest(test)
+
+    def _record(self, test, status, message=None):
+        test_class = type(test)
+        self.cases.append({
+            "class": f"{test_class.__module__}.{test_class.__qualname__}",
+            "name": getattr(test, "_testMethodName", str(test)),
+            "status": status,
+            "duration_ms": int((time.perf_counter() - self._started) * 1000),
+            "message": message,
+        })
+
+    def addSuccess(self, test):
+        super().addSuccess(test)
+        self._record(test, "PASSED")
+
+    def addFailure(self, test, err):
+        super().addFailure(test, err)
+        self._record(test, "FAILED", self._exc_info_to_string(err, test))
+
+    def addError(self, test, err):
+        super().addError(test, err)
+        self._record(test, "FAILED", self._exc_info_to_string(err, test))
+
+    def addSkip(self, test, reason):
+        super().addSkip(test, reason)
+        self._record(test, "SKIPPED", reason)
+
+    def addExpectedFailure(self, test, err):
+        super().addExpectedFailure(test, err)
+        self._record(test, "PASSED")
+
+    def addUnexpectedSuccess(self, test):
+        super().addUnexpectedSuccess(test)
+        self._record(test, "FAILED", "Unexpected success")
+
+
+def main(report_path):
+    started = time.perf_counter()
+    suite = unittest.TestLoader().discover(".", pattern="test*.py")
+    runner = unittest.TextTestRunner(verbosity=2, resultclass=ReportingResult)
+    result = runner.run(suite)
+    report = {
+        "runner": "unittest",
+        "phase": "test",
+        "success": result.wasSuccessful(),
+        "duration_ms": int((time.perf_counter() - started) * 1000),
+        "tests": result.cases,
+    }
+    with open(report_path, "w", encoding="utf-8") as out:
+        json.dump(report, out)
+    if result.testsRun == 0 and not result.skipped:
+        return NO_TESTS
+    return 0 if result.wasSuccessful() else 1
+
+
+if __name__ == "__main__":
+    sys.exit(main(sys.argv[1]))
@@ -0,0 +1,91 @@
+package com.cortex.backend.engine.internal.environment;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Compares the previous full copy of an exercise against materializing a workspace from a
+ * prepared template, by copy and by hard link. Run with
+ * {@code java WorkspaceMaterializationBenchmark [files] [fileSizeBytes] [iterations]}.
+ */
+public class WorkspaceMaterializationBenchmark {
+
+  private static final int WARMUP_ITERATIONS = 5;
+
+  public static void main(String[] args) throws IOException {
+    int fileCount = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+    int fileSize = args.length > 1 ? Integer.parseInt(args[1]) : 16 * 1024;
+    int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+
+    Path root = Files.createTempDirectory("workspace-benchmark-");
+    try {
+      Path exercise = createExercise(root.resolve("exercise"), fileCount, fileSize);
+      Path templateDir = Files.createDirectories(root.resolve("template"));
+      LanguageEnvironmentSetup environmentSetup = new LanguageEnvironmentSetup();
+      environmentSetup.copyDirectoryStructure(exercise, templateDir);
+      WorkspaceTemplate template = WorkspaceTemplate.scan(templateDir, templateDir,
+          templateDir.resolve("main.py"));
+
+      System.out.printf("%d files of %d bytes, %d iterations%n", fileCount, fileSize, iterations);
+      report("full copy", measure(root, iterations,
+          target -> environmentSetup.copyDirectoryStructure(exercise, target)));
+      report("template copy", measure(root, iterations, template::copyInto));
+      report("template hardlink", measure(root, iterations, template::linkInto));
+    } finally {
+      deleteTree(root);
+    }
+  }
+
+  private static Path createExercise(Path exercise, int fileCount, int fileSize)
+      throws IOException {
+    byte[] content = new byte[fileSize];
+    Arrays.fill(content, (byte) 'x');
+    for (int i = 0; i < fileCount; i++) {
+      Path file = exercise.resolve("pkg" + (i % 20)).resolve("file" + i + ".py");
+      Files.createDirectories(file.getParent());
+      Files.write(file, content);
+    }
+    Files.writeString(exercise.resolve("main.py"), "print('hello')\n");
+    return exercise;
+  }
+
+  private static long[] measure(Path root, int iterations, Materialization materialization)
+      throws IOException {
+    long[] samples = new long[iterations];
+    for (int i = -WARMUP_ITERATIONS; i < iterations; i++) {
+      Path target = Files.createTempDirectory(root, "run-");
+      long start = System.nanoTime();
+      materialization.apply(target);
+      long elapsed = System.nanoTime() - start;
+      if (i >= 0) {
+        samples[i] = elapsed;
+      }
+      deleteTree(target);
+    }
+    Arrays.sort(samples);
+    return samples;
+  }
+
+  private static void report(String name, long[] samples) {
+    System.out.printf("%-18s p50 %8.2f ms   p90 %8.2f ms%n", name,
+        samples[samples.length / 2] / 1e6, samples[samples.length * 9 / 10] / 1e6);
+  }
+
+  private static void deleteTree(Path directory) throws IOException {
+    try (Stream<Path> paths = Files.walk(directory)) {
+      for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(path);
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface Materialization {
+
+    void apply(Path target) throws IOException;
+  }
+}
@@ -0,0 +1,201 @@
+package com.cortex.backend.engine.internal.parser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.cortex.backend.engine.api.dto.TestCaseResult;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class TestReportTest {
+
+  private static final long MAX_ENTRY_BYTES = 1024 * 1024L;
+
+  static Stream<Arguments> reports() {
+    return Stream.of(
+        Arguments.of(TestReport.JAVA, "surefire-reports/TEST-com.example.CalculatorTest.xml", """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <testsuite name="com.example.CalculatorTest" tests="3" failures="1" skipped="1">
+              <properties><property name="java.version" value="22"/></properties>
+              <testcase name="adds" classname="com.example.CalculatorTest" time="0.012"/>
+              <testcase name="subtracts" classname="com.example.CalculatorTest" time="1,000.5">
+                <failure message="expected: &lt;1&gt; but was: &lt;2&gt;" type="AssertionError"/>
+                <system-out>debug output</system-out>
+              </testcase>
+              <testcase name="divides" classname="com.example.CalculatorTest" time="0">
+                <skipped/>
+              </testcase>
+            </testsuite>
+            """,
+            List.of("com.example.CalculatorTest#adds passed",
+                "com.example.CalculatorTest#subtracts failed",
+                "com.example.CalculatorTest#divides skipped"),
+            "expected: <1> but was: <2>"),
+        Arguments.of(TestReport.PYTHON, "unittest.json", """
+            {"tests": [
+              {"class": "test_calculator.CalculatorTest", "name": "test_adds",
+               "status": "PASSED", "duration_ms": 3},
+              {"class": "test_calculator.CalculatorTest", "name": "test_subtracts",
+               "status": "FAILED", "duration_ms": 4, "message": "AssertionError: 2 != 1"},
+              {"class": "test_calculator.CalculatorTest", "name": "test_divides",
+               "status": "SKIPPED", "duration_ms": 0, "message": "not implemented"}
+            ]}
+            """,
+            List.of("test_calculator.CalculatorTest#test_adds passed",
+                "test_calculator.CalculatorTest#test_subtracts failed",
+                "test_calculator.CalculatorTest#test_divides skipped"),
+            "AssertionError: 2 != 1"),
+        Arguments.of(TestReport.TYPESCRIPT, "vitest.json", """
+            {"numTotalTests": 3, "testResults": [
+              {"name": "/app/exercise/calculator.test.ts", "status": "failed",
+               "assertionResults": [
+                 {"ancestorTitles": ["calculator"], "title": "adds", "status": "passed",
+                  "duration": 1.4, "failureMessages": []},
+                 {"ancestorTitles": ["calculator"], "title": "subtracts", "status": "failed",
+                  "duration": 2, "failureMessages": ["expected 2 to be 1"]},
+                 {"ancestorTitles": [], "title": "divides", "status": "skipped",
+                  "failureMessages": []}
+               ]},
+              {"name": "/app/exercise/broken.test.ts", "status": "failed",
+               "message": "Transform failed", "assertionResults": []}
+            ], "success": false}
+            """,
+            List.of("calculator#adds passed", "calculator#subtracts failed",
+                "calculator.test.ts#divides skipped", "broken.test.ts failed"),
+            "expected 2 to be 1"),
+        Arguments.of(TestReport.RUST, "libtest.json", """
+            { "type": "suite", "event": "started", "test_count": 3 }
+            { "type": "test", "event": "started", "name": "tests::adds" }
+            { "type": "test", "name": "tests::adds", "event": "ok", "exec_time": 0.001 }
+            { "type": "test", "name": "tests::subtracts", "event": "failed", "exec_time": 0.002, \
+            "stdout": "thread 'tests::subtracts' panicked: assertion failed\\n" }
+            { "type": "test", "name": "divides", "event": "ignored" }
+            { "type": "suite", "event": "failed", "passed": 1, "failed": 1, "ignored": 1 }
+            """,
+            List.of("tests#adds passed", "tests#subtracts failed", "divides skipped"),
+            "panicked: assertion failed"),
+        Arguments.of(TestReport.GO, "go-test.json", """
+            {"Action":"start"}
+            {"Action":"run","Test":"TestAdd"}
+            {"Action":"output","Test":"TestAdd","Output":"=== RUN   TestAdd\\n"}
+            {"Action":"pass","Test":"TestAdd","Elapsed":0.01}
+            {"Action":"run","Test":"TestSubtract"}
+            {"Action":"output","Test":"TestSubtract","Output":"    calc_test.go:12: got 2\\n"}
+            {"Action":"fail","Test":"TestSubtract","Elapsed":0.02}
+            {"Action":"skip","Test":"TestDivide","Elapsed":0}
+            {"Action":"output","Output":"FAIL\\n"}
+            {"Action":"fail","Elapsed":0.03}
+            """,
+            List.of("TestAdd passed", "TestSubtract failed", "TestDivide skipped"),
+            "calc_test.go:12: got 2"));
+  }
+
+  static Stream<Arguments> malformedReports() {
+    return Stream.of(
+        Arguments.of(TestReport.JAVA, "surefire-reports/TEST-com.example.CalculatorTest.xml",
+            "<testsuite><testcase name=\"adds\" classname=\"com.example.CalculatorTest\""),
+        Arguments.of(TestReport.PYTHON, "unittest.json", "{\"tests\": [{\"name\": \"test_adds\""),
+        Arguments.of(TestReport.TYPESCRIPT, "vitest.json", "[{\"testResults\": []}]"),
+        Arguments.of(TestReport.RUST, "libtest.json",
+            "{ \"type\": \"test\", \"name\": \"tests::adds\", \"event\": \"ok\" }\nthread 'main'"),
+        Arguments.of(TestReport.GO, "go-test.json",
+            "{\"Action\":\"pass\",\"Test\":\"TestAdd\",\"Elapsed\":"));
+  }
+
+  @ParameterizedTest
+  @MethodSource("reports")
+  void read_shouldReportEveryTest_whenReportIsValid(TestReport report, String entryName,
+      String content, List<String> expectedOutcomes, String expectedFailure) throws IOException {
+    // Act
+    List<TestCaseResult> results = report.read(tar(Map.entry(entryName, content)),
+        MAX_ENTRY_BYTES);
+
+    // Assert
+    assertThat(results).extracting(TestReportTest::outcome)
+        .containsExactlyElementsOf(expectedOutcomes);
+    assertThat(results).filteredOn(result -> !result.isPassed())
+        .first()
+        .extracting(TestCaseResult::getActualOutput)
+        .asString()
+        .contains(expectedFailure);
+  }
+
+  @ParameterizedTest
+  @MethodSource("malformedReports")
+  void read_shouldThrowIOException_whenReportIsMalformed(TestReport report, String entryName,
+      String content) {
+    assertThatThrownBy(() -> report.read(tar(Map.entry(entryName, content)), MAX_ENTRY_BYTES))
+        .isInstanceOf(IOException.class);
+  }
+
+  @ParameterizedTest
+  @EnumSource(TestReport.class)
+  void read_shouldThrowIOException_whenReportExceedsLimit(TestReport report) {
+    String location = report == TestReport.JAVA
+        ? report.locationIn("/app") + "/TEST-com.example.CalculatorTest.xml"
+        : report.locationIn("/app");
+    String entryName = location.substring(location.lastIndexOf('/') + 1);
+
+    assertThatThrownBy(() -> report.read(tar(Map.entry(entryName, "x".repeat(64))), 63))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("exceeds 63 bytes");
+  }
+
+  @Test
+  void read_shouldSkipOtherFiles_whenReportDirectoryHoldsThem() throws IOException {
+    // Arrange
+    InputStream archive = tar(
+        Map.entry("surefire-reports/com.example.CalculatorTest.txt", "not a report"),
+        Map.entry("surefire-reports/TEST-com.example.CalculatorTest.xml", """
+            <testsuite><testcase name="adds" classname="com.example.CalculatorTest"/></testsuite>
+            """));
+
+    // Act
+    List<TestCaseResult> results = TestReport.JAVA.read(archive, MAX_ENTRY_BYTES);
+
+    // Assert
+    assertThat(results).extracting(TestReportTest::outcome)
+        .containsExactly("com.example.CalculatorTest#adds passed");
+  }
+
+  @Test
+  void read_shouldReturnNoResults_whenArchiveIsEmpty() throws IOException {
+    assertThat(TestReport.GO.read(tar(), MAX_ENTRY_BYTES)).isEmpty();
+  }
+
+  private static String outcome(TestCaseResult result) {
+    // Messages read "Test '<name>' <status> (<duration> ms)"
+    String message = result.getMessage();
+    String status = message.substring(message.lastIndexOf("' ") + 2, message.lastIndexOf(" ("));
+    return result.getInput() + " " + status;
+  }
+
+  @SafeVarargs
+  private static InputStream tar(Map.Entry<String, String>... entries) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (TarArchiveOutputStream out = new TarArchiveOutputStream(bytes)) {
+      for (Map.Entry<String, String> entry : entries) {
+        byte[] content = entry.getValue().getBytes(StandardCharsets.UTF_8);
+        TarArchiveEntry tarEntry = new TarArchiveEntry(entry.getKey());
+        tarEntry.setSize(content.length);
+        out.putArchiveEntry(tarEntry);
+        out.write(content);
+        out.closeArchiveEntry();
+      }
+    }
+    return new ByteArrayInputStream(bytes.toByteArray());
+  }
+}
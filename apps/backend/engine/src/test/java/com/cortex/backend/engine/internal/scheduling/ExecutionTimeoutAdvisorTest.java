@@ -0,0 +1,94 @@
+package com.cortex.backend.engine.internal.scheduling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.cortex.backend.engine.internal.scheduling.ExecutionTimeoutAdvisor.DerivedTimeout;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+class ExecutionTimeoutAdvisorTest {
+
+  private static final long DEFAULT_TIMEOUT_MS = 10_000;
+  private static final int MIN_SAMPLES = 20;
+  private static final double PERCENTILE = 0.99;
+  private static final double SAFETY_FACTOR = 3.0;
+  private static final long FLOOR_MS = 1_000;
+  private static final long NOW = 1_700_000_000_000L;
+
+  @Test
+  void derive_shouldKeepDefault_whenSamplesAreTooFew() {
+    // Act
+    DerivedTimeout timeout = derive(runtimes(MIN_SAMPLES - 1, 10), DEFAULT_TIMEOUT_MS);
+
+    // Assert
+    assertThat(timeout.samples()).isEqualTo(MIN_SAMPLES - 1);
+    assertThat(timeout.timeoutMs()).isEqualTo(DEFAULT_TIMEOUT_MS);
+    assertThat(timeout.computedAt()).isEqualTo(NOW);
+  }
+
+  @Test
+  void derive_shouldScalePercentile_whenSamplesAreEnough() {
+    // Arrange: 10, 20, ..., 1000 ms, the 99th percentile is the 99th sample
+    List<String> samples = runtimes(100, 10);
+
+    // Act
+    DerivedTimeout timeout = derive(samples, DEFAULT_TIMEOUT_MS);
+
+    // Assert
+    assertThat(timeout.samples()).isEqualTo(100);
+    assertThat(timeout.percentileMs()).isEqualTo(990);
+    assertThat(timeout.timeoutMs()).isEqualTo(2_970);
+  }
+
+  @Test
+  void derive_shouldIgnoreSampleOrder() {
+    // Arrange
+    List<String> samples = runtimes(100, 10).reversed();
+
+    // Act
+    DerivedTimeout timeout = derive(samples, DEFAULT_TIMEOUT_MS);
+
+    // Assert
+    assertThat(timeout.percentileMs()).isEqualTo(990);
+  }
+
+  @Test
+  void derive_shouldCapAtDefault_whenScaledPercentileExceedsIt() {
+    // Act
+    DerivedTimeout timeout = derive(runtimes(MIN_SAMPLES, 1_000), DEFAULT_TIMEOUT_MS);
+
+    // Assert
+    assertThat(timeout.percentileMs()).isEqualTo(20_000);
+    assertThat(timeout.timeoutMs()).isEqualTo(DEFAULT_TIMEOUT_MS);
+  }
+
+  @Test
+  void derive_shouldRaiseToFloor_whenRunsAreFast() {
+    // Act
+    DerivedTimeout timeout = derive(runtimes(MIN_SAMPLES, 1), DEFAULT_TIMEOUT_MS);
+
+    // Assert
+    assertThat(timeout.timeoutMs()).isEqualTo(FLOOR_MS);
+  }
+
+  @Test
+  void derive_shouldUseDefault_whenFloorExceedsIt() {
+    // Act
+    DerivedTimeout timeout = derive(runtimes(MIN_SAMPLES, 1), 500);
+
+    // Assert
+    assertThat(timeout.timeoutMs()).isEqualTo(500);
+  }
+
+  private static DerivedTimeout derive(List<String> samples, long defaultTimeout) {
+    return ExecutionTimeoutAdvisor.derive(samples, defaultTimeout, MIN_SAMPLES, PERCENTILE,
+        SAFETY_FACTOR, FLOOR_MS, NOW);
+  }
+
+  private static List<String> runtimes(int count, long stepMs) {
+    return LongStream.rangeClosed(1, count)
+        .mapToObj(i -> String.valueOf(i * stepMs))
+        .toList();
+  }
+}
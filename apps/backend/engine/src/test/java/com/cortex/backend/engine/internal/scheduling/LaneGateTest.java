@@ -0,0 +1,144 @@
+package com.cortex.backend.engine.internal.scheduling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class LaneGateTest {
+
+  private static final long HOLDER = 0L;
+  private static final long TIMEOUT_MS = 5_000;
+
+  private final List<String> grants = new CopyOnWriteArrayList<>();
+  private final List<Thread> waiters = new ArrayList<>();
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    for (Thread waiter : waiters) {
+      waiter.interrupt();
+      waiter.join(TIMEOUT_MS);
+    }
+  }
+
+  @Test
+  void acquire_shouldGrantAtOnce_whenSlotsAreFree() throws InterruptedException {
+    // Arrange
+    LaneGate gate = new LaneGate(2, 3, 1);
+
+    // Act
+    gate.acquire(1L, false);
+    gate.acquire(2L, true);
+
+    // Assert
+    assertThat(gate.used()).isEqualTo(2);
+    assertThat(gate.waiting()).isZero();
+  }
+
+  @Test
+  void release_shouldAlternateUsers_whenOneUserHasABacklog() throws InterruptedException {
+    // Arrange
+    LaneGate gate = new LaneGate(1, 3, 1);
+    gate.acquire(HOLDER, false);
+    enqueue(gate, 1L, false, "a1");
+    enqueue(gate, 1L, false, "a2");
+    enqueue(gate, 1L, false, "a3");
+    enqueue(gate, 2L, false, "b1");
+
+    // Act
+    releaseAll(gate, 4);
+
+    // Assert
+    assertThat(grants).containsExactly("a1", "b1", "a2", "a3");
+  }
+
+  @Test
+  void release_shouldGrantUpToQuantum_whenUserHasTheTurn() throws InterruptedException {
+    // Arrange
+    LaneGate gate = new LaneGate(1, 3, 2);
+    gate.acquire(HOLDER, false);
+    enqueue(gate, 1L, false, "a1");
+    enqueue(gate, 1L, false, "a2");
+    enqueue(gate, 1L, false, "a3");
+    enqueue(gate, 2L, false, "b1");
+
+    // Act
+    releaseAll(gate, 4);
+
+    // Assert
+    assertThat(grants).containsExactly("a1", "a2", "b1", "a3");
+  }
+
+  @Test
+  void release_shouldServeStandardTask_whenPriorityStreakIsReached() throws InterruptedException {
+    // Arrange
+    LaneGate gate = new LaneGate(1, 2, 1);
+    gate.acquire(HOLDER, false);
+    enqueue(gate, 1L, false, "s1");
+    enqueue(gate, 2L, true, "p1");
+    enqueue(gate, 3L, true, "p2");
+    enqueue(gate, 4L, true, "p3");
+
+    // Act
+    releaseAll(gate, 4);
+
+    // Assert
+    assertThat(grants).containsExactly("p1", "p2", "s1", "p3");
+  }
+
+  @Test
+  void acquire_shouldLeaveQueue_whenInterrupted() throws InterruptedException {
+    // Arrange
+    LaneGate gate = new LaneGate(1, 3, 1);
+    gate.acquire(HOLDER, false);
+    Thread waiter = enqueue(gate, 1L, false, "a1");
+
+    // Act
+    waiter.interrupt();
+    await(() -> gate.waiting() == 0);
+    gate.release();
+
+    // Assert
+    assertThat(gate.used()).isZero();
+    assertThat(grants).isEmpty();
+  }
+
+  private Thread enqueue(LaneGate gate, Long userId, boolean priority, String label) {
+    int waiting = gate.waiting();
+    Thread waiter = Thread.ofVirtual().start(() -> {
+      try {
+        gate.acquire(userId, priority);
+        grants.add(label);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    waiters.add(waiter);
+    // Tickets must be queued in order for the grant order to be deterministic
+    await(() -> gate.waiting() == waiting + 1);
+    return waiter;
+  }
+
+  private void releaseAll(LaneGate gate, int count) {
+    for (int i = 0; i < count; i++) {
+      int granted = grants.size();
+      gate.release();
+      await(() -> grants.size() == granted + 1);
+    }
+  }
+
+  private static void await(BooleanSupplier condition) {
+    long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+    while (!condition.getAsBoolean()) {
+      if (System.currentTimeMillis() > deadline) {
+        fail("Condition not met within %d ms", TIMEOUT_MS);
+      }
+      Thread.onSpinWait();
+    }
+  }
+}
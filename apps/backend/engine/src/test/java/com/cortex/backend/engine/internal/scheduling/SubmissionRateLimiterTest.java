@@ -0,0 +1,146 @@
+package com.cortex.backend.engine.internal.scheduling;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.cortex.backend.core.common.exception.RateLimitExceededException;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class SubmissionRateLimiterTest {
+
+  private static final Long USER_ID = 7L;
+  private static final String TASK_ID = "task-1";
+  private static final String IN_FLIGHT_KEY = "exec:inflight-tasks:7";
+
+  @Mock
+  private StringRedisTemplate stringRedisTemplate;
+
+  @Mock
+  private SetOperations<String, String> setOperations;
+
+  private SubmissionRateLimiter submissionRateLimiter;
+
+  @BeforeEach
+  void setUp() {
+    submissionRateLimiter = new SubmissionRateLimiter(stringRedisTemplate);
+    ReflectionTestUtils.setField(submissionRateLimiter, "enabled", true);
+    ReflectionTestUtils.setField(submissionRateLimiter, "capacity", 10L);
+    ReflectionTestUtils.setField(submissionRateLimiter, "refillPerMinute", 6L);
+    ReflectionTestUtils.setField(submissionRateLimiter, "maxInFlight", 3L);
+    ReflectionTestUtils.setField(submissionRateLimiter, "inFlightTtlMs", 900_000L);
+    ReflectionTestUtils.setField(submissionRateLimiter, "inFlightRetryAfterSeconds", 5L);
+  }
+
+  @Test
+  void acquire_shouldAddTaskToUserSet_whenScriptAdmitsIt() {
+    // Arrange
+    stubScript(0L);
+
+    // Act
+    submissionRateLimiter.acquire(USER_ID, TASK_ID);
+
+    // Assert
+    verify(stringRedisTemplate).execute(any(RedisScript.class),
+        eq(List.of("rate:submit:7", IN_FLIGHT_KEY)),
+        eq("10"),
+        eq(String.valueOf(6 / 60_000d)),
+        anyString(),
+        eq("3"),
+        eq("900000"),
+        eq(TASK_ID));
+  }
+
+  @Test
+  void acquire_shouldThrowWithInFlightRetry_whenTooManyTasksAreInFlight() {
+    // Arrange
+    stubScript(-1L);
+
+    // Act & Assert
+    assertThatThrownBy(() -> submissionRateLimiter.acquire(USER_ID, TASK_ID))
+        .isInstanceOf(RateLimitExceededException.class)
+        .hasMessageContaining("3 executions")
+        .extracting("retryAfterSeconds")
+        .isEqualTo(5L);
+  }
+
+  @Test
+  void acquire_shouldThrowWithTokenWait_whenBucketIsEmpty() {
+    // Arrange
+    stubScript(2_500L);
+
+    // Act & Assert
+    assertThatThrownBy(() -> submissionRateLimiter.acquire(USER_ID, TASK_ID))
+        .isInstanceOf(RateLimitExceededException.class)
+        .extracting("retryAfterSeconds")
+        .isEqualTo(3L);
+  }
+
+  @Test
+  void acquire_shouldSkipRedis_whenDisabled() {
+    // Arrange
+    ReflectionTestUtils.setField(submissionRateLimiter, "enabled", false);
+
+    // Act
+    submissionRateLimiter.acquire(USER_ID, TASK_ID);
+
+    // Assert
+    verifyNoInteractions(stringRedisTemplate);
+  }
+
+  @Test
+  void release_shouldRemoveTaskFromUserSet() {
+    // Arrange
+    when(stringRedisTemplate.opsForSet()).thenReturn(setOperations);
+
+    // Act
+    submissionRateLimiter.release(USER_ID, TASK_ID);
+
+    // Assert
+    verify(setOperations).remove(IN_FLIGHT_KEY, TASK_ID);
+  }
+
+  @Test
+  void release_shouldSkipRedis_whenUserIsUnknown() {
+    // Act
+    submissionRateLimiter.release(null, TASK_ID);
+
+    // Assert
+    verifyNoInteractions(stringRedisTemplate);
+  }
+
+  @Test
+  void release_shouldNotThrow_whenRedisFails() {
+    // Arrange
+    when(stringRedisTemplate.opsForSet()).thenReturn(setOperations);
+    when(setOperations.remove(IN_FLIGHT_KEY, TASK_ID))
+        .thenThrow(new RedisConnectionFailureException("connection refused"));
+
+    // Act & Assert
+    assertThatCode(() -> submissionRateLimiter.release(USER_ID, TASK_ID))
+        .doesNotThrowAnyException();
+  }
+
+  @SuppressWarnings("unchecked")
+  private void stubScript(Long result) {
+    when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+        .thenReturn(result);
+  }
+}
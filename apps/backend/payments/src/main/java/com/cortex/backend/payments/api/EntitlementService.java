@@ -0,0 +1,30 @@
+package com.cortex.backend.payments.api;
+
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class EntitlementService {
+
+  public static final String ENTITLEMENTS_CACHE = "entitlements";
+
+  private static final Set<String> ENTITLED_STATUSES = Set.of("active", "on_trial");
+
+  private final SubscriptionRepository subscriptionRepository;
+
+  /**
+   * Whether a user has a subscription granting paid features. Cached, and evicted whenever a
+   * webhook changes one of the user's subscriptions.
+   *
+   * @param userId the user id
+   * @return {@code true} if any subscription of the user is active or on trial
+   */
+  @Cacheable(value = ENTITLEMENTS_CACHE, key = "#userId")
+  public boolean hasActiveSubscription(String userId) {
+    return subscriptionRepository.findByUserId(userId).stream()
+        .anyMatch(subscription -> ENTITLED_STATUSES.contains(subscription.getStatus()));
+  }
+}
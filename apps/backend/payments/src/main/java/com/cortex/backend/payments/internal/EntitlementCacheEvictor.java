@@ -0,0 +1,46 @@
+package com.cortex.backend.payments.internal;
+
+import com.cortex.backend.payments.api.EntitlementService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Evicts cached entitlements of a user whose subscription changed. Inside a transaction the
+ * eviction waits for the commit, so a concurrent lookup can't cache the old subscription again.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EntitlementCacheEvictor {
+
+  private final CacheManager cacheManager;
+
+  public void evict(String userId) {
+    if (userId == null || userId.isBlank()) {
+      return;
+    }
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          evictNow(userId);
+        }
+      });
+    } else {
+      evictNow(userId);
+    }
+  }
+
+  private void evictNow(String userId) {
+    Cache cache = cacheManager.getCache(EntitlementService.ENTITLEMENTS_CACHE);
+    if (cache != null) {
+      cache.evict(userId);
+      log.debug("Evicted cached entitlements of user {}", userId);
+    }
+  }
+}
@@ -20,6 +20,7 @@ import java.util.function.Consumer;
 public class WebhookEventHandler {
 
   private final SubscriptionRepository subscriptionRepository;
+  private final EntitlementCacheEvictor entitlementCacheEvictor;
 
   private static final String DATA_FIELD = "data";
   private static final String ATTRIBUTES_FIELD = "attributes";
@@ -92,6 +93,7 @@ public class WebhookEventHandler {
           subscription.setStatus(status);
           updateSubscriptionFromAttributes(subscription, attributes);
           subscriptionRepository.save(subscription);
+          entitlementCacheEvictor.evict(subscription.getUserId());
           log.info("Updated subscription status to {} for: {}", status, subscriptionId);
         });
   }
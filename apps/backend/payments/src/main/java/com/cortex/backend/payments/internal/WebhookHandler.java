@@ -34,6 +34,7 @@ public class WebhookHandler {
   private final SubscriptionRepository subscriptionRepository;
   private final WebhookEventHandler webhookEventHandler;
   private final PriceService priceService;
+  private final EntitlementCacheEvictor entitlementCacheEvictor;
   private final ObjectMapper objectMapper;
 
   @Value("${lemon-squeezy.webhook.secret}")
@@ -104,6 +105,7 @@ public class WebhookHandler {
 
       updateSubscriptionFromWebhook(subscription, attributes, userId);
       subscriptionRepository.save(subscription);
+      entitlementCacheEvictor.evict(subscription.getUserId());
 
       log.info("Successfully processed subscription webhook for ID: {}", subscriptionId);
 